@@ -0,0 +1,191 @@
+package org.pancakelab.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.pancakelab.model.orders.DefaultOrderFactory;
+import org.pancakelab.model.orders.Order;
+import org.pancakelab.model.orders.OrderFactory;
+import org.pancakelab.model.orders.OrderValidator;
+import org.pancakelab.model.orders.OrderValidatorConfig;
+import org.pancakelab.model.pancakes.DefaultPancakeFactory;
+import org.pancakelab.model.pancakes.Ingredient;
+import org.pancakelab.model.pancakes.PancakeFactory;
+import org.pancakelab.model.pancakes.PancakeRecipe;
+import org.pancakelab.service.OrderLogger;
+
+import java.io.PrintStream;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Workload shared by the service benchmarks, covering every operation of a pancake service.
+ * Throughput and sampled latency (for tail percentiles) are reported for each operation,
+ * parameterized by the number of live orders, the pancakes per order and the logger.
+ * Subclasses create the service under test and may add parameters of their own.
+ * The service is rebuilt before every iteration so that order depth stays close to pancakesPerOrder.
+ * Thread counts are swept by {@link BenchmarkRunner}.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 1)
+@Measurement(iterations = 3, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+@State(Scope.Benchmark)
+public abstract class AbstractPancakeServiceBenchmark {
+    private static final int MAX_BUILDING = 10;
+    private static final int MAX_ROOM = 1000;
+    private static final int MIN_PREPARED_ORDERS = 256;
+
+    @Param({"1000", "100000"})
+    private int orderCount;
+
+    @Param({"1", "50"})
+    private int pancakesPerOrder;
+
+    @Param({"NO_LOG", "CONSOLE", "ASYNC"})
+    private LoggerType logger;
+
+    private BenchmarkedService pancakeService;
+    private OrderLogger orderLogger;
+    private PancakeRecipe[] recipes;
+    private Map<PancakeRecipe, Integer> cart;
+    private UUID[] orderIds;
+    private Queue<UUID> preparedOrderIds;
+    private PrintStream originalOut;
+
+    /**
+     * Creates the service under test, called before every iteration.
+     */
+    protected abstract BenchmarkedService createService(OrderFactory orderFactory, OrderLogger orderLogger);
+
+    @Setup(Level.Trial)
+    public void setUpTrial() {
+        originalOut = logger.redirectSystemOut();
+
+        PancakeFactory pancakeFactory = new DefaultPancakeFactory();
+        recipes = new PancakeRecipe[]{
+                pancakeFactory.createRecipe(List.of(Ingredient.DARK_CHOCOLATE)),
+                pancakeFactory.createRecipe(List.of(Ingredient.MILK_CHOCOLATE, Ingredient.HAZELNUTS)),
+                pancakeFactory.createRecipe(List.of(Ingredient.DARK_CHOCOLATE, Ingredient.WHIPPED_CREAM, Ingredient.HAZELNUTS))
+        };
+        cart = new LinkedHashMap<>();
+        for (PancakeRecipe recipe : recipes) {
+            cart.put(recipe, 1);
+        }
+    }
+
+    @Setup(Level.Iteration)
+    public void setUpIteration() {
+        pancakeService = createService(
+                new DefaultOrderFactory(new OrderValidator(new OrderValidatorConfig(1, MAX_BUILDING, 1, MAX_ROOM))),
+                orderLogger = logger.create()
+        );
+
+        orderIds = new UUID[orderCount];
+        for (int i = 0; i < orderCount; i++) {
+            orderIds[i] = createOrderWithPancakes(i);
+        }
+
+        preparedOrderIds = new ConcurrentLinkedQueue<>();
+        int preparedCount = Math.max(orderCount / 10, MIN_PREPARED_ORDERS);
+        for (int i = 0; i < preparedCount; i++) {
+            preparedOrderIds.add(createPreparedOrder(i));
+        }
+    }
+
+    @TearDown(Level.Iteration)
+    public void tearDownIteration() throws Exception {
+        if (orderLogger instanceof AutoCloseable closeable) {
+            closeable.close();
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDownTrial() {
+        System.setOut(originalOut);
+    }
+
+    @Benchmark
+    public Order createOrder() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        return pancakeService.createOrder(1 + random.nextInt(MAX_BUILDING), 1 + random.nextInt(MAX_ROOM));
+    }
+
+    @Benchmark
+    public void addPancake() {
+        pancakeService.addPancake(randomOrderId(), randomRecipe(), 1);
+    }
+
+    /**
+     * Adds one pancake of every recipe in a single batch.
+     */
+    @Benchmark
+    public void addPancakes() {
+        pancakeService.addPancakes(randomOrderId(), cart);
+    }
+
+    /**
+     * Removes one pancake and adds it back, so the order depth stays constant for the whole iteration.
+     * Subtract the addPancake score to isolate the cost of the removal.
+     */
+    @Benchmark
+    public void removePancakes() {
+        UUID orderId = randomOrderId();
+        PancakeRecipe recipe = randomRecipe();
+        pancakeService.removePancakes(recipe.description(), orderId, 1);
+        pancakeService.addPancake(orderId, recipe, 1);
+    }
+
+    @Benchmark
+    public List<String> viewOrder() {
+        return pancakeService.viewOrder(randomOrderId());
+    }
+
+    @Benchmark
+    public Set<UUID> listPreparedOrders() {
+        return pancakeService.listPreparedOrders();
+    }
+
+    /**
+     * Delivers one prepared order and replaces it with a new prepared order, so the number of prepared
+     * orders stays constant for the whole iteration.
+     * Subtract the createOrder and addPancake scores to isolate the cost of the delivery.
+     */
+    @Benchmark
+    public Object[] deliverOrder() {
+        UUID orderId = preparedOrderIds.poll();
+        if (orderId == null) {
+            orderId = createPreparedOrder(ThreadLocalRandom.current().nextInt(orderCount));
+        }
+        Object[] delivered = pancakeService.deliverOrder(orderId);
+        preparedOrderIds.add(createPreparedOrder(ThreadLocalRandom.current().nextInt(orderCount)));
+        return delivered;
+    }
+
+    private UUID createOrderWithPancakes(int seed) {
+        UUID orderId = pancakeService.createOrder(1 + seed % MAX_BUILDING, 1 + seed % MAX_ROOM).getId();
+        pancakeService.addPancake(orderId, recipes[seed % recipes.length], pancakesPerOrder);
+        return orderId;
+    }
+
+    private UUID createPreparedOrder(int seed) {
+        UUID orderId = createOrderWithPancakes(seed);
+        pancakeService.completeOrder(orderId);
+        pancakeService.prepareOrder(orderId);
+        return orderId;
+    }
+
+    private UUID randomOrderId() {
+        return orderIds[ThreadLocalRandom.current().nextInt(orderIds.length)];
+    }
+
+    private PancakeRecipe randomRecipe() {
+        return recipes[ThreadLocalRandom.current().nextInt(recipes.length)];
+    }
+}
@@ -0,0 +1,38 @@
+package org.pancakelab.benchmark;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Entry point of the benchmarks jar.
+ * Runs the selected benchmarks with one thread, one thread per core and four threads per core,
+ * and writes a JSON result file per thread count so that runs can be compared against a baseline.
+ * <p>
+ * Usage: {@code java -jar target/benchmarks.jar [include-regex]}
+ */
+public class BenchmarkRunner {
+    private static final int OVERSUBSCRIPTION_FACTOR = 4;
+
+    public static void main(String[] args) throws RunnerException {
+        String include = args.length > 0 ? args[0] : PancakeServiceBenchmark.class.getSimpleName();
+        int cores = Runtime.getRuntime().availableProcessors();
+
+        Set<Integer> threadCounts = new TreeSet<>(List.of(1, cores, cores * OVERSUBSCRIPTION_FACTOR));
+        for (int threads : threadCounts) {
+            Options options = new OptionsBuilder()
+                    .include(include)
+                    .threads(threads)
+                    .result("jmh-result-t%d.json".formatted(threads))
+                    .resultFormat(ResultFormatType.JSON)
+                    .build();
+            new Runner(options).run();
+        }
+    }
+}
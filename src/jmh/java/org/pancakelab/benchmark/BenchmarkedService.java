@@ -0,0 +1,33 @@
+package org.pancakelab.benchmark;
+
+import org.pancakelab.model.orders.Order;
+import org.pancakelab.model.pancakes.PancakeRecipe;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * The operations of a pancake service the benchmarks call, so that the lock-based and the lock-free service
+ * run the same workload through {@link AbstractPancakeServiceBenchmark}.
+ */
+interface BenchmarkedService {
+    Order createOrder(int building, int room);
+
+    void addPancake(UUID orderId, PancakeRecipe pancake, int count);
+
+    void addPancakes(UUID orderId, Map<PancakeRecipe, Integer> pancakes);
+
+    void removePancakes(String description, UUID orderId, int count);
+
+    List<String> viewOrder(UUID orderId);
+
+    void completeOrder(UUID orderId);
+
+    void prepareOrder(UUID orderId);
+
+    Set<UUID> listPreparedOrders();
+
+    Object[] deliverOrder(UUID orderId);
+}
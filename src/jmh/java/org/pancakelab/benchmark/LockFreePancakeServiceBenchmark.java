@@ -0,0 +1,71 @@
+package org.pancakelab.benchmark;
+
+import org.pancakelab.model.orders.Order;
+import org.pancakelab.model.orders.OrderFactory;
+import org.pancakelab.model.pancakes.PancakeRecipe;
+import org.pancakelab.service.LockFreePancakeService;
+import org.pancakelab.service.OrderLogger;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Counterpart of {@link PancakeServiceBenchmark} for the {@link LockFreePancakeService}.
+ * Operations, parameters and workload are shared through {@link AbstractPancakeServiceBenchmark},
+ * so scores can be compared one to one with the lock-based service.
+ */
+public class LockFreePancakeServiceBenchmark extends AbstractPancakeServiceBenchmark {
+
+    @Override
+    protected BenchmarkedService createService(OrderFactory orderFactory, OrderLogger orderLogger) {
+        LockFreePancakeService pancakeService = new LockFreePancakeService(orderFactory, orderLogger);
+        return new BenchmarkedService() {
+            @Override
+            public Order createOrder(int building, int room) {
+                return pancakeService.createOrder(building, room);
+            }
+
+            @Override
+            public void addPancake(UUID orderId, PancakeRecipe pancake, int count) {
+                pancakeService.addPancake(orderId, pancake, count);
+            }
+
+            @Override
+            public void addPancakes(UUID orderId, Map<PancakeRecipe, Integer> pancakes) {
+                pancakeService.addPancakes(orderId, pancakes);
+            }
+
+            @Override
+            public void removePancakes(String description, UUID orderId, int count) {
+                pancakeService.removePancakes(description, orderId, count);
+            }
+
+            @Override
+            public List<String> viewOrder(UUID orderId) {
+                return pancakeService.viewOrder(orderId);
+            }
+
+            @Override
+            public void completeOrder(UUID orderId) {
+                pancakeService.completeOrder(orderId);
+            }
+
+            @Override
+            public void prepareOrder(UUID orderId) {
+                pancakeService.prepareOrder(orderId);
+            }
+
+            @Override
+            public Set<UUID> listPreparedOrders() {
+                return pancakeService.listPreparedOrders();
+            }
+
+            @Override
+            public Object[] deliverOrder(UUID orderId) {
+                return pancakeService.deliverOrder(orderId);
+            }
+        };
+    }
+}
@@ -0,0 +1,45 @@
+package org.pancakelab.benchmark;
+
+import org.pancakelab.service.OrderLogger;
+import org.pancakelab.service.impl.AsyncOrderLogger;
+import org.pancakelab.service.impl.ConsoleLogger;
+import org.pancakelab.service.impl.NoLogOrderLogger;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+
+/**
+ * The OrderLogger implementations the benchmarks can run with.
+ * Loggers that print discard their output, but still format it and go through a synchronized PrintStream.
+ */
+public enum LoggerType {
+    NO_LOG,
+    CONSOLE,
+    ASYNC;
+
+    OrderLogger create() {
+        return switch (this) {
+            case NO_LOG -> new NoLogOrderLogger();
+            case CONSOLE -> new ConsoleLogger();
+            case ASYNC -> new AsyncOrderLogger(discardingStream(),
+                    AsyncOrderLogger.DEFAULT_CAPACITY, AsyncOrderLogger.BackpressurePolicy.BLOCK);
+        };
+    }
+
+    /**
+     * Redirects System.out to a discarding stream when this logger writes to the console.
+     *
+     * @return the previous System.out, to be restored after the trial
+     */
+    PrintStream redirectSystemOut() {
+        PrintStream originalOut = System.out;
+        if (this == CONSOLE) {
+            System.setOut(discardingStream());
+        }
+        return originalOut;
+    }
+
+    private static PrintStream discardingStream() {
+        return new PrintStream(OutputStream.nullOutputStream());
+    }
+}
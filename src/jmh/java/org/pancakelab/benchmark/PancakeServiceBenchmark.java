@@ -0,0 +1,116 @@
+package org.pancakelab.benchmark;
+
+import org.openjdk.jmh.annotations.Param;
+import org.pancakelab.model.orders.Order;
+import org.pancakelab.model.orders.OrderFactory;
+import org.pancakelab.model.pancakes.DefaultPancakeFactory;
+import org.pancakelab.model.pancakes.PancakeRecipe;
+import org.pancakelab.repository.PancakeRepository;
+import org.pancakelab.repository.impl.InMemoryCountedPancakeRepository;
+import org.pancakelab.repository.impl.InMemoryOrderRepository;
+import org.pancakelab.repository.impl.InMemoryPancakeRepository;
+import org.pancakelab.service.OrderLogger;
+import org.pancakelab.service.OrderStateService;
+import org.pancakelab.service.PancakeService;
+import org.pancakelab.service.impl.IndexedOrderStateService;
+import org.pancakelab.service.impl.InMemoryOrderStateService;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * JMH benchmark covering every PancakeService operation, see {@link AbstractPancakeServiceBenchmark},
+ * additionally parameterized by the pancake repository and the order state service in use.
+ */
+public class PancakeServiceBenchmark extends AbstractPancakeServiceBenchmark {
+
+    public enum PancakeRepositoryType {
+        DEQUE,
+        COUNTED
+    }
+
+    public enum OrderStateServiceType {
+        SCAN,
+        INDEXED
+    }
+
+    @Param({"DEQUE", "COUNTED"})
+    private PancakeRepositoryType pancakeRepository;
+
+    @Param({"SCAN", "INDEXED"})
+    private OrderStateServiceType orderStateService;
+
+    @Override
+    protected BenchmarkedService createService(OrderFactory orderFactory, OrderLogger orderLogger) {
+        PancakeService pancakeService = new PancakeService(
+                new InMemoryOrderRepository(),
+                orderFactory,
+                orderLogger,
+                createOrderStateService(),
+                createPancakeRepository(),
+                new DefaultPancakeFactory()
+        );
+        return new BenchmarkedService() {
+            @Override
+            public Order createOrder(int building, int room) {
+                return pancakeService.createOrder(building, room);
+            }
+
+            @Override
+            public void addPancake(UUID orderId, PancakeRecipe pancake, int count) {
+                pancakeService.addPancake(orderId, pancake, count);
+            }
+
+            @Override
+            public void addPancakes(UUID orderId, Map<PancakeRecipe, Integer> pancakes) {
+                pancakeService.addPancakes(orderId, pancakes);
+            }
+
+            @Override
+            public void removePancakes(String description, UUID orderId, int count) {
+                pancakeService.removePancakes(description, orderId, count);
+            }
+
+            @Override
+            public List<String> viewOrder(UUID orderId) {
+                return pancakeService.viewOrder(orderId);
+            }
+
+            @Override
+            public void completeOrder(UUID orderId) {
+                pancakeService.completeOrder(orderId);
+            }
+
+            @Override
+            public void prepareOrder(UUID orderId) {
+                pancakeService.prepareOrder(orderId);
+            }
+
+            @Override
+            public Set<UUID> listPreparedOrders() {
+                return pancakeService.listPreparedOrders();
+            }
+
+            @Override
+            public Object[] deliverOrder(UUID orderId) {
+                return pancakeService.deliverOrder(orderId);
+            }
+        };
+    }
+
+    private OrderStateService createOrderStateService() {
+        return switch (orderStateService) {
+            case SCAN -> new InMemoryOrderStateService();
+            case INDEXED -> new IndexedOrderStateService();
+        };
+    }
+
+    private PancakeRepository createPancakeRepository() {
+        return switch (pancakeRepository) {
+            case DEQUE -> new InMemoryPancakeRepository();
+            case COUNTED -> new InMemoryCountedPancakeRepository();
+        };
+    }
+}
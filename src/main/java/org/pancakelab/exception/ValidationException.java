@@ -8,4 +8,12 @@ public class ValidationException extends RuntimeException {
     public ValidationException(String message) {
         super(message);
     }
+
+    /**
+     * @param writableStackTrace false to skip filling in the stack trace, which makes the exception cheap
+     *                           to create and lets a single instance be thrown repeatedly
+     */
+    public ValidationException(String message, boolean writableStackTrace) {
+        super(message, null, writableStackTrace, writableStackTrace);
+    }
 }
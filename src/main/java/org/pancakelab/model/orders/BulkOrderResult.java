@@ -0,0 +1,22 @@
+package org.pancakelab.model.orders;
+
+import java.util.List;
+
+/**
+ * Outcome of creating many orders at once.
+ *
+ * @param orders the created orders, in the order of their rows
+ * @param errors the rejected rows, in ascending row order
+ */
+public record BulkOrderResult(List<Order> orders, List<RowError> errors) {
+    /**
+     * A rejected row of a bulk creation.
+     *
+     * @param row      the zero-based index of the row in the input
+     * @param building the building number of the row
+     * @param room     the room number of the row
+     * @param message  why the row was rejected
+     */
+    public record RowError(int row, int building, int room, String message) {
+    }
+}
@@ -1,19 +1,51 @@
 package org.pancakelab.model.orders;
 
+import java.util.ArrayList;
+import java.util.List;
+
 /**
  * Factory class for creating Order instances.
- * It uses an OrderValidator to ensure that the order details are valid before creation.
+ * It uses an OrderValidator to ensure that the order details are valid before creation,
+ * and an OrderIdGenerator to assign the ID of the order.
  */
 public class DefaultOrderFactory implements OrderFactory {
 
     private final OrderValidator orderValidator;
+    private final OrderIdGenerator orderIdGenerator;
 
     public DefaultOrderFactory(OrderValidator orderValidator) {
+        this(orderValidator, new TimeOrderedOrderIdGenerator());
+    }
+
+    public DefaultOrderFactory(OrderValidator orderValidator, OrderIdGenerator orderIdGenerator) {
         this.orderValidator = orderValidator;
+        this.orderIdGenerator = orderIdGenerator;
     }
 
     public Order createOrder(int building, int room) {
         orderValidator.validate(building, room);
-        return new Order(building, room);
+        return new Order(orderIdGenerator.nextId(), building, room);
+    }
+
+    /**
+     * Validates all pairs in one pass before any order is created, so rejected rows cost no exception.
+     */
+    @Override
+    public BulkOrderResult createOrders(int[] buildings, int[] rooms) {
+        byte[] results = new byte[buildings.length];
+        int invalid = orderValidator.checkAll(buildings, rooms, results);
+
+        List<Order> orders = new ArrayList<>(buildings.length - invalid);
+        List<BulkOrderResult.RowError> errors = new ArrayList<>(invalid);
+        for (int row = 0; row < buildings.length; row++) {
+            OrderValidator.Result result = OrderValidator.Result.fromCode(results[row]);
+            if (result == OrderValidator.Result.VALID) {
+                orders.add(new Order(orderIdGenerator.nextId(), buildings[row], rooms[row]));
+            } else {
+                String message = orderValidator.getMessage(result);
+                errors.add(new BulkOrderResult.RowError(row, buildings[row], rooms[row], message));
+            }
+        }
+        return new BulkOrderResult(orders, errors);
     }
 }
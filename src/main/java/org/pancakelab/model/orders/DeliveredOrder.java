@@ -0,0 +1,12 @@
+package org.pancakelab.model.orders;
+
+import java.util.List;
+
+/**
+ * An order handed over to a courier, together with the pancakes to deliver.
+ *
+ * @param order    the delivered order
+ * @param pancakes the descriptions of the pancakes in the order
+ */
+public record DeliveredOrder(Order order, List<String> pancakes) {
+}
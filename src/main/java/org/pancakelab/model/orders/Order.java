@@ -6,19 +6,32 @@ import java.util.UUID;
 /**
  * Represents an order in the Pancake Lab.
  * Each order has a unique ID, a building number, and a room number.
- * The ID is generated randomly upon creation of the order.
+ * The ID is assigned by the {@link OrderIdGenerator} of the factory that creates the order.
  */
 public class Order {
     private final UUID id;
     private final int building;
     private final int room;
 
-    Order(int building, int room) {
-        this.id = UUID.randomUUID();
+    Order(UUID id, int building, int room) {
+        this.id = id;
         this.building = building;
         this.room = room;
     }
 
+    /**
+     * Recreates an order that was persisted earlier, e.g. when a journal or snapshot is loaded.
+     * No validation is performed, as the order was validated when it was first created.
+     *
+     * @param id       the ID of the persisted order
+     * @param building the building number
+     * @param room     the room number
+     * @return the restored order
+     */
+    public static Order restore(UUID id, int building, int room) {
+        return new Order(id, building, room);
+    }
+
     public UUID getId() {
         return id;
     }
@@ -0,0 +1,129 @@
+package org.pancakelab.model.orders;
+
+import org.pancakelab.model.pancakes.PancakeRecipe;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Immutable snapshot of an order together with its state and pancakes.
+ * Pancakes are kept as counts per distinct recipe, in the order the recipes were first added.
+ * Every modification returns a new aggregate, so a whole order can be replaced atomically with a single
+ * compare-and-set, and a reader always sees a consistent combination of state and pancakes.
+ */
+public final class OrderAggregate {
+    private static final PancakeRecipe[] NO_RECIPES = new PancakeRecipe[0];
+    private static final int[] NO_COUNTS = new int[0];
+
+    private final Order order;
+    private final OrderState state;
+    private final PancakeRecipe[] recipes;
+    private final int[] counts;
+    private final int pancakesCount;
+
+    private OrderAggregate(Order order, OrderState state, PancakeRecipe[] recipes, int[] counts, int pancakesCount) {
+        this.order = order;
+        this.state = state;
+        this.recipes = recipes;
+        this.counts = counts;
+        this.pancakesCount = pancakesCount;
+    }
+
+    /**
+     * Creates the aggregate of a new order without pancakes.
+     *
+     * @param order the created order
+     * @return an aggregate in the CREATED state
+     */
+    public static OrderAggregate created(Order order) {
+        return new OrderAggregate(order, OrderState.CREATED, NO_RECIPES, NO_COUNTS, 0);
+    }
+
+    public Order getOrder() {
+        return order;
+    }
+
+    public OrderState getState() {
+        return state;
+    }
+
+    public int getPancakesCount() {
+        return pancakesCount;
+    }
+
+    /**
+     * @return the descriptions of all pancakes, one element per pancake, grouped by recipe
+     */
+    public List<String> pancakeDescriptions() {
+        List<String> descriptions = new ArrayList<>(pancakesCount);
+        for (int i = 0; i < recipes.length; i++) {
+            descriptions.addAll(Collections.nCopies(counts[i], recipes[i].description()));
+        }
+        return Collections.unmodifiableList(descriptions);
+    }
+
+    public OrderAggregate withState(OrderState newState) {
+        return newState == state ? this : new OrderAggregate(order, newState, recipes, counts, pancakesCount);
+    }
+
+    /**
+     * @param recipe the recipe of the pancakes to add
+     * @param count  the number of pancakes to add, non-positive counts add nothing
+     * @return the aggregate with the pancakes added
+     */
+    public OrderAggregate withPancakesAdded(PancakeRecipe recipe, int count) {
+        if (count <= 0) return this;
+        int index = indexOf(recipe);
+        if (index >= 0) {
+            int[] newCounts = counts.clone();
+            newCounts[index] += count;
+            return new OrderAggregate(order, state, recipes, newCounts, pancakesCount + count);
+        }
+        PancakeRecipe[] newRecipes = Arrays.copyOf(recipes, recipes.length + 1);
+        int[] newCounts = Arrays.copyOf(counts, counts.length + 1);
+        newRecipes[recipes.length] = recipe;
+        newCounts[counts.length] = count;
+        return new OrderAggregate(order, state, newRecipes, newCounts, pancakesCount + count);
+    }
+
+    /**
+     * @param description the description of the pancakes to remove
+     * @param count       the maximum number of pancakes to remove
+     * @return the aggregate with up to count matching pancakes removed
+     */
+    public OrderAggregate withPancakesRemoved(String description, int count) {
+        int index = indexOf(description);
+        if (index < 0 || count <= 0) return this;
+
+        int removed = Math.min(counts[index], count);
+        if (removed < counts[index]) {
+            int[] newCounts = counts.clone();
+            newCounts[index] -= removed;
+            return new OrderAggregate(order, state, recipes, newCounts, pancakesCount - removed);
+        }
+
+        PancakeRecipe[] newRecipes = new PancakeRecipe[recipes.length - 1];
+        int[] newCounts = new int[counts.length - 1];
+        System.arraycopy(recipes, 0, newRecipes, 0, index);
+        System.arraycopy(recipes, index + 1, newRecipes, index, recipes.length - index - 1);
+        System.arraycopy(counts, 0, newCounts, 0, index);
+        System.arraycopy(counts, index + 1, newCounts, index, counts.length - index - 1);
+        return new OrderAggregate(order, state, newRecipes, newCounts, pancakesCount - removed);
+    }
+
+    private int indexOf(PancakeRecipe recipe) {
+        for (int i = 0; i < recipes.length; i++) {
+            if (recipes[i] == recipe || recipes[i].description().equals(recipe.description())) return i;
+        }
+        return -1;
+    }
+
+    private int indexOf(String description) {
+        for (int i = 0; i < recipes.length; i++) {
+            if (recipes[i].description().equals(description)) return i;
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,23 @@
+package org.pancakelab.model.orders;
+
+/**
+ * A change in the lifecycle of an order, published to the subscribers of the order event feed.
+ *
+ * @param type          what happened to the order
+ * @param order         the order that changed
+ * @param description   the description of the added or removed pancakes, null for other events
+ * @param count         the number of added or removed pancakes, 0 for other events
+ * @param pancakesCount the number of pancakes in the order after the change
+ */
+public record OrderEvent(Type type, Order order, String description, int count, int pancakesCount) {
+    public enum Type {
+        CREATED,
+        PANCAKES_ADDED,
+        PANCAKES_REMOVED,
+        COMPLETED,
+        PREPARED,
+        DELIVERED,
+        CANCELLED,
+        EXPIRED
+    }
+}
@@ -1,5 +1,10 @@
 package org.pancakelab.model.orders;
 
+import org.pancakelab.exception.ValidationException;
+
+import java.util.ArrayList;
+import java.util.List;
+
 /**
  * Factory interface for creating Order instances.
  * This interface defines a method to create an order with specified building and room numbers.
@@ -13,4 +18,28 @@ public interface OrderFactory {
      * @return a new Order instance
      */
     Order createOrder(int building, int room);
+
+    /**
+     * Creates an order for every valid pair of building and room numbers.
+     * Invalid pairs are reported per row instead of failing the whole batch.
+     *
+     * @param buildings the building numbers
+     * @param rooms     the room numbers, as many as building numbers
+     * @return the created orders and the rejected rows
+     */
+    default BulkOrderResult createOrders(int[] buildings, int[] rooms) {
+        if (buildings.length != rooms.length) {
+            throw new IllegalArgumentException("Rooms must have the length of the buildings.");
+        }
+        List<Order> orders = new ArrayList<>(buildings.length);
+        List<BulkOrderResult.RowError> errors = new ArrayList<>();
+        for (int row = 0; row < buildings.length; row++) {
+            try {
+                orders.add(createOrder(buildings[row], rooms[row]));
+            } catch (ValidationException e) {
+                errors.add(new BulkOrderResult.RowError(row, buildings[row], rooms[row], e.getMessage()));
+            }
+        }
+        return new BulkOrderResult(orders, errors);
+    }
 }
@@ -0,0 +1,16 @@
+package org.pancakelab.model.orders;
+
+import java.util.UUID;
+
+/**
+ * Generates the IDs of new orders.
+ * {@code UUID::randomUUID} gives random version 4 IDs, {@link TimeOrderedOrderIdGenerator} gives
+ * time-ordered IDs without contention between threads.
+ */
+@FunctionalInterface
+public interface OrderIdGenerator {
+    /**
+     * @return a new, unique order ID
+     */
+    UUID nextId();
+}
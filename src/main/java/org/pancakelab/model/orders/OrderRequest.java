@@ -0,0 +1,10 @@
+package org.pancakelab.model.orders;
+
+/**
+ * The location of an order to create, e.g. one row of a bulk import.
+ *
+ * @param building the building number
+ * @param room     the room number
+ */
+public record OrderRequest(int building, int room) {
+}
@@ -5,31 +5,117 @@ import org.pancakelab.exception.ValidationException;
 /**
  * Validates the order details such as building and room numbers.
  * Ensures that the provided building and room numbers are within the configured valid ranges.
+ * The bounds and error messages are taken from the config once, so checking a pair allocates nothing.
+ * Hot paths can use {@link #check(int, int)} instead of catching exceptions, and bulk imports
+ * can validate whole columns of pairs with {@link #checkAll(int[], int[], byte[])}.
  */
 public class OrderValidator {
+    private static final String INVALID_ROOM_NUMBER_MSG_TEMPLATE = "Room number must be between %d and %d.";
+    private static final String INVALID_BUILDING_NUMBER_MSG_TEMPLATE = "Building number must be between %d and %d.";
+
+    /**
+     * Outcome of validating a building and room pair, an invalid building takes precedence over an invalid room.
+     */
+    public enum Result {
+        VALID,
+        INVALID_BUILDING,
+        INVALID_ROOM;
+
+        private static final Result[] RESULTS = values();
 
-    private final OrderValidatorConfig config;
+        /**
+         * @param code a code written by {@link #checkAll(int[], int[], byte[])}
+         */
+        public static Result fromCode(int code) {
+            return RESULTS[code];
+        }
+    }
 
+    private final int minBuildingNumber;
+    private final int maxBuildingNumber;
+    private final int minRoomNumber;
+    private final int maxRoomNumber;
+    private final String invalidBuildingMessage;
+    private final String invalidRoomMessage;
+    private final ValidationException invalidBuildingException;
+    private final ValidationException invalidRoomException;
 
     public OrderValidator(OrderValidatorConfig config) {
-        this.config = config;
+        this(config, false);
     }
 
-    private static final String INVALID_ROOM_NUMBER_MSG_TEMPLATE = "Room number must be between %d and %d.";
-    private static final String INVALID_BUILDING_NUMBER_MSG_TEMPLATE = "Building number must be between %d and %d.";
+    /**
+     * @param stacklessExceptions true to throw preallocated exceptions without stack traces from {@link #validate(int, int)},
+     *                            which is much cheaper when invalid requests are frequent but hides where they came from
+     */
+    public OrderValidator(OrderValidatorConfig config, boolean stacklessExceptions) {
+        this.minBuildingNumber = config.getMinBuildingNumber();
+        this.maxBuildingNumber = config.getMaxBuildingNumber();
+        this.minRoomNumber = config.getMinRoomNumber();
+        this.maxRoomNumber = config.getMaxRoomNumber();
+        this.invalidBuildingMessage = String.format(INVALID_BUILDING_NUMBER_MSG_TEMPLATE, minBuildingNumber, maxBuildingNumber);
+        this.invalidRoomMessage = String.format(INVALID_ROOM_NUMBER_MSG_TEMPLATE, minRoomNumber, maxRoomNumber);
+        this.invalidBuildingException = stacklessExceptions ? new ValidationException(invalidBuildingMessage, false) : null;
+        this.invalidRoomException = stacklessExceptions ? new ValidationException(invalidRoomMessage, false) : null;
+    }
 
     public void validate(int building, int room) {
-        if (building < config.getMinBuildingNumber() || building > config.getMaxBuildingNumber()) {
-            throw new ValidationException(String.format(INVALID_BUILDING_NUMBER_MSG_TEMPLATE,
-                    config.getMinBuildingNumber(),
-                    config.getMaxBuildingNumber()
-            ));
+        switch (check(building, room)) {
+            case INVALID_BUILDING -> throw invalidBuildingException != null
+                    ? invalidBuildingException
+                    : new ValidationException(invalidBuildingMessage);
+            case INVALID_ROOM -> throw invalidRoomException != null
+                    ? invalidRoomException
+                    : new ValidationException(invalidRoomMessage);
+            case VALID -> {
+            }
+        }
+    }
+
+    /**
+     * Validates a pair without throwing.
+     *
+     * @return the outcome, see {@link #getMessage(Result)} for the error message
+     */
+    public Result check(int building, int room) {
+        if (building < minBuildingNumber || building > maxBuildingNumber) return Result.INVALID_BUILDING;
+        if (room < minRoomNumber || room > maxRoomNumber) return Result.INVALID_ROOM;
+        return Result.VALID;
+    }
+
+    /**
+     * @return the message {@link #validate(int, int)} throws for the result, or null if the result is valid
+     */
+    public String getMessage(Result result) {
+        return switch (result) {
+            case INVALID_BUILDING -> invalidBuildingMessage;
+            case INVALID_ROOM -> invalidRoomMessage;
+            case VALID -> null;
+        };
+    }
+
+    /**
+     * Validates many pairs in one pass. The loop has no branches, so the JIT can unroll and vectorize it.
+     *
+     * @param buildings the building numbers
+     * @param rooms     the room numbers, as many as building numbers
+     * @param results   receives the code of the {@link Result} of each pair, see {@link Result#fromCode(int)},
+     *                  at least as many as building numbers
+     * @return the number of invalid pairs
+     */
+    public int checkAll(int[] buildings, int[] rooms, byte[] results) {
+        int count = buildings.length;
+        if (rooms.length != count || results.length < count) {
+            throw new IllegalArgumentException("Rooms and results must have the length of the buildings.");
         }
-        if (room < config.getMinRoomNumber() || room > config.getMaxRoomNumber()) {
-            throw new ValidationException(String.format(INVALID_ROOM_NUMBER_MSG_TEMPLATE,
-                    config.getMinRoomNumber(),
-                    config.getMaxRoomNumber()
-            ));
+        int invalid = 0;
+        for (int i = 0; i < count; i++) {
+            // the sign bit of either difference is set if the value is out of range, long arithmetic cannot overflow
+            int invalidBuilding = (int) ((((long) buildings[i] - minBuildingNumber) | ((long) maxBuildingNumber - buildings[i])) >>> 63);
+            int invalidRoom = (int) ((((long) rooms[i] - minRoomNumber) | ((long) maxRoomNumber - rooms[i])) >>> 63);
+            results[i] = (byte) (invalidBuilding | ((invalidRoom & ~invalidBuilding) << 1));
+            invalid += invalidBuilding | invalidRoom;
         }
+        return invalid;
     }
 }
@@ -2,12 +2,37 @@ package org.pancakelab.model.pancakes;
 
 
 import java.util.List;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 
+/**
+ * Factory that returns one canonical, immutable recipe per distinct ingredient combination.
+ * Combinations are keyed by a bitmask over the Ingredient enum, so ingredients are listed in enum order
+ * regardless of the order they were requested in, and the description of each recipe is computed only once.
+ */
 public class DefaultPancakeFactory implements PancakeFactory {
+    private final AtomicReferenceArray<PancakeRecipe> recipes = new AtomicReferenceArray<>(1 << Ingredient.values().length);
+
     @Override
     public PancakeRecipe createRecipe(List<Ingredient> ingredients) {
+        int mask = Ingredient.maskOf(ingredients);
+        if (mask < 0) {
+            // Repeated ingredients have no bitmask, such recipes are built as requested
+            return build(ingredients);
+        }
+
+        PancakeRecipe recipe = recipes.get(mask);
+        if (recipe == null) {
+            recipe = build(Ingredient.ofMask(mask));
+            if (!recipes.compareAndSet(mask, null, recipe)) {
+                recipe = recipes.get(mask);
+            }
+        }
+        return recipe;
+    }
+
+    private static PancakeRecipe build(List<Ingredient> ingredients) {
         return new Pancake.Builder()
                 .withIngredients(ingredients)
                 .build();
     }
-}
\ No newline at end of file
+}
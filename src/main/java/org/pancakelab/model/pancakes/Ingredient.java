@@ -1,8 +1,12 @@
 package org.pancakelab.model.pancakes;
 
+import java.util.ArrayList;
+import java.util.List;
+
 /**
  * Represents the ingredients used in pancakes at the Pancake Lab.
  * Each ingredient has a description that can be used for display purposes.
+ * A combination of distinct ingredients can be represented by a bitmask over the ingredient ordinals.
  */
 public enum Ingredient {
     DARK_CHOCOLATE("dark chocolate"),
@@ -10,6 +14,14 @@ public enum Ingredient {
     MILK_CHOCOLATE("milk chocolate"),
     HAZELNUTS("hazelnuts");
 
+    private static final Ingredient[] INGREDIENTS = values();
+
+    static {
+        if (INGREDIENTS.length >= Integer.SIZE - 1) {
+            throw new IllegalStateException("Too many ingredients for an int bitmask: " + INGREDIENTS.length);
+        }
+    }
+
     private final String description;
 
     Ingredient(String description) {
@@ -19,4 +31,30 @@ public enum Ingredient {
     public String getDescription() {
         return description;
     }
+
+    /**
+     * @return the bitmask of the ingredients, or -1 if an ingredient is repeated
+     */
+    public static int maskOf(List<Ingredient> ingredients) {
+        int mask = 0;
+        for (Ingredient ingredient : ingredients) {
+            int bit = 1 << ingredient.ordinal();
+            if ((mask & bit) != 0) return -1;
+            mask |= bit;
+        }
+        return mask;
+    }
+
+    /**
+     * @return the ingredients in the bitmask, in enum order
+     */
+    public static List<Ingredient> ofMask(int mask) {
+        List<Ingredient> ingredients = new ArrayList<>(Integer.bitCount(mask));
+        for (Ingredient ingredient : INGREDIENTS) {
+            if ((mask & (1 << ingredient.ordinal())) != 0) {
+                ingredients.add(ingredient);
+            }
+        }
+        return ingredients;
+    }
 }
@@ -2,13 +2,16 @@ package org.pancakelab.model.pancakes;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Objects;
 
 /**
  * Represents a pancake in the Pancake Lab.
  * Each pancake is defined by its ingredients and can be built using the Builder pattern.
+ * The description is computed once on construction, as the ingredients never change.
  */
 public class Pancake implements PancakeRecipe {
     private List<Ingredient> ingredients;
+    private String description;
 
     // Private constructor to prevent instantiation without ingredients
     private Pancake() {
@@ -16,11 +19,30 @@ public class Pancake implements PancakeRecipe {
 
     private Pancake(List<Ingredient> ingredients) {
         this.ingredients = List.copyOf(ingredients); // Ensure immutability
+        this.description = PancakeRecipe.super.description();
     }
 
     @Override
     public List<Ingredient> ingredients() {
-        return List.copyOf(ingredients);
+        return ingredients;
+    }
+
+    @Override
+    public String description() {
+        return description;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        Pancake pancake = (Pancake) o;
+        return Objects.equals(ingredients, pancake.ingredients);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hashCode(ingredients);
     }
 
     public static class Builder {
@@ -0,0 +1,125 @@
+package org.pancakelab.model.pancakes;
+
+import org.pancakelab.exception.ValidationException;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Registry of the recipes that can be ordered, each with a small integer ID.
+ * The ID of a recipe is the bitmask of its ingredients over the Ingredient enum, so it fits in a short,
+ * is the same for every menu, and identifies the recipe without comparing descriptions.
+ * The recipes are created once by the underlying factory, and their descriptions are only needed for display.
+ * <p>
+ * The menu is itself a PancakeFactory that only creates the recipes on the menu.
+ */
+public class PancakeMenu implements PancakeFactory {
+    /**
+     * The number of possible recipe IDs, one more than the largest ID.
+     */
+    public static final int RECIPE_SLOTS = 1 << Ingredient.values().length;
+
+    static {
+        if (Ingredient.values().length >= Short.SIZE) {
+            throw new IllegalStateException("Too many ingredients for short recipe IDs: " + Ingredient.values().length);
+        }
+    }
+
+    private final PancakeRecipe[] recipes = new PancakeRecipe[RECIPE_SLOTS];
+    private final Map<String, Integer> idsByDescription = new HashMap<>();
+    private final List<Integer> recipeIds = new ArrayList<>();
+
+    /**
+     * Creates a menu of every combination of ingredients.
+     */
+    public PancakeMenu(PancakeFactory pancakeFactory) {
+        for (int id = 1; id < recipes.length; id++) {
+            add(pancakeFactory, id);
+        }
+    }
+
+    /**
+     * @param pancakeFactory creates the recipes
+     * @param allowedRecipes the ingredients of each recipe on the menu, without repeated ingredients
+     */
+    public PancakeMenu(PancakeFactory pancakeFactory, List<List<Ingredient>> allowedRecipes) {
+        for (List<Ingredient> ingredients : allowedRecipes) {
+            int id = Ingredient.maskOf(ingredients);
+            if (id <= 0) {
+                throw new IllegalArgumentException("Recipes must have distinct ingredients: " + ingredients);
+            }
+            if (recipes[id] == null) {
+                add(pancakeFactory, id);
+            }
+        }
+    }
+
+    private void add(PancakeFactory pancakeFactory, int id) {
+        PancakeRecipe recipe = pancakeFactory.createRecipe(Ingredient.ofMask(id));
+        recipes[id] = recipe;
+        idsByDescription.put(recipe.description(), id);
+        recipeIds.add(id);
+    }
+
+    /**
+     * @return the recipe with the ingredients
+     * @throws ValidationException if the recipe is not on the menu
+     */
+    @Override
+    public PancakeRecipe createRecipe(List<Ingredient> ingredients) {
+        int id = Ingredient.maskOf(ingredients);
+        if (id <= 0 || recipes[id] == null) {
+            throw new ValidationException("Recipe is not on the menu.");
+        }
+        return recipes[id];
+    }
+
+    /**
+     * @return the recipe with the ID
+     * @throws ValidationException if no recipe on the menu has the ID
+     */
+    public PancakeRecipe recipe(int recipeId) {
+        if (!contains(recipeId)) {
+            throw new ValidationException("Recipe " + recipeId + " is not on the menu.");
+        }
+        return recipes[recipeId];
+    }
+
+    /**
+     * @return the ID of the recipe
+     * @throws ValidationException if the recipe is not on the menu
+     */
+    public int idOf(PancakeRecipe recipe) {
+        int id = Ingredient.maskOf(recipe.ingredients());
+        if (id <= 0 || recipes[id] == null) {
+            throw new ValidationException("Recipe is not on the menu.");
+        }
+        return id;
+    }
+
+    /**
+     * @return the ID of the recipe with the description, or -1 if no recipe on the menu has the description
+     */
+    public int idOf(String description) {
+        Integer id = idsByDescription.get(description);
+        return id == null ? -1 : id;
+    }
+
+    public boolean contains(int recipeId) {
+        return recipeId > 0 && recipeId < recipes.length && recipes[recipeId] != null;
+    }
+
+    public String description(int recipeId) {
+        return recipe(recipeId).description();
+    }
+
+    /**
+     * @return the IDs of the recipes on the menu, in ascending order for the menu of all combinations,
+     * otherwise in the order the recipes were listed
+     */
+    public List<Integer> recipeIds() {
+        return List.copyOf(recipeIds);
+    }
+}
@@ -2,6 +2,7 @@ package org.pancakelab.repository;
 
 import org.pancakelab.model.orders.Order;
 
+import java.util.Collection;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -31,4 +32,15 @@ public interface OrderRepository {
      * @param orderId the ID of the order to delete
      */
     void deleteById(UUID orderId);
+
+    /**
+     * Saves many orders, e.g. a bulk import. Implementations may store them in fewer, larger steps.
+     *
+     * @param orders the orders to save
+     */
+    default void saveAll(Collection<Order> orders) {
+        for (Order order : orders) {
+            save(order);
+        }
+    }
 }
@@ -3,6 +3,7 @@ package org.pancakelab.repository;
 import org.pancakelab.model.pancakes.PancakeRecipe;
 
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 /**
@@ -28,6 +29,23 @@ public interface PancakeRepository {
      */
     int addPancake(UUID orderId, PancakeRecipe pancakeRecipe);
 
+    /**
+     * Adds several pancakes to an order in one step.
+     *
+     * @param orderId  the ID of the order
+     * @param pancakes the number of pancakes to add per recipe, non-positive counts are ignored
+     * @return the total number of pancakes in the order after addition
+     */
+    default int addPancakes(UUID orderId, Map<PancakeRecipe, Integer> pancakes) {
+        int pancakeCount = getPancakesCount(orderId);
+        for (var entry : pancakes.entrySet()) {
+            for (int i = 0; i < entry.getValue(); ++i) {
+                pancakeCount = addPancake(orderId, entry.getKey());
+            }
+        }
+        return pancakeCount;
+    }
+
     /**
      * Removes all pancakes associated with a specific order.
      *
@@ -45,6 +63,19 @@ public interface PancakeRepository {
      */
     int removePancakes(UUID orderId, String description, int count);
 
+    /**
+     * Removes a specified number of pancakes of a given recipe from an order.
+     * Repositories that store recipes rather than descriptions can match them without comparing strings.
+     *
+     * @param orderId the ID of the order
+     * @param recipe  the recipe of the pancakes to remove
+     * @param count   the number of pancakes to remove
+     * @return the number of pancakes removed
+     */
+    default int removePancakes(UUID orderId, PancakeRecipe recipe, int count) {
+        return removePancakes(orderId, recipe.description(), count);
+    }
+
     /**
      * Retrieves the total count of pancakes in a specific order.
      *
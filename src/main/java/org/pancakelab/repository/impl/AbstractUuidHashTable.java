@@ -0,0 +1,236 @@
+package org.pancakelab.repository.impl;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * Concurrent open-addressing hash table keyed by UUIDs, the base of {@link UuidHashMap} and {@link UuidByteMap}.
+ * The keys are stored inline as pairs of longs, so a lookup neither allocates nor follows a pointer per entry.
+ * The table is split into segments by the high bits of the key hash. Each segment probes linearly
+ * and is guarded by a StampedLock: reads are optimistic and only take the read lock if a writer interfered,
+ * writes of different segments never contend.
+ * <p>
+ * Every slot has a control byte that is {@link #EMPTY}, {@link #DELETED} or, for a used slot,
+ * at least {@link #USED}, which subclasses may use to store a small value without a value column.
+ */
+abstract class AbstractUuidHashTable {
+    static final byte EMPTY = 0;
+    static final byte DELETED = 1;
+    static final byte USED = 2;
+
+    static final int DEFAULT_SEGMENT_COUNT = 64;
+    private static final int INITIAL_SEGMENT_CAPACITY = 16;
+
+    static final class Segment {
+        final StampedLock lock = new StampedLock();
+        // most and least significant bits of the key of slot i at 2 * i and 2 * i + 1
+        long[] keys;
+        byte[] controls;
+        Object[] values;
+        int size;
+        // used and deleted slots, deleted slots keep probe chains intact until the next rehash
+        int occupied;
+
+        private Segment(int capacity, boolean withValues) {
+            keys = new long[capacity * 2];
+            controls = new byte[capacity];
+            values = withValues ? new Object[capacity] : null;
+        }
+    }
+
+    /**
+     * Stores the value of a key of a batch in its claimed slot, see {@link #claimAll(List, SlotWriter)}.
+     */
+    @FunctionalInterface
+    interface SlotWriter {
+        void write(Segment segment, int slot, int index);
+    }
+
+    private final Segment[] segments;
+    private final int segmentShift;
+    private final boolean withValues;
+
+    /**
+     * @param segmentCount the number of independently locked segments, must be a power of two
+     * @param withValues   whether the segments keep a column of object values
+     */
+    AbstractUuidHashTable(int segmentCount, boolean withValues) {
+        if (segmentCount <= 0 || Integer.bitCount(segmentCount) != 1) {
+            throw new IllegalArgumentException("Segment count must be a positive power of two.");
+        }
+        this.withValues = withValues;
+        this.segments = new Segment[segmentCount];
+        for (int i = 0; i < segmentCount; i++) {
+            segments[i] = new Segment(INITIAL_SEGMENT_CAPACITY, withValues);
+        }
+        this.segmentShift = Long.SIZE - Integer.numberOfTrailingZeros(segmentCount);
+    }
+
+    public int size() {
+        int size = 0;
+        for (Segment segment : segments) {
+            long stamp = segment.lock.readLock();
+            try {
+                size += segment.size;
+            } finally {
+                segment.lock.unlockRead(stamp);
+            }
+        }
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    final Segment[] segments() {
+        return segments;
+    }
+
+    static long hash(long msb, long lsb) {
+        long hash = (msb ^ lsb) * 0x9E3779B97F4A7C15L;
+        return hash ^ (hash >>> 29);
+    }
+
+    final Segment segment(long hash) {
+        return segments[segmentIndex(hash)];
+    }
+
+    private int segmentIndex(long hash) {
+        // the high bits pick the segment, the low bits the slot within it
+        return (int) (hash >>> segmentShift);
+    }
+
+    /**
+     * Finds the slot of a key. Safe to call under an optimistic read, where the arrays may change meanwhile:
+     * the result is then arbitrary but in bounds of the given arrays, and must be validated by the caller.
+     *
+     * @return the slot of the key, or -1 if the key is not in the arrays
+     */
+    static int indexOf(long[] keys, byte[] controls, long hash, long msb, long lsb) {
+        int capacity = controls.length;
+        if (keys.length != capacity * 2) return -1;
+        int mask = capacity - 1;
+        int slot = (int) hash & mask;
+        for (int probes = 0; probes < capacity; probes++) {
+            byte control = controls[slot];
+            if (control == EMPTY) return -1;
+            if (control >= USED && keys[2 * slot] == msb && keys[2 * slot + 1] == lsb) return slot;
+            slot = (slot + 1) & mask;
+        }
+        return -1;
+    }
+
+    /**
+     * Returns the slot of a key, claiming a slot if the key is absent. The caller holds the write lock
+     * and must mark a claimed slot, whose control byte is still below {@link #USED}, as used.
+     */
+    final int claim(Segment segment, long hash, long msb, long lsb) {
+        int slot = indexOf(segment.keys, segment.controls, hash, msb, lsb);
+        if (slot >= 0) return slot;
+
+        if ((segment.occupied + 1) * 4L > segment.controls.length * 3L) {
+            // double only if the segment is really filling up, otherwise just drop the deleted slots
+            rehash(segment, segment.size * 2 >= segment.controls.length / 2
+                    ? segment.controls.length * 2
+                    : segment.controls.length);
+        }
+        int mask = segment.controls.length - 1;
+        slot = (int) hash & mask;
+        while (segment.controls[slot] >= USED) {
+            slot = (slot + 1) & mask;
+        }
+        if (segment.controls[slot] == EMPTY) {
+            segment.occupied++;
+        }
+        segment.keys[2 * slot] = msb;
+        segment.keys[2 * slot + 1] = lsb;
+        segment.size++;
+        return slot;
+    }
+
+    /**
+     * Claims the slots of many keys, grouped by segment so that every segment is locked only once.
+     *
+     * @param keys   the keys to claim slots for
+     * @param writer called with the write lock held for every key, with the index of the key in the list,
+     *               and must mark the slot as used
+     */
+    final void claimAll(List<UUID> keys, SlotWriter writer) {
+        int count = keys.size();
+        long[] hashes = new long[count];
+        int[] segmentStarts = new int[segments.length + 1];
+        for (int i = 0; i < count; i++) {
+            UUID key = keys.get(i);
+            hashes[i] = hash(key.getMostSignificantBits(), key.getLeastSignificantBits());
+            segmentStarts[segmentIndex(hashes[i]) + 1]++;
+        }
+        for (int s = 0; s < segments.length; s++) {
+            segmentStarts[s + 1] += segmentStarts[s];
+        }
+        // counting sort of the key indexes by segment
+        int[] next = segmentStarts.clone();
+        int[] indexes = new int[count];
+        for (int i = 0; i < count; i++) {
+            indexes[next[segmentIndex(hashes[i])]++] = i;
+        }
+
+        for (int s = 0; s < segments.length; s++) {
+            if (segmentStarts[s] == segmentStarts[s + 1]) continue;
+            Segment segment = segments[s];
+            long stamp = segment.lock.writeLock();
+            try {
+                for (int j = segmentStarts[s]; j < segmentStarts[s + 1]; j++) {
+                    int i = indexes[j];
+                    UUID key = keys.get(i);
+                    int slot = claim(segment, hashes[i], key.getMostSignificantBits(), key.getLeastSignificantBits());
+                    writer.write(segment, slot, i);
+                }
+            } finally {
+                segment.lock.unlockWrite(stamp);
+            }
+        }
+    }
+
+    /**
+     * Frees a used slot. The caller holds the write lock.
+     */
+    final void delete(Segment segment, int slot) {
+        segment.controls[slot] = DELETED;
+        if (segment.values != null) {
+            segment.values[slot] = null;
+        }
+        segment.size--;
+    }
+
+    static UUID key(Segment segment, int slot) {
+        return new UUID(segment.keys[2 * slot], segment.keys[2 * slot + 1]);
+    }
+
+    private void rehash(Segment segment, int capacity) {
+        long[] keys = new long[capacity * 2];
+        byte[] controls = new byte[capacity];
+        Object[] values = withValues ? new Object[capacity] : null;
+        int mask = capacity - 1;
+        for (int i = 0; i < segment.controls.length; i++) {
+            if (segment.controls[i] < USED) continue;
+            long msb = segment.keys[2 * i];
+            long lsb = segment.keys[2 * i + 1];
+            int slot = (int) hash(msb, lsb) & mask;
+            while (controls[slot] != EMPTY) {
+                slot = (slot + 1) & mask;
+            }
+            keys[2 * slot] = msb;
+            keys[2 * slot + 1] = lsb;
+            controls[slot] = segment.controls[i];
+            if (values != null) {
+                values[slot] = segment.values[i];
+            }
+        }
+        segment.keys = keys;
+        segment.controls = controls;
+        segment.values = values;
+        segment.occupied = segment.size;
+    }
+}
@@ -0,0 +1,153 @@
+package org.pancakelab.repository.impl;
+
+import org.pancakelab.model.pancakes.PancakeRecipe;
+import org.pancakelab.repository.PancakeRepository;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * In-memory implementation of the PancakeRepository interface that stores pancakes as a counted multiset.
+ * Each order keeps one counter per distinct recipe, keyed by the recipe description, plus a running total,
+ * so adding, removing and counting pancakes costs O(distinct recipes) or O(1) instead of O(pancakes),
+ * and an order of many identical pancakes takes the memory of a single entry.
+ * Pancakes are listed grouped by recipe, in the order the recipes were first added.
+ */
+public class InMemoryCountedPancakeRepository implements PancakeRepository {
+    private final UuidHashMap<RecipeCounts> orderPancakes = new UuidHashMap<>();
+
+    @Override
+    public List<String> viewOrderPancakes(UUID orderId) {
+        var counts = orderPancakes.get(orderId);
+        if (counts == null) return List.of();
+        return counts.descriptions();
+    }
+
+    @Override
+    public int addPancake(UUID orderId, PancakeRecipe pancake) {
+        String description = pancake.description();
+        while (true) {
+            var counts = orderPancakes.computeIfAbsent(orderId, id -> new RecipeCounts());
+            synchronized (counts) {
+                if (!counts.isRetired()) return counts.add(description);
+            }
+            // the counts were retired by a concurrent removal of the last pancake, retry with a fresh instance
+        }
+    }
+
+    @Override
+    public int addPancakes(UUID orderId, Map<PancakeRecipe, Integer> pancakes) {
+        while (true) {
+            var counts = orderPancakes.computeIfAbsent(orderId, id -> new RecipeCounts());
+            synchronized (counts) {
+                if (!counts.isRetired()) return counts.addAll(pancakes);
+            }
+        }
+    }
+
+    @Override
+    public void remove(UUID orderId) {
+        var counts = orderPancakes.remove(orderId);
+        if (counts != null) {
+            counts.retire();
+        }
+    }
+
+    @Override
+    public int removePancakes(UUID orderId, String description, int count) {
+        var counts = orderPancakes.get(orderId);
+        if (counts == null) return 0;
+
+        int removed = counts.remove(description, count);
+        if (counts.isRetired()) {
+            orderPancakes.remove(orderId, counts);
+        }
+        return removed;
+    }
+
+    @Override
+    public int getPancakesCount(UUID orderId) {
+        var counts = orderPancakes.get(orderId);
+        return counts == null ? 0 : counts.total();
+    }
+
+    /**
+     * Per-order pancake counters. Once the last pancake is removed the instance is retired
+     * and never reused, so writers holding a stale reference can detect it and retry.
+     * Writers check for retirement and add while holding the monitor of the instance.
+     * Adding beyond Integer.MAX_VALUE pancakes fails with an ArithmeticException and leaves the counts unchanged.
+     */
+    private static final class RecipeCounts {
+        private final Map<String, Counter> counts = new LinkedHashMap<>();
+        private int total;
+        private boolean retired;
+
+        synchronized int add(String description) {
+            total = Math.addExact(total, 1);
+            counts.computeIfAbsent(description, d -> new Counter()).value++;
+            return total;
+        }
+
+        synchronized int addAll(Map<PancakeRecipe, Integer> pancakes) {
+            int newTotal = total;
+            for (int count : pancakes.values()) {
+                if (count > 0) {
+                    newTotal = Math.addExact(newTotal, count);
+                }
+            }
+            for (var entry : pancakes.entrySet()) {
+                int count = entry.getValue();
+                if (count > 0) {
+                    counts.computeIfAbsent(entry.getKey().description(), d -> new Counter()).value += count;
+                }
+            }
+            total = newTotal;
+            return total;
+        }
+
+        synchronized int remove(String description, int count) {
+            if (retired) return 0;
+            var counter = counts.get(description);
+            if (counter == null || count <= 0) return 0;
+
+            int removed = Math.min(counter.value, count);
+            counter.value -= removed;
+            if (counter.value == 0) {
+                counts.remove(description);
+            }
+            total -= removed;
+            if (total == 0) {
+                retired = true;
+            }
+            return removed;
+        }
+
+        synchronized List<String> descriptions() {
+            List<String> descriptions = new ArrayList<>(total);
+            for (var entry : counts.entrySet()) {
+                descriptions.addAll(Collections.nCopies(entry.getValue().value, entry.getKey()));
+            }
+            return Collections.unmodifiableList(descriptions);
+        }
+
+        synchronized int total() {
+            return total;
+        }
+
+        synchronized void retire() {
+            retired = true;
+        }
+
+        synchronized boolean isRetired() {
+            return retired;
+        }
+    }
+
+    private static final class Counter {
+        private int value;
+    }
+}
@@ -0,0 +1,181 @@
+package org.pancakelab.repository.impl;
+
+import org.pancakelab.model.pancakes.PancakeMenu;
+import org.pancakelab.model.pancakes.PancakeRecipe;
+import org.pancakelab.repository.PancakeRepository;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * In-memory implementation of the PancakeRepository interface that stores pancakes as menu recipe IDs.
+ * Each order keeps the IDs of its pancakes in a short array, in the order they were added,
+ * so a pancake takes two bytes, removing pancakes compares integers instead of descriptions,
+ * and descriptions are only looked up on the menu when the order is viewed.
+ * Only recipes on the menu can be added.
+ */
+public class InMemoryMenuPancakeRepository implements PancakeRepository {
+    private final PancakeMenu pancakeMenu;
+    private final UuidHashMap<RecipeIds> orderPancakes = new UuidHashMap<>();
+
+    public InMemoryMenuPancakeRepository(PancakeMenu pancakeMenu) {
+        this.pancakeMenu = pancakeMenu;
+    }
+
+    @Override
+    public List<String> viewOrderPancakes(UUID orderId) {
+        var ids = orderPancakes.get(orderId);
+        if (ids == null) return List.of();
+        short[] snapshot = ids.snapshot();
+        String[] descriptions = new String[snapshot.length];
+        for (int i = 0; i < snapshot.length; i++) {
+            descriptions[i] = pancakeMenu.description(snapshot[i]);
+        }
+        return Collections.unmodifiableList(Arrays.asList(descriptions));
+    }
+
+    /**
+     * @return the recipe IDs of the pancakes in the order, in the order they were added
+     */
+    public short[] viewOrderRecipeIds(UUID orderId) {
+        var ids = orderPancakes.get(orderId);
+        return ids == null ? new short[0] : ids.snapshot();
+    }
+
+    @Override
+    public int addPancake(UUID orderId, PancakeRecipe pancake) {
+        short id = (short) pancakeMenu.idOf(pancake);
+        while (true) {
+            var ids = orderPancakes.computeIfAbsent(orderId, key -> new RecipeIds());
+            int total = ids.add(id, 1);
+            if (total > 0) return total;
+            // the IDs were retired by a concurrent removal of the last pancake, retry with a fresh instance
+        }
+    }
+
+    @Override
+    public int addPancakes(UUID orderId, Map<PancakeRecipe, Integer> pancakes) {
+        short[] recipeIds = new short[pancakes.size()];
+        int[] counts = new int[pancakes.size()];
+        int recipes = 0;
+        for (var entry : pancakes.entrySet()) {
+            recipeIds[recipes] = (short) pancakeMenu.idOf(entry.getKey());
+            counts[recipes++] = entry.getValue();
+        }
+        while (true) {
+            var ids = orderPancakes.computeIfAbsent(orderId, key -> new RecipeIds());
+            int total = ids.addAll(recipeIds, counts);
+            if (total >= 0) return total;
+        }
+    }
+
+    @Override
+    public void remove(UUID orderId) {
+        var ids = orderPancakes.remove(orderId);
+        if (ids != null) {
+            ids.retire();
+        }
+    }
+
+    @Override
+    public int removePancakes(UUID orderId, String description, int count) {
+        int id = pancakeMenu.idOf(description);
+        return id < 0 ? 0 : removePancakes(orderId, (short) id, count);
+    }
+
+    @Override
+    public int removePancakes(UUID orderId, PancakeRecipe recipe, int count) {
+        return removePancakes(orderId, (short) pancakeMenu.idOf(recipe), count);
+    }
+
+    private int removePancakes(UUID orderId, short id, int count) {
+        var ids = orderPancakes.get(orderId);
+        if (ids == null) return 0;
+
+        int removed = ids.remove(id, count);
+        if (ids.isRetired()) {
+            orderPancakes.remove(orderId, ids);
+        }
+        return removed;
+    }
+
+    @Override
+    public int getPancakesCount(UUID orderId) {
+        var ids = orderPancakes.get(orderId);
+        return ids == null ? 0 : ids.size();
+    }
+
+    /**
+     * Per-order recipe IDs. Once the last pancake is removed the instance is retired
+     * and never reused, so writers holding a stale reference can detect it and retry.
+     */
+    private static final class RecipeIds {
+        private short[] ids = new short[4];
+        private int size;
+        private boolean retired;
+
+        synchronized int add(short id, int count) {
+            if (retired) return 0;
+            ensureCapacity(size + count);
+            Arrays.fill(ids, size, size + count, id);
+            size += count;
+            return size;
+        }
+
+        synchronized int addAll(short[] recipeIds, int[] counts) {
+            if (retired) return -1;
+            for (int i = 0; i < recipeIds.length; i++) {
+                if (counts[i] > 0) {
+                    ensureCapacity(size + counts[i]);
+                    Arrays.fill(ids, size, size + counts[i], recipeIds[i]);
+                    size += counts[i];
+                }
+            }
+            return size;
+        }
+
+        synchronized int remove(short id, int count) {
+            if (retired || count <= 0) return 0;
+            // compact in place, keeping the order of the remaining pancakes
+            int removed = 0;
+            int kept = 0;
+            for (int i = 0; i < size; i++) {
+                if (ids[i] == id && removed < count) {
+                    removed++;
+                } else {
+                    ids[kept++] = ids[i];
+                }
+            }
+            size = kept;
+            if (size == 0) {
+                retired = true;
+            }
+            return removed;
+        }
+
+        synchronized short[] snapshot() {
+            return Arrays.copyOf(ids, size);
+        }
+
+        synchronized int size() {
+            return size;
+        }
+
+        synchronized void retire() {
+            retired = true;
+        }
+
+        synchronized boolean isRetired() {
+            return retired;
+        }
+
+        private void ensureCapacity(int capacity) {
+            if (capacity > ids.length) {
+                ids = Arrays.copyOf(ids, Math.max(capacity, ids.length * 2));
+            }
+        }
+    }
+}
@@ -3,23 +3,35 @@ package org.pancakelab.repository.impl;
 import org.pancakelab.model.orders.Order;
 import org.pancakelab.repository.OrderRepository;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ConcurrentMap;
 
 /**
  * In-memory implementation of the OrderRepository interface.
  * This class provides a thread-safe way to store and retrieve orders in memory.
+ * The orders are kept in a {@link UuidHashMap}, so a lookup by ID allocates nothing and probes an array.
  */
 public class InMemoryOrderRepository implements OrderRepository {
-    private final ConcurrentMap<UUID, Order> orders = new ConcurrentHashMap<>();
+    private final UuidHashMap<Order> orders = new UuidHashMap<>();
 
     @Override
     public void save(Order order) {
         orders.put(order.getId(), order);
     }
 
+    @Override
+    public void saveAll(Collection<Order> orders) {
+        List<Order> values = List.copyOf(orders);
+        List<UUID> orderIds = new ArrayList<>(values.size());
+        for (Order order : values) {
+            orderIds.add(order.getId());
+        }
+        this.orders.putAll(orderIds, values);
+    }
+
     @Override
     public Optional<Order> findById(UUID orderId) {
         return Optional.ofNullable(orders.get(orderId));
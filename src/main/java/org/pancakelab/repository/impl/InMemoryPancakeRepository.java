@@ -3,10 +3,10 @@ package org.pancakelab.repository.impl;
 import org.pancakelab.model.pancakes.PancakeRecipe;
 import org.pancakelab.repository.PancakeRepository;
 
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
-import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentLinkedDeque;
 
 /**
@@ -14,7 +14,7 @@ import java.util.concurrent.ConcurrentLinkedDeque;
  * This class provides a thread-safe way to store and retrieve pancake recipes associated with orders.
  */
 public class InMemoryPancakeRepository implements PancakeRepository {
-    private final Map<UUID, ConcurrentLinkedDeque<PancakeRecipe>> orderPancakes = new ConcurrentHashMap<>();
+    private final UuidHashMap<ConcurrentLinkedDeque<PancakeRecipe>> orderPancakes = new UuidHashMap<>();
 
     @Override
     public List<String> viewOrderPancakes(UUID orderId) {
@@ -32,6 +32,17 @@ public class InMemoryPancakeRepository implements PancakeRepository {
         return deque.size();
     }
 
+    @Override
+    public int addPancakes(UUID orderId, Map<PancakeRecipe, Integer> pancakes) {
+        var deque = orderPancakes.computeIfAbsent(orderId, id -> new ConcurrentLinkedDeque<>());
+        for (var entry : pancakes.entrySet()) {
+            if (entry.getValue() > 0) {
+                deque.addAll(Collections.nCopies(entry.getValue(), entry.getKey()));
+            }
+        }
+        return deque.size();
+    }
+
     @Override
     public void remove(UUID orderId) {
         orderPancakes.remove(orderId);
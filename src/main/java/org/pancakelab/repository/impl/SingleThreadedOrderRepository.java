@@ -0,0 +1,32 @@
+package org.pancakelab.repository.impl;
+
+import org.pancakelab.model.orders.Order;
+import org.pancakelab.repository.OrderRepository;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * OrderRepository backed by a plain HashMap, for services that access it from a single thread only.
+ * It is not thread-safe.
+ */
+public class SingleThreadedOrderRepository implements OrderRepository {
+    private final Map<UUID, Order> orders = new HashMap<>();
+
+    @Override
+    public void save(Order order) {
+        orders.put(order.getId(), order);
+    }
+
+    @Override
+    public Optional<Order> findById(UUID orderId) {
+        return Optional.ofNullable(orders.get(orderId));
+    }
+
+    @Override
+    public void deleteById(UUID orderId) {
+        orders.remove(orderId);
+    }
+}
@@ -0,0 +1,77 @@
+package org.pancakelab.repository.impl;
+
+import org.pancakelab.model.pancakes.PancakeRecipe;
+import org.pancakelab.repository.PancakeRepository;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * PancakeRepository backed by a HashMap of ArrayLists, for services that access it from a single thread only.
+ * It is not thread-safe.
+ */
+public class SingleThreadedPancakeRepository implements PancakeRepository {
+    private final Map<UUID, List<PancakeRecipe>> orderPancakes = new HashMap<>();
+
+    @Override
+    public List<String> viewOrderPancakes(UUID orderId) {
+        var pancakes = orderPancakes.get(orderId);
+        if (pancakes == null) return List.of();
+        List<String> descriptions = new ArrayList<>(pancakes.size());
+        for (PancakeRecipe pancake : pancakes) {
+            descriptions.add(pancake.description());
+        }
+        return Collections.unmodifiableList(descriptions);
+    }
+
+    @Override
+    public int addPancake(UUID orderId, PancakeRecipe pancake) {
+        var pancakes = orderPancakes.computeIfAbsent(orderId, id -> new ArrayList<>());
+        pancakes.add(pancake);
+        return pancakes.size();
+    }
+
+    @Override
+    public int addPancakes(UUID orderId, Map<PancakeRecipe, Integer> pancakes) {
+        var orderedPancakes = orderPancakes.computeIfAbsent(orderId, id -> new ArrayList<>());
+        for (var entry : pancakes.entrySet()) {
+            if (entry.getValue() > 0) {
+                orderedPancakes.addAll(Collections.nCopies(entry.getValue(), entry.getKey()));
+            }
+        }
+        return orderedPancakes.size();
+    }
+
+    @Override
+    public void remove(UUID orderId) {
+        orderPancakes.remove(orderId);
+    }
+
+    @Override
+    public int removePancakes(UUID orderId, String description, int count) {
+        var pancakes = orderPancakes.get(orderId);
+        if (pancakes == null) return 0;
+
+        int removed = 0;
+        for (var it = pancakes.iterator(); it.hasNext() && removed < count; ) {
+            if (it.next().description().equals(description)) {
+                it.remove();
+                removed++;
+            }
+        }
+        if (pancakes.isEmpty()) {
+            orderPancakes.remove(orderId);
+        }
+        return removed;
+    }
+
+    @Override
+    public int getPancakesCount(UUID orderId) {
+        var pancakes = orderPancakes.get(orderId);
+        return pancakes == null ? 0 : pancakes.size();
+    }
+}
@@ -0,0 +1,156 @@
+package org.pancakelab.repository.impl;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.function.IntConsumer;
+
+/**
+ * Concurrent map from UUIDs to small non-negative values, e.g. enum ordinals such as order states.
+ * The value is kept in the control byte of the slot, so a mapping takes 17 bytes of slot arrays
+ * and no object at all, see {@link AbstractUuidHashTable}.
+ */
+public class UuidByteMap extends AbstractUuidHashTable {
+    /**
+     * Returned for absent keys.
+     */
+    public static final int NO_VALUE = -1;
+    public static final int MAX_VALUE = Byte.MAX_VALUE - USED;
+
+    /**
+     * Receives the mappings of {@link #forEach(EntryConsumer)}.
+     */
+    @FunctionalInterface
+    public interface EntryConsumer {
+        void accept(UUID key, int value);
+    }
+
+    public UuidByteMap() {
+        this(DEFAULT_SEGMENT_COUNT);
+    }
+
+    /**
+     * @param segmentCount the number of independently locked segments, must be a power of two
+     */
+    public UuidByteMap(int segmentCount) {
+        super(segmentCount, false);
+    }
+
+    /**
+     * @return the value of the key, or {@link #NO_VALUE} if the key is absent
+     */
+    public int get(UUID key) {
+        long msb = key.getMostSignificantBits();
+        long lsb = key.getLeastSignificantBits();
+        long hash = hash(msb, lsb);
+        Segment segment = segment(hash);
+
+        long stamp = segment.lock.tryOptimisticRead();
+        if (stamp != 0) {
+            byte[] controls = segment.controls;
+            int slot = indexOf(segment.keys, controls, hash, msb, lsb);
+            int value = slot >= 0 ? controls[slot] - USED : NO_VALUE;
+            if (segment.lock.validate(stamp)) return value;
+        }
+
+        stamp = segment.lock.readLock();
+        try {
+            int slot = indexOf(segment.keys, segment.controls, hash, msb, lsb);
+            return slot >= 0 ? segment.controls[slot] - USED : NO_VALUE;
+        } finally {
+            segment.lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * @param value the value, between 0 and {@link #MAX_VALUE}
+     * @return the previous value of the key, or {@link #NO_VALUE} if the key was absent
+     */
+    public int put(UUID key, int value) {
+        if (value < 0 || value > MAX_VALUE) {
+            throw new IllegalArgumentException("Value must be between 0 and " + MAX_VALUE + ".");
+        }
+        long msb = key.getMostSignificantBits();
+        long lsb = key.getLeastSignificantBits();
+        long hash = hash(msb, lsb);
+        Segment segment = segment(hash);
+
+        long stamp = segment.lock.writeLock();
+        try {
+            int slot = claim(segment, hash, msb, lsb);
+            byte control = segment.controls[slot];
+            segment.controls[slot] = (byte) (value + USED);
+            return control >= USED ? control - USED : NO_VALUE;
+        } finally {
+            segment.lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Maps many keys to the same value at once, locking every segment only once.
+     *
+     * @param value the value, between 0 and {@link #MAX_VALUE}
+     */
+    public void putAll(List<UUID> keys, int value) {
+        putAll(keys, value, previousValue -> {
+        });
+    }
+
+    /**
+     * Maps many keys to the same value at once, locking every segment only once.
+     *
+     * @param value          the value, between 0 and {@link #MAX_VALUE}
+     * @param previousValues receives the previous value of every key, or {@link #NO_VALUE} if the key was absent,
+     *                       while the segment of the key is locked
+     */
+    public void putAll(List<UUID> keys, int value, IntConsumer previousValues) {
+        if (value < 0 || value > MAX_VALUE) {
+            throw new IllegalArgumentException("Value must be between 0 and " + MAX_VALUE + ".");
+        }
+        byte control = (byte) (value + USED);
+        claimAll(keys, (segment, slot, index) -> {
+            byte previous = segment.controls[slot];
+            segment.controls[slot] = control;
+            previousValues.accept(previous >= USED ? previous - USED : NO_VALUE);
+        });
+    }
+
+    /**
+     * @return the removed value, or {@link #NO_VALUE} if the key was absent
+     */
+    public int remove(UUID key) {
+        long msb = key.getMostSignificantBits();
+        long lsb = key.getLeastSignificantBits();
+        long hash = hash(msb, lsb);
+        Segment segment = segment(hash);
+
+        long stamp = segment.lock.writeLock();
+        try {
+            int slot = indexOf(segment.keys, segment.controls, hash, msb, lsb);
+            if (slot < 0) return NO_VALUE;
+            int previous = segment.controls[slot] - USED;
+            delete(segment, slot);
+            return previous;
+        } finally {
+            segment.lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Passes every mapping to the action, one segment at a time while that segment is read-locked,
+     * so the action must not modify the map.
+     */
+    public void forEach(EntryConsumer action) {
+        for (Segment segment : segments()) {
+            long stamp = segment.lock.readLock();
+            try {
+                for (int slot = 0; slot < segment.controls.length; slot++) {
+                    if (segment.controls[slot] >= USED) {
+                        action.accept(key(segment, slot), segment.controls[slot] - USED);
+                    }
+                }
+            } finally {
+                segment.lock.unlockRead(stamp);
+            }
+        }
+    }
+}
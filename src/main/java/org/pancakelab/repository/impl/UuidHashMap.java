@@ -0,0 +1,194 @@
+package org.pancakelab.repository.impl;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/**
+ * Concurrent map from UUIDs to objects without an entry object per mapping.
+ * Keys are stored as two longs in the slot array and values in a parallel column,
+ * so a lookup hashes the two halves of the key and probes adjacent slots, see {@link AbstractUuidHashTable}.
+ * Null values are not supported.
+ *
+ * @param <V> the type of the values
+ */
+public class UuidHashMap<V> extends AbstractUuidHashTable {
+    public UuidHashMap() {
+        this(DEFAULT_SEGMENT_COUNT);
+    }
+
+    /**
+     * @param segmentCount the number of independently locked segments, must be a power of two
+     */
+    public UuidHashMap(int segmentCount) {
+        super(segmentCount, true);
+    }
+
+    /**
+     * @return the value of the key, or null if the key is absent
+     */
+    @SuppressWarnings("unchecked")
+    public V get(UUID key) {
+        long msb = key.getMostSignificantBits();
+        long lsb = key.getLeastSignificantBits();
+        long hash = hash(msb, lsb);
+        Segment segment = segment(hash);
+
+        long stamp = segment.lock.tryOptimisticRead();
+        if (stamp != 0) {
+            Object[] values = segment.values;
+            byte[] controls = segment.controls;
+            int slot = indexOf(segment.keys, controls, hash, msb, lsb);
+            Object value = slot >= 0 && slot < values.length ? values[slot] : null;
+            if (segment.lock.validate(stamp)) return (V) value;
+        }
+
+        stamp = segment.lock.readLock();
+        try {
+            int slot = indexOf(segment.keys, segment.controls, hash, msb, lsb);
+            return slot >= 0 ? (V) segment.values[slot] : null;
+        } finally {
+            segment.lock.unlockRead(stamp);
+        }
+    }
+
+    public boolean containsKey(UUID key) {
+        return get(key) != null;
+    }
+
+    /**
+     * @return the previous value of the key, or null if the key was absent
+     */
+    @SuppressWarnings("unchecked")
+    public V put(UUID key, V value) {
+        Objects.requireNonNull(value);
+        long msb = key.getMostSignificantBits();
+        long lsb = key.getLeastSignificantBits();
+        long hash = hash(msb, lsb);
+        Segment segment = segment(hash);
+
+        long stamp = segment.lock.writeLock();
+        try {
+            int slot = claim(segment, hash, msb, lsb);
+            V previous = (V) segment.values[slot];
+            segment.values[slot] = value;
+            segment.controls[slot] = USED;
+            return previous;
+        } finally {
+            segment.lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Maps many keys at once, locking every segment only once.
+     *
+     * @param keys   the keys
+     * @param values the values, in the order of the keys
+     */
+    public void putAll(List<UUID> keys, List<? extends V> values) {
+        if (keys.size() != values.size()) {
+            throw new IllegalArgumentException("Keys and values must have the same size.");
+        }
+        for (V value : values) {
+            Objects.requireNonNull(value);
+        }
+        claimAll(keys, (segment, slot, index) -> {
+            segment.values[slot] = values.get(index);
+            segment.controls[slot] = USED;
+        });
+    }
+
+    /**
+     * Returns the value of the key, computing and storing it first if the key is absent.
+     * The function runs while the segment of the key is locked, so it must be short and must not access the map.
+     */
+    @SuppressWarnings("unchecked")
+    public V computeIfAbsent(UUID key, Function<UUID, ? extends V> mappingFunction) {
+        V value = get(key);
+        if (value != null) return value;
+
+        long msb = key.getMostSignificantBits();
+        long lsb = key.getLeastSignificantBits();
+        long hash = hash(msb, lsb);
+        Segment segment = segment(hash);
+
+        long stamp = segment.lock.writeLock();
+        try {
+            int slot = indexOf(segment.keys, segment.controls, hash, msb, lsb);
+            if (slot >= 0) return (V) segment.values[slot];
+            value = Objects.requireNonNull(mappingFunction.apply(key));
+            slot = claim(segment, hash, msb, lsb);
+            segment.values[slot] = value;
+            segment.controls[slot] = USED;
+            return value;
+        } finally {
+            segment.lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * @return the removed value, or null if the key was absent
+     */
+    @SuppressWarnings("unchecked")
+    public V remove(UUID key) {
+        long msb = key.getMostSignificantBits();
+        long lsb = key.getLeastSignificantBits();
+        long hash = hash(msb, lsb);
+        Segment segment = segment(hash);
+
+        long stamp = segment.lock.writeLock();
+        try {
+            int slot = indexOf(segment.keys, segment.controls, hash, msb, lsb);
+            if (slot < 0) return null;
+            V previous = (V) segment.values[slot];
+            delete(segment, slot);
+            return previous;
+        } finally {
+            segment.lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Removes the key only if it is mapped to the given instance.
+     *
+     * @return true if the key was removed
+     */
+    public boolean remove(UUID key, V value) {
+        long msb = key.getMostSignificantBits();
+        long lsb = key.getLeastSignificantBits();
+        long hash = hash(msb, lsb);
+        Segment segment = segment(hash);
+
+        long stamp = segment.lock.writeLock();
+        try {
+            int slot = indexOf(segment.keys, segment.controls, hash, msb, lsb);
+            if (slot < 0 || segment.values[slot] != value) return false;
+            delete(segment, slot);
+            return true;
+        } finally {
+            segment.lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Passes every mapping to the action, one segment at a time while that segment is read-locked,
+     * so the action must not modify the map.
+     */
+    @SuppressWarnings("unchecked")
+    public void forEach(BiConsumer<UUID, ? super V> action) {
+        for (Segment segment : segments()) {
+            long stamp = segment.lock.readLock();
+            try {
+                for (int slot = 0; slot < segment.controls.length; slot++) {
+                    if (segment.controls[slot] >= USED) {
+                        action.accept(key(segment, slot), (V) segment.values[slot]);
+                    }
+                }
+            } finally {
+                segment.lock.unlockRead(stamp);
+            }
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package org.pancakelab.repository.journal;
+
+import org.pancakelab.model.orders.Order;
+import org.pancakelab.model.orders.OrderState;
+import org.pancakelab.model.pancakes.Ingredient;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Receives the records of an order journal while it is replayed, in the order they were appended.
+ */
+public interface JournalListener {
+    /**
+     * @param order the order that was saved
+     */
+    void onOrderSaved(Order order);
+
+    /**
+     * @param orderId     the ID of the order
+     * @param ingredients the ingredients of the recipe of the added pancakes
+     * @param count       the number of pancakes added
+     */
+    void onPancakesAdded(UUID orderId, List<Ingredient> ingredients, int count);
+
+    /**
+     * @param orderId     the ID of the order
+     * @param description the description of the pancakes to remove
+     * @param count       the number of pancakes requested to be removed
+     */
+    void onPancakesRemoved(UUID orderId, String description, int count);
+
+    /**
+     * @param orderId the ID of the order whose pancakes were all removed
+     */
+    void onPancakesCleared(UUID orderId);
+
+    /**
+     * @param orderId the ID of the deleted order
+     */
+    void onOrderDeleted(UUID orderId);
+
+    /**
+     * @param orderId the ID of the order
+     * @param state   the new state of the order
+     */
+    void onStateUpdated(UUID orderId, OrderState state);
+
+    /**
+     * @param orderId the ID of the order whose state was removed
+     */
+    void onStateRemoved(UUID orderId);
+}
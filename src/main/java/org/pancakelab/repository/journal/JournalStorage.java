@@ -0,0 +1,248 @@
+package org.pancakelab.repository.journal;
+
+import org.pancakelab.model.orders.Order;
+import org.pancakelab.model.orders.OrderState;
+import org.pancakelab.model.pancakes.Ingredient;
+import org.pancakelab.model.pancakes.PancakeFactory;
+import org.pancakelab.repository.OrderRepository;
+import org.pancakelab.repository.PancakeRepository;
+import org.pancakelab.repository.impl.InMemoryCountedPancakeRepository;
+import org.pancakelab.repository.impl.InMemoryOrderRepository;
+import org.pancakelab.service.DurabilityBarrier;
+import org.pancakelab.service.OrderStateService;
+import org.pancakelab.service.impl.IndexedOrderStateService;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Durable order storage: in-memory stores recovered from an {@link OrderJournal} on startup,
+ * and wrapped so that every later mutation is journaled before it is applied.
+ * Pass the stores and the {@link #durabilityBarrier()} to PancakeService and close the storage on shutdown.
+ * <p>
+ * With a snapshot file, a background thread periodically writes the live state to it. The snapshot is built
+ * from the previous snapshot plus the durable journal records written since, so writers are never paused.
+ * Recovery loads the snapshot and replays only the journal tail after it, so startup time is bounded
+ * by the live state and the traffic since the last snapshot rather than by the whole journal history.
+ * A failed background snapshot leaves the journal authoritative and is reported by the next call of
+ * {@link #snapshot()} or {@link #close()}.
+ */
+public class JournalStorage implements AutoCloseable {
+    private final Path journalFile;
+    private final Path snapshotFile;
+    private final PancakeFactory pancakeFactory;
+    private final OrderJournal journal;
+    private final OrderRepository orderRepository;
+    private final PancakeRepository pancakeRepository;
+    private final OrderStateService orderStateService;
+    private final ScheduledExecutorService snapshotScheduler;
+    // guarded by this
+    private IOException scheduledSnapshotFailure;
+
+    private JournalStorage(Path journalFile,
+                           Path snapshotFile,
+                           Duration snapshotInterval,
+                           PancakeFactory pancakeFactory,
+                           OrderJournal journal,
+                           OrderRepository orderRepository,
+                           PancakeRepository pancakeRepository,
+                           OrderStateService orderStateService) {
+        this.journalFile = journalFile;
+        this.snapshotFile = snapshotFile;
+        this.pancakeFactory = pancakeFactory;
+        this.journal = journal;
+        this.orderRepository = new JournaledOrderRepository(orderRepository, journal);
+        this.pancakeRepository = new JournaledPancakeRepository(pancakeRepository, journal);
+        this.orderStateService = new JournaledOrderStateService(orderStateService, journal);
+
+        if (snapshotFile != null && snapshotInterval != null) {
+            snapshotScheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "order-snapshotter");
+                thread.setDaemon(true);
+                return thread;
+            });
+            long intervalNanos = snapshotInterval.toNanos();
+            snapshotScheduler.scheduleWithFixedDelay(this::scheduledSnapshot, intervalNanos, intervalNanos, TimeUnit.NANOSECONDS);
+        } else {
+            snapshotScheduler = null;
+        }
+    }
+
+    /**
+     * Opens the journal file and recovers the stores from it.
+     *
+     * @param journalFile    the journal file, created if it does not exist
+     * @param commitInterval how long records are gathered before each fsync
+     * @param pancakeFactory recreates the recipes of journaled pancakes
+     * @return the recovered storage
+     * @throws IOException if the journal cannot be read or written
+     */
+    public static JournalStorage open(Path journalFile, Duration commitInterval, PancakeFactory pancakeFactory) throws IOException {
+        return open(journalFile, null, commitInterval, null, pancakeFactory);
+    }
+
+    /**
+     * Loads the snapshot file, replays the journal tail after it and starts periodic snapshotting.
+     *
+     * @param journalFile      the journal file, created if it does not exist
+     * @param snapshotFile     the snapshot file, created by the first snapshot; null disables snapshots
+     * @param commitInterval   how long records are gathered before each fsync
+     * @param snapshotInterval the delay between background snapshots; null only snapshots on demand and on close
+     * @param pancakeFactory   recreates the recipes of persisted pancakes
+     * @return the recovered storage
+     * @throws IOException if the snapshot or the journal cannot be read, or the journal cannot be written
+     */
+    public static JournalStorage open(Path journalFile,
+                                      Path snapshotFile,
+                                      Duration commitInterval,
+                                      Duration snapshotInterval,
+                                      PancakeFactory pancakeFactory) throws IOException {
+        var orderRepository = new InMemoryOrderRepository();
+        var pancakeRepository = new InMemoryCountedPancakeRepository();
+        var orderStateService = new IndexedOrderStateService();
+
+        long journalPosition = 0;
+        if (snapshotFile != null) {
+            SnapshotState snapshot = SnapshotState.read(snapshotFile, pancakeFactory);
+            snapshot.applyTo(orderRepository, pancakeRepository, orderStateService);
+            journalPosition = snapshot.getJournalPosition();
+        }
+
+        var recovery = new Recovery(orderRepository, pancakeRepository, orderStateService, pancakeFactory);
+        OrderJournal journal = OrderJournal.open(journalFile, journalPosition, commitInterval, recovery);
+        return new JournalStorage(journalFile, snapshotFile, snapshotInterval, pancakeFactory,
+                journal, orderRepository, pancakeRepository, orderStateService);
+    }
+
+    public OrderRepository orderRepository() {
+        return orderRepository;
+    }
+
+    public PancakeRepository pancakeRepository() {
+        return pancakeRepository;
+    }
+
+    public OrderStateService orderStateService() {
+        return orderStateService;
+    }
+
+    /**
+     * @return the barrier that makes each service operation wait for one group commit,
+     * instead of one per journaled mutation
+     */
+    public DurabilityBarrier durabilityBarrier() {
+        return journal;
+    }
+
+    /**
+     * Writes a snapshot of the state at the current durable journal position.
+     * Does nothing if the storage was opened without a snapshot file.
+     *
+     * @throws IOException if the journal cannot be read or the snapshot cannot be written,
+     *                     or if a background snapshot failed since the last call, even when this snapshot succeeded
+     */
+    public synchronized void snapshot() throws IOException {
+        IOException scheduledFailure = scheduledSnapshotFailure;
+        scheduledSnapshotFailure = null;
+        try {
+            writeSnapshot();
+        } catch (IOException e) {
+            if (scheduledFailure != null) {
+                e.addSuppressed(scheduledFailure);
+            }
+            throw e;
+        }
+        if (scheduledFailure != null) {
+            throw new IOException("Background order snapshot failed", scheduledFailure);
+        }
+    }
+
+    private void writeSnapshot() throws IOException {
+        if (snapshotFile == null) return;
+
+        SnapshotState state = SnapshotState.read(snapshotFile, pancakeFactory);
+        long targetPosition = journal.durablePosition();
+        if (targetPosition == state.getJournalPosition()) return;
+
+        state.setJournalPosition(OrderJournal.replay(journalFile, state.getJournalPosition(), targetPosition, state));
+        state.write(snapshotFile);
+    }
+
+    /**
+     * Stops periodic snapshotting, makes all journal records durable and writes a final snapshot.
+     */
+    @Override
+    public void close() throws IOException {
+        if (snapshotScheduler != null) {
+            snapshotScheduler.shutdown();
+            try {
+                snapshotScheduler.awaitTermination(1, TimeUnit.MINUTES);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        journal.close();
+        snapshot();
+    }
+
+    private synchronized void scheduledSnapshot() {
+        try {
+            writeSnapshot();
+        } catch (IOException | RuntimeException e) {
+            // the journal stays authoritative, the next snapshot retries from the last successful one;
+            // only the latest failure is kept, and a runtime exception must not cancel the schedule
+            scheduledSnapshotFailure = e instanceof IOException ioException ? ioException : new IOException(e);
+        }
+    }
+
+    /**
+     * Applies replayed journal records directly to the in-memory stores.
+     */
+    private record Recovery(OrderRepository orderRepository,
+                            PancakeRepository pancakeRepository,
+                            OrderStateService orderStateService,
+                            PancakeFactory pancakeFactory) implements JournalListener {
+
+        @Override
+        public void onOrderSaved(Order order) {
+            orderRepository.save(order);
+        }
+
+        @Override
+        public void onPancakesAdded(UUID orderId, List<Ingredient> ingredients, int count) {
+            pancakeRepository.addPancakes(orderId, Map.of(pancakeFactory.createRecipe(ingredients), count));
+        }
+
+        @Override
+        public void onPancakesRemoved(UUID orderId, String description, int count) {
+            pancakeRepository.removePancakes(orderId, description, count);
+        }
+
+        @Override
+        public void onPancakesCleared(UUID orderId) {
+            pancakeRepository.remove(orderId);
+        }
+
+        @Override
+        public void onOrderDeleted(UUID orderId) {
+            orderRepository.deleteById(orderId);
+        }
+
+        @Override
+        public void onStateUpdated(UUID orderId, OrderState state) {
+            orderStateService.update(orderId, state);
+        }
+
+        @Override
+        public void onStateRemoved(UUID orderId) {
+            orderStateService.remove(orderId);
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package org.pancakelab.repository.journal;
+
+import org.pancakelab.model.orders.Order;
+import org.pancakelab.repository.OrderRepository;
+
+import java.util.Collection;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * OrderRepository that writes every mutation to an {@link OrderJournal} before applying it to a delegate.
+ * A mutation returns only once its journal record is durable, or, while an operation of the journal is running
+ * on the calling thread, is applied right away and the operation waits for durability once at its end.
+ */
+public class JournaledOrderRepository implements OrderRepository {
+    private final OrderRepository delegate;
+    private final OrderJournal journal;
+
+    public JournaledOrderRepository(OrderRepository delegate, OrderJournal journal) {
+        this.delegate = delegate;
+        this.journal = journal;
+    }
+
+    @Override
+    public void save(Order order) {
+        journal.awaitDurableOrDefer(journal.appendOrderSaved(order));
+        delegate.save(order);
+    }
+
+    /**
+     * Journals the whole batch and waits for durability once.
+     */
+    @Override
+    public void saveAll(Collection<Order> orders) {
+        long position = -1;
+        for (Order order : orders) {
+            position = journal.appendOrderSaved(order);
+        }
+        journal.awaitDurableOrDefer(position);
+        delegate.saveAll(orders);
+    }
+
+    @Override
+    public Optional<Order> findById(UUID orderId) {
+        return delegate.findById(orderId);
+    }
+
+    @Override
+    public void deleteById(UUID orderId) {
+        journal.awaitDurableOrDefer(journal.appendOrderDeleted(orderId));
+        delegate.deleteById(orderId);
+    }
+}
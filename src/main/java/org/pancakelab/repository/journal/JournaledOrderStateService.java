@@ -0,0 +1,68 @@
+package org.pancakelab.repository.journal;
+
+import org.pancakelab.model.orders.OrderState;
+import org.pancakelab.service.OrderStateService;
+
+import java.util.Collection;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * OrderStateService that writes every state change to an {@link OrderJournal} before applying it to a delegate.
+ * A change returns only once its journal record is durable, or, while an operation of the journal is running
+ * on the calling thread, is applied right away and the operation waits for durability once at its end.
+ */
+public class JournaledOrderStateService implements OrderStateService {
+    private final OrderStateService delegate;
+    private final OrderJournal journal;
+
+    public JournaledOrderStateService(OrderStateService delegate, OrderJournal journal) {
+        this.delegate = delegate;
+        this.journal = journal;
+    }
+
+    @Override
+    public OrderState get(UUID orderId) {
+        return delegate.get(orderId);
+    }
+
+    @Override
+    public void update(UUID orderId, OrderState state) {
+        journal.awaitDurableOrDefer(journal.appendStateUpdated(orderId, state));
+        delegate.update(orderId, state);
+    }
+
+    /**
+     * Journals the whole batch and waits for durability once.
+     */
+    @Override
+    public void updateAll(Collection<UUID> orderIds, OrderState state) {
+        long position = -1;
+        for (UUID orderId : orderIds) {
+            position = journal.appendStateUpdated(orderId, state);
+        }
+        journal.awaitDurableOrDefer(position);
+        delegate.updateAll(orderIds, state);
+    }
+
+    @Override
+    public void remove(UUID orderId) {
+        journal.awaitDurableOrDefer(journal.appendStateRemoved(orderId));
+        delegate.remove(orderId);
+    }
+
+    @Override
+    public Set<UUID> getOrderIdsByState(OrderState state) {
+        return delegate.getOrderIdsByState(state);
+    }
+
+    @Override
+    public Set<UUID> viewOrderIdsByState(OrderState state) {
+        return delegate.viewOrderIdsByState(state);
+    }
+
+    @Override
+    public int countByState(OrderState state) {
+        return delegate.countByState(state);
+    }
+}
@@ -0,0 +1,65 @@
+package org.pancakelab.repository.journal;
+
+import org.pancakelab.model.pancakes.PancakeRecipe;
+import org.pancakelab.repository.PancakeRepository;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * PancakeRepository that writes every mutation to an {@link OrderJournal} before applying it to a delegate.
+ * A mutation returns only once its journal records are durable, or, while an operation of the journal is running
+ * on the calling thread, is applied right away and the operation waits for durability once at its end.
+ * Mutations of the same order must not run concurrently, as PancakeService guarantees with its order locks,
+ * so that the journal and the delegate apply them in the same order.
+ */
+public class JournaledPancakeRepository implements PancakeRepository {
+    private final PancakeRepository delegate;
+    private final OrderJournal journal;
+
+    public JournaledPancakeRepository(PancakeRepository delegate, OrderJournal journal) {
+        this.delegate = delegate;
+        this.journal = journal;
+    }
+
+    @Override
+    public List<String> viewOrderPancakes(UUID orderId) {
+        return delegate.viewOrderPancakes(orderId);
+    }
+
+    @Override
+    public int addPancake(UUID orderId, PancakeRecipe pancakeRecipe) {
+        journal.awaitDurableOrDefer(journal.appendPancakesAdded(orderId, pancakeRecipe.ingredients(), 1));
+        return delegate.addPancake(orderId, pancakeRecipe);
+    }
+
+    @Override
+    public int addPancakes(UUID orderId, Map<PancakeRecipe, Integer> pancakes) {
+        long position = -1;
+        for (var entry : pancakes.entrySet()) {
+            if (entry.getValue() > 0) {
+                position = journal.appendPancakesAdded(orderId, entry.getKey().ingredients(), entry.getValue());
+            }
+        }
+        journal.awaitDurableOrDefer(position);
+        return delegate.addPancakes(orderId, pancakes);
+    }
+
+    @Override
+    public void remove(UUID orderId) {
+        journal.awaitDurableOrDefer(journal.appendPancakesCleared(orderId));
+        delegate.remove(orderId);
+    }
+
+    @Override
+    public int removePancakes(UUID orderId, String description, int count) {
+        journal.awaitDurableOrDefer(journal.appendPancakesRemoved(orderId, description, count));
+        return delegate.removePancakes(orderId, description, count);
+    }
+
+    @Override
+    public int getPancakesCount(UUID orderId) {
+        return delegate.getPancakesCount(orderId);
+    }
+}
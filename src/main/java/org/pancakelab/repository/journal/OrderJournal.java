@@ -0,0 +1,491 @@
+package org.pancakelab.repository.journal;
+
+import org.pancakelab.model.orders.Order;
+import org.pancakelab.model.orders.OrderState;
+import org.pancakelab.model.pancakes.Ingredient;
+import org.pancakelab.service.DurabilityBarrier;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.CRC32C;
+
+/**
+ * Append-only journal of order mutations written through a FileChannel.
+ * Each mutation is one compact binary record: payload length, record type, payload and a CRC32C checksum.
+ * <p>
+ * Records are appended to an in-memory buffer and made durable by a background thread with group commit:
+ * it waits for the configured commit interval, writes everything appended so far and forces it to disk
+ * with a single fsync, so concurrent writers share the cost of one fsync.
+ * {@link #awaitDurable(long)} blocks until a record is on disk.
+ * As a {@link DurabilityBarrier}, the journal lets the stores of one service operation defer their waits,
+ * see {@link #awaitDurableOrDefer(long)}, so the operation waits for a single group commit at its end.
+ * <p>
+ * When the journal is opened, existing records from a given position on are replayed to a {@link JournalListener},
+ * so that a snapshot of the state up to that position can be combined with the journal tail.
+ * A torn or corrupt record at the end of the file, left by a crash in the middle of a write, is truncated.
+ * A corrupt record followed by valid records is not a torn write, so opening the journal fails instead
+ * of dropping the records after it.
+ */
+public class OrderJournal implements DurabilityBarrier, AutoCloseable {
+    private static final int INITIAL_BUFFER_SIZE = 64 * 1024;
+    private static final int MAX_PAYLOAD_SIZE = 1024 * 1024;
+    private static final int ID_SIZE = 2 * Long.BYTES;
+    private static final OrderState[] STATES = OrderState.values();
+    private static final Ingredient[] INGREDIENTS = Ingredient.values();
+
+    private enum RecordType {
+        ORDER_SAVED,
+        PANCAKES_ADDED,
+        PANCAKES_REMOVED,
+        PANCAKES_CLEARED,
+        ORDER_DELETED,
+        STATE_UPDATED,
+        STATE_REMOVED;
+
+        private static final RecordType[] TYPES = values();
+
+        byte code() {
+            return (byte) ordinal();
+        }
+
+        static RecordType fromCode(byte code) {
+            if (code < 0 || code >= TYPES.length) {
+                throw new IllegalArgumentException("Unknown journal record type: " + code);
+            }
+            return TYPES[code];
+        }
+    }
+
+    /**
+     * The operations running on a thread and the position of the last record they appended.
+     */
+    private static final class Deferral {
+        private int depth;
+        private long position;
+    }
+
+    private final FileChannel channel;
+    private final ThreadLocal<Deferral> deferrals = ThreadLocal.withInitial(Deferral::new);
+    private final long commitIntervalNanos;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition pendingAvailable = lock.newCondition();
+    private final Condition durableAdvanced = lock.newCondition();
+    private final Thread flusher;
+
+    private ByteBuffer pending = ByteBuffer.allocate(INITIAL_BUFFER_SIZE);
+    private ByteBuffer writing = ByteBuffer.allocate(INITIAL_BUFFER_SIZE);
+    private long appendedPosition;
+    private long durablePosition;
+    private IOException failure;
+    // written under the lock, read without it by the flusher to skip the commit interval when closing
+    private volatile boolean closed;
+
+    private OrderJournal(FileChannel channel, long position, Duration commitInterval) {
+        this.channel = channel;
+        this.commitIntervalNanos = commitInterval.toNanos();
+        this.appendedPosition = position;
+        this.durablePosition = position;
+        this.flusher = new Thread(this::flushLoop, "order-journal-flusher");
+        this.flusher.setDaemon(true);
+        this.flusher.start();
+    }
+
+    /**
+     * Opens the journal file, replays its records and prepares it for appending.
+     *
+     * @param file           the journal file, created if it does not exist
+     * @param commitInterval how long the background thread gathers records before each fsync
+     * @param listener       receives the replayed records
+     * @return the opened journal
+     * @throws IOException if the file cannot be read or written
+     */
+    public static OrderJournal open(Path file, Duration commitInterval, JournalListener listener) throws IOException {
+        return open(file, 0, commitInterval, listener);
+    }
+
+    /**
+     * Opens the journal file, replays its records from the given position on and prepares it for appending.
+     *
+     * @param file           the journal file, created if it does not exist
+     * @param fromPosition   the position of the first record to replay, e.g. the position a snapshot was taken at
+     * @param commitInterval how long the background thread gathers records before each fsync
+     * @param listener       receives the replayed records
+     * @return the opened journal
+     * @throws IOException if the file cannot be read or written, is shorter than the given position,
+     *                     or contains a corrupt record that is followed by valid records
+     */
+    public static OrderJournal open(Path file, long fromPosition, Duration commitInterval, JournalListener listener) throws IOException {
+        FileChannel channel = FileChannel.open(file,
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            if (channel.size() < fromPosition) {
+                throw new IOException("Order journal %s ends before position %d".formatted(file, fromPosition));
+            }
+            long validEnd = replay(channel, fromPosition, Long.MAX_VALUE, listener);
+            if (validEnd < channel.size()) {
+                long nextValid = findRecord(channel, validEnd + 1);
+                if (nextValid >= 0) {
+                    throw new IOException("Order journal %s has a corrupt record at position %d followed by a valid record at position %d"
+                            .formatted(file, validEnd, nextValid));
+                }
+            }
+            channel.truncate(validEnd);
+            channel.position(validEnd);
+            return new OrderJournal(channel, validEnd, commitInterval);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    public long appendOrderSaved(Order order) {
+        ByteBuffer record = record(RecordType.ORDER_SAVED, ID_SIZE + 2 * Integer.BYTES);
+        putId(record, order.getId());
+        record.putInt(order.getBuilding()).putInt(order.getRoom());
+        return append(record);
+    }
+
+    public long appendPancakesAdded(UUID orderId, List<Ingredient> ingredients, int count) {
+        ByteBuffer record = record(RecordType.PANCAKES_ADDED, ID_SIZE + Integer.BYTES + Byte.BYTES + ingredients.size());
+        putId(record, orderId);
+        record.putInt(count).put((byte) ingredients.size());
+        for (Ingredient ingredient : ingredients) {
+            record.put((byte) ingredient.ordinal());
+        }
+        return append(record);
+    }
+
+    public long appendPancakesRemoved(UUID orderId, String description, int count) {
+        byte[] descriptionBytes = description.getBytes(StandardCharsets.UTF_8);
+        ByteBuffer record = record(RecordType.PANCAKES_REMOVED, ID_SIZE + 2 * Integer.BYTES + descriptionBytes.length);
+        putId(record, orderId);
+        record.putInt(count).putInt(descriptionBytes.length).put(descriptionBytes);
+        return append(record);
+    }
+
+    public long appendPancakesCleared(UUID orderId) {
+        ByteBuffer record = record(RecordType.PANCAKES_CLEARED, ID_SIZE);
+        putId(record, orderId);
+        return append(record);
+    }
+
+    public long appendOrderDeleted(UUID orderId) {
+        ByteBuffer record = record(RecordType.ORDER_DELETED, ID_SIZE);
+        putId(record, orderId);
+        return append(record);
+    }
+
+    public long appendStateUpdated(UUID orderId, OrderState state) {
+        ByteBuffer record = record(RecordType.STATE_UPDATED, ID_SIZE + Byte.BYTES);
+        putId(record, orderId);
+        record.put((byte) state.ordinal());
+        return append(record);
+    }
+
+    public long appendStateRemoved(UUID orderId) {
+        ByteBuffer record = record(RecordType.STATE_REMOVED, ID_SIZE);
+        putId(record, orderId);
+        return append(record);
+    }
+
+    /**
+     * Replays the records between two positions of a journal file without opening it for appending.
+     * Safe to call while the journal is being appended to, as long as the range is durable.
+     *
+     * @param file         the journal file
+     * @param fromPosition the position of the first record to replay
+     * @param toPosition   the position after the last record to replay
+     * @param listener     receives the replayed records
+     * @return the position after the last replayed record
+     * @throws IOException if the file cannot be read or a record in the range is corrupt
+     */
+    public static long replay(Path file, long fromPosition, long toPosition, JournalListener listener) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long position = replay(channel, fromPosition, toPosition, listener);
+            if (position < toPosition) {
+                throw new IOException("Order journal %s has a corrupt record at position %d".formatted(file, position));
+            }
+            return position;
+        }
+    }
+
+    /**
+     * @return the position up to which the journal is on disk, always at a record boundary
+     */
+    public long durablePosition() {
+        lock.lock();
+        try {
+            return durablePosition;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Blocks until the journal is durable up to the given position.
+     *
+     * @param position the position returned when a record was appended
+     * @throws UncheckedIOException if writing the journal failed
+     */
+    public void awaitDurable(long position) {
+        lock.lock();
+        try {
+            while (durablePosition < position) {
+                if (failure != null) throw new UncheckedIOException("Order journal write failed", failure);
+                durableAdvanced.awaitUninterruptibly();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Blocks until the journal is durable up to the given position, unless an operation is running
+     * on the calling thread, in which case the wait is left to the end of the operation.
+     *
+     * @param position the position returned when a record was appended
+     * @throws UncheckedIOException if writing the journal failed
+     */
+    public void awaitDurableOrDefer(long position) {
+        Deferral deferral = deferrals.get();
+        if (deferral.depth > 0) {
+            deferral.position = Math.max(deferral.position, position);
+        } else {
+            awaitDurable(position);
+        }
+    }
+
+    @Override
+    public void beginOperation() {
+        deferrals.get().depth++;
+    }
+
+    /**
+     * @throws UncheckedIOException if writing the journal failed
+     */
+    @Override
+    public void endOperation() {
+        Deferral deferral = deferrals.get();
+        if (deferral.depth == 0) throw new IllegalStateException("No operation to end");
+        if (--deferral.depth > 0) return;
+        long position = deferral.position;
+        deferral.position = 0;
+        awaitDurable(position);
+    }
+
+    /**
+     * Makes all appended records durable and closes the file.
+     */
+    @Override
+    public void close() throws IOException {
+        lock.lock();
+        try {
+            if (closed) return;
+            closed = true;
+            pendingAvailable.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        try {
+            flusher.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        channel.close();
+        if (failure != null) throw failure;
+    }
+
+    private long append(ByteBuffer record) {
+        CRC32C crc = new CRC32C();
+        crc.update(record.array(), Integer.BYTES, record.position() - Integer.BYTES);
+        record.putInt((int) crc.getValue());
+        record.flip();
+
+        lock.lock();
+        try {
+            if (closed) throw new IllegalStateException("Order journal is closed");
+            if (failure != null) throw new UncheckedIOException("Order journal write failed", failure);
+            if (pending.remaining() < record.remaining()) {
+                pending = grow(pending, record.remaining());
+            }
+            appendedPosition += record.remaining();
+            pending.put(record);
+            pendingAvailable.signal();
+            return appendedPosition;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void flushLoop() {
+        while (true) {
+            lock.lock();
+            try {
+                while (pending.position() == 0 && !closed) {
+                    pendingAvailable.awaitUninterruptibly();
+                }
+                if (pending.position() == 0) return;
+            } finally {
+                lock.unlock();
+            }
+
+            if (commitIntervalNanos > 0 && !closed) {
+                LockSupport.parkNanos(commitIntervalNanos);
+            }
+
+            long target;
+            lock.lock();
+            try {
+                ByteBuffer full = pending;
+                pending = writing;
+                writing = full;
+                target = appendedPosition;
+            } finally {
+                lock.unlock();
+            }
+
+            try {
+                writing.flip();
+                while (writing.hasRemaining()) {
+                    channel.write(writing);
+                }
+                channel.force(false);
+                writing.clear();
+            } catch (IOException e) {
+                lock.lock();
+                try {
+                    failure = e;
+                    durableAdvanced.signalAll();
+                } finally {
+                    lock.unlock();
+                }
+                return;
+            }
+
+            lock.lock();
+            try {
+                durablePosition = target;
+                durableAdvanced.signalAll();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    private static long replay(FileChannel channel, long fromPosition, long toPosition, JournalListener listener) throws IOException {
+        channel.position(fromPosition);
+        var in = new DataInputStream(new BufferedInputStream(Channels.newInputStream(channel)));
+        long position = fromPosition;
+        while (position < toPosition) {
+            byte[] body;
+            int checksum;
+            try {
+                int payloadSize = in.readInt();
+                if (payloadSize < 0 || payloadSize > MAX_PAYLOAD_SIZE) break;
+                body = new byte[Byte.BYTES + payloadSize];
+                in.readFully(body);
+                checksum = in.readInt();
+            } catch (EOFException e) {
+                break;
+            }
+
+            CRC32C crc = new CRC32C();
+            crc.update(body);
+            if ((int) crc.getValue() != checksum) break;
+
+            dispatch(ByteBuffer.wrap(body), listener);
+            position += Integer.BYTES + body.length + Integer.BYTES;
+        }
+        return position;
+    }
+
+    /**
+     * Looks for a record with a valid length and checksum at any byte position from the given one on,
+     * to tell a torn tail, after which nothing can be read, from a corrupt record in the middle of the journal.
+     *
+     * @return the position of the first valid record found, or -1 if there is none
+     */
+    private static long findRecord(FileChannel channel, long fromPosition) throws IOException {
+        long size = channel.size();
+        if (size - fromPosition < Integer.BYTES + Byte.BYTES + Integer.BYTES) return -1;
+        ByteBuffer tail = channel.map(FileChannel.MapMode.READ_ONLY, fromPosition, size - fromPosition);
+        int minRecordSize = Integer.BYTES + Byte.BYTES + Integer.BYTES;
+        CRC32C crc = new CRC32C();
+        for (int offset = 0; offset <= tail.limit() - minRecordSize; offset++) {
+            int payloadSize = tail.getInt(offset);
+            if (payloadSize < 0 || payloadSize > MAX_PAYLOAD_SIZE) continue;
+            int bodySize = Byte.BYTES + payloadSize;
+            if (offset + Integer.BYTES + bodySize + Integer.BYTES > tail.limit()) continue;
+            crc.reset();
+            crc.update(tail.slice(offset + Integer.BYTES, bodySize));
+            if ((int) crc.getValue() == tail.getInt(offset + Integer.BYTES + bodySize)) {
+                return fromPosition + offset;
+            }
+        }
+        return -1;
+    }
+
+    private static void dispatch(ByteBuffer record, JournalListener listener) {
+        RecordType type = RecordType.fromCode(record.get());
+        UUID orderId = new UUID(record.getLong(), record.getLong());
+        switch (type) {
+            case ORDER_SAVED -> listener.onOrderSaved(Order.restore(orderId, record.getInt(), record.getInt()));
+            case PANCAKES_ADDED -> {
+                int count = record.getInt();
+                int ingredientCount = record.get();
+                List<Ingredient> ingredients = new ArrayList<>(ingredientCount);
+                for (int i = 0; i < ingredientCount; i++) {
+                    ingredients.add(INGREDIENTS[record.get()]);
+                }
+                listener.onPancakesAdded(orderId, ingredients, count);
+            }
+            case PANCAKES_REMOVED -> {
+                int count = record.getInt();
+                byte[] description = new byte[record.getInt()];
+                record.get(description);
+                listener.onPancakesRemoved(orderId, new String(description, StandardCharsets.UTF_8), count);
+            }
+            case PANCAKES_CLEARED -> listener.onPancakesCleared(orderId);
+            case ORDER_DELETED -> listener.onOrderDeleted(orderId);
+            case STATE_UPDATED -> listener.onStateUpdated(orderId, STATES[record.get()]);
+            case STATE_REMOVED -> listener.onStateRemoved(orderId);
+        }
+    }
+
+    private static ByteBuffer record(RecordType type, int payloadSize) {
+        ByteBuffer record = ByteBuffer.allocate(Integer.BYTES + Byte.BYTES + payloadSize + Integer.BYTES);
+        record.putInt(payloadSize).put(type.code());
+        return record;
+    }
+
+    private static void putId(ByteBuffer record, UUID orderId) {
+        record.putLong(orderId.getMostSignificantBits()).putLong(orderId.getLeastSignificantBits());
+    }
+
+    private static ByteBuffer grow(ByteBuffer buffer, int required) {
+        int capacity = buffer.capacity();
+        while (capacity - buffer.position() < required) {
+            capacity *= 2;
+        }
+        ByteBuffer grown = ByteBuffer.allocate(capacity);
+        buffer.flip();
+        grown.put(buffer);
+        return grown;
+    }
+}
@@ -0,0 +1,258 @@
+package org.pancakelab.repository.journal;
+
+import org.pancakelab.model.orders.Order;
+import org.pancakelab.model.orders.OrderState;
+import org.pancakelab.model.pancakes.Ingredient;
+import org.pancakelab.model.pancakes.PancakeFactory;
+import org.pancakelab.model.pancakes.PancakeRecipe;
+import org.pancakelab.repository.OrderRepository;
+import org.pancakelab.repository.PancakeRepository;
+import org.pancakelab.service.OrderStateService;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.zip.CRC32C;
+import java.util.zip.CheckedInputStream;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * Live order state as of a journal position, in a form that can be written to and read from a snapshot file.
+ * It is built by replaying journal records on a background thread, never by reading the live stores,
+ * so a snapshot is exactly consistent with the journal position it is tagged with.
+ * <p>
+ * File layout: magic, format version, journal position, entry count, then per entry the order ID, whether the order
+ * was saved, building, room, state and pancakes as (ingredients, count) pairs, followed by a CRC32C checksum
+ * of everything before it. Entries without a saved order, e.g. the state of an unknown order that was prepared,
+ * are kept like a journal replay keeps them.
+ */
+final class SnapshotState implements JournalListener {
+    private static final int MAGIC = 0x50414E43;
+    private static final int FORMAT_VERSION = 1;
+    private static final byte NO_STATE = -1;
+    private static final OrderState[] STATES = OrderState.values();
+    private static final Ingredient[] INGREDIENTS = Ingredient.values();
+
+    private final PancakeFactory pancakeFactory;
+    private final Map<UUID, Entry> entries = new HashMap<>();
+    private long journalPosition;
+
+    private static final class Entry {
+        private Order order;
+        private OrderState state;
+        private final Map<String, RecipeCount> pancakes = new LinkedHashMap<>();
+
+        private boolean isEmpty() {
+            return order == null && state == null && pancakes.isEmpty();
+        }
+    }
+
+    private static final class RecipeCount {
+        private final PancakeRecipe recipe;
+        private int count;
+
+        private RecipeCount(PancakeRecipe recipe) {
+            this.recipe = recipe;
+        }
+    }
+
+    SnapshotState(PancakeFactory pancakeFactory) {
+        this.pancakeFactory = pancakeFactory;
+    }
+
+    long getJournalPosition() {
+        return journalPosition;
+    }
+
+    void setJournalPosition(long journalPosition) {
+        this.journalPosition = journalPosition;
+    }
+
+    /**
+     * Reads a snapshot file.
+     *
+     * @return the state stored in the file, or an empty state at journal position 0 if the file does not exist
+     * @throws IOException if the file cannot be read or its checksum does not match
+     */
+    static SnapshotState read(Path file, PancakeFactory pancakeFactory) throws IOException {
+        SnapshotState state = new SnapshotState(pancakeFactory);
+        if (!Files.exists(file)) return state;
+
+        try (InputStream fileIn = new BufferedInputStream(Files.newInputStream(file))) {
+            var checked = new CheckedInputStream(fileIn, new CRC32C());
+            var in = new DataInputStream(checked);
+            if (in.readInt() != MAGIC || in.readInt() != FORMAT_VERSION) {
+                throw new IOException("Not an order snapshot: " + file);
+            }
+            state.journalPosition = in.readLong();
+            int orderCount = in.readInt();
+            for (int i = 0; i < orderCount; i++) {
+                UUID orderId = new UUID(in.readLong(), in.readLong());
+                Entry entry = new Entry();
+                boolean orderSaved = in.readBoolean();
+                int building = in.readInt();
+                int room = in.readInt();
+                entry.order = orderSaved ? Order.restore(orderId, building, room) : null;
+                byte stateCode = in.readByte();
+                entry.state = stateCode == NO_STATE ? null : STATES[stateCode];
+                int recipeCount = in.readInt();
+                for (int j = 0; j < recipeCount; j++) {
+                    int ingredientCount = in.readByte();
+                    List<Ingredient> ingredients = new ArrayList<>(ingredientCount);
+                    for (int k = 0; k < ingredientCount; k++) {
+                        ingredients.add(INGREDIENTS[in.readByte()]);
+                    }
+                    PancakeRecipe recipe = pancakeFactory.createRecipe(ingredients);
+                    RecipeCount pancakes = new RecipeCount(recipe);
+                    pancakes.count = in.readInt();
+                    entry.pancakes.put(recipe.description(), pancakes);
+                }
+                state.entries.put(orderId, entry);
+            }
+            int expectedChecksum = (int) checked.getChecksum().getValue();
+            if (in.readInt() != expectedChecksum) {
+                throw new IOException("Order snapshot checksum mismatch: " + file);
+            }
+        }
+        return state;
+    }
+
+    /**
+     * Writes the state to a temporary file, forces it to disk and atomically replaces the snapshot file with it.
+     * All entries are written, including those without an order record, so loading the snapshot gives
+     * the same state as replaying the journal.
+     */
+    void write(Path file) throws IOException {
+        Path temporaryFile = file.resolveSibling(file.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temporaryFile,
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            var checked = new CheckedOutputStream(new BufferedOutputStream(Channels.newOutputStream(channel)), new CRC32C());
+            var out = new DataOutputStream(checked);
+            out.writeInt(MAGIC);
+            out.writeInt(FORMAT_VERSION);
+            out.writeLong(journalPosition);
+
+            out.writeInt(entries.size());
+            for (var orderEntry : entries.entrySet()) {
+                Entry entry = orderEntry.getValue();
+                out.writeLong(orderEntry.getKey().getMostSignificantBits());
+                out.writeLong(orderEntry.getKey().getLeastSignificantBits());
+                out.writeBoolean(entry.order != null);
+                out.writeInt(entry.order == null ? 0 : entry.order.getBuilding());
+                out.writeInt(entry.order == null ? 0 : entry.order.getRoom());
+                out.writeByte(entry.state == null ? NO_STATE : entry.state.ordinal());
+                out.writeInt(entry.pancakes.size());
+                for (RecipeCount recipeCount : entry.pancakes.values()) {
+                    List<Ingredient> ingredients = recipeCount.recipe.ingredients();
+                    out.writeByte(ingredients.size());
+                    for (Ingredient ingredient : ingredients) {
+                        out.writeByte(ingredient.ordinal());
+                    }
+                    out.writeInt(recipeCount.count);
+                }
+            }
+            out.writeInt((int) checked.getChecksum().getValue());
+            out.flush();
+            channel.force(true);
+        }
+        Files.move(temporaryFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Loads the state into empty stores.
+     */
+    void applyTo(OrderRepository orderRepository, PancakeRepository pancakeRepository, OrderStateService orderStateService) {
+        for (var entry : entries.entrySet()) {
+            Entry value = entry.getValue();
+            if (value.order != null) {
+                orderRepository.save(value.order);
+            }
+            if (value.state != null) {
+                orderStateService.update(entry.getKey(), value.state);
+            }
+            if (!value.pancakes.isEmpty()) {
+                Map<PancakeRecipe, Integer> pancakes = new LinkedHashMap<>();
+                for (RecipeCount recipeCount : value.pancakes.values()) {
+                    pancakes.put(recipeCount.recipe, recipeCount.count);
+                }
+                pancakeRepository.addPancakes(entry.getKey(), pancakes);
+            }
+        }
+    }
+
+    @Override
+    public void onOrderSaved(Order order) {
+        entries.computeIfAbsent(order.getId(), id -> new Entry()).order = order;
+    }
+
+    @Override
+    public void onPancakesAdded(UUID orderId, List<Ingredient> ingredients, int count) {
+        if (count <= 0) return;
+        PancakeRecipe recipe = pancakeFactory.createRecipe(ingredients);
+        entries.computeIfAbsent(orderId, id -> new Entry()).pancakes
+                .computeIfAbsent(recipe.description(), description -> new RecipeCount(recipe)).count += count;
+    }
+
+    @Override
+    public void onPancakesRemoved(UUID orderId, String description, int count) {
+        Entry entry = entries.get(orderId);
+        if (entry == null || count <= 0) return;
+        RecipeCount recipeCount = entry.pancakes.get(description);
+        if (recipeCount == null) return;
+        recipeCount.count -= Math.min(recipeCount.count, count);
+        if (recipeCount.count == 0) {
+            entry.pancakes.remove(description);
+        }
+        removeIfEmpty(orderId, entry);
+    }
+
+    @Override
+    public void onPancakesCleared(UUID orderId) {
+        Entry entry = entries.get(orderId);
+        if (entry == null) return;
+        entry.pancakes.clear();
+        removeIfEmpty(orderId, entry);
+    }
+
+    @Override
+    public void onOrderDeleted(UUID orderId) {
+        Entry entry = entries.get(orderId);
+        if (entry == null) return;
+        entry.order = null;
+        removeIfEmpty(orderId, entry);
+    }
+
+    @Override
+    public void onStateUpdated(UUID orderId, OrderState state) {
+        entries.computeIfAbsent(orderId, id -> new Entry()).state = state;
+    }
+
+    @Override
+    public void onStateRemoved(UUID orderId) {
+        Entry entry = entries.get(orderId);
+        if (entry == null) return;
+        entry.state = null;
+        removeIfEmpty(orderId, entry);
+    }
+
+    private void removeIfEmpty(UUID orderId, Entry entry) {
+        if (entry.isEmpty()) {
+            entries.remove(orderId);
+        }
+    }
+}
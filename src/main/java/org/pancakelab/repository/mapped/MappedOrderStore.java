@@ -0,0 +1,564 @@
+package org.pancakelab.repository.mapped;
+
+import org.pancakelab.model.orders.Order;
+import org.pancakelab.model.orders.OrderState;
+import org.pancakelab.model.pancakes.Ingredient;
+import org.pancakelab.model.pancakes.PancakeMenu;
+import org.pancakelab.model.pancakes.PancakeRecipe;
+import org.pancakelab.repository.OrderRepository;
+import org.pancakelab.repository.PancakeRepository;
+import org.pancakelab.service.OrderStateService;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Off-heap order store kept in a memory-mapped file.
+ * The file is an open-addressing hash table of fixed-width records keyed by the two longs of the order ID.
+ * Each record holds the building and room of the order, its state and one pancake counter per ingredient
+ * combination, indexed by the bitmask of its ingredients, so the heap footprint does not grow with the
+ * number of orders, and the orders survive a restart of the process.
+ * <p>
+ * The capacity is fixed when the file is created, and adding an order to a table that is more than
+ * three quarters full fails. The counters are indexed by the recipe IDs of the {@link PancakeMenu},
+ * so only recipes on the menu can be stored, and recipes with a repeated ingredient have no ID.
+ * Pancakes are listed grouped by recipe, in the order of their ingredient bitmask.
+ * When a record is removed, the records after it in the probe sequence are shifted back,
+ * so probes stay as short as the clusters of live orders however many orders were created and removed.
+ * Reads share a read lock, mutations take a write lock.
+ */
+public class MappedOrderStore implements AutoCloseable {
+    private static final int MAGIC = 0x50414E4F;
+    private static final int FORMAT_VERSION = 1;
+    private static final OrderState[] STATES = OrderState.values();
+    private static final int RECIPE_SLOTS = PancakeMenu.RECIPE_SLOTS;
+    private static final double MAX_LOAD_FACTOR = 0.75;
+
+    // header layout
+    private static final int HEADER_MAGIC = 0;
+    private static final int HEADER_VERSION = 4;
+    private static final int HEADER_RECIPE_SLOTS = 8;
+    private static final int HEADER_CAPACITY = 12;
+    private static final int HEADER_LIVE = 16;
+    private static final int HEADER_SIZE = 64;
+
+    // record layout
+    private static final int MOST_SIGNIFICANT_BITS = 0;
+    private static final int LEAST_SIGNIFICANT_BITS = 8;
+    private static final int BUILDING = 16;
+    private static final int ROOM = 20;
+    private static final int STATUS = 24;
+    private static final int FLAGS = 25;
+    private static final int STATE = 26;
+    private static final int TOTAL = 28;
+    private static final int COUNTS = 32;
+    private static final int RECORD_SIZE = (COUNTS + RECIPE_SLOTS * Integer.BYTES + 7) & ~7;
+
+    private static final byte EMPTY = 0;
+    private static final byte OCCUPIED = 1;
+    private static final byte ORDER_SAVED = 1;
+    private static final byte NO_STATE = -1;
+
+    private final FileChannel channel;
+    private final MappedByteBuffer buffer;
+    private final int capacity;
+    private final int mask;
+    private final PancakeMenu pancakeMenu;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    // orders per state, counted when the file is opened and kept up to date under the write lock
+    private final int[] stateCounts = new int[STATES.length];
+
+    private final OrderRepository orderRepository = new MappedOrderRepository();
+    private final PancakeRepository pancakeRepository = new MappedPancakeRepository();
+    private final OrderStateService orderStateService = new MappedOrderStateService();
+
+    private MappedOrderStore(FileChannel channel, MappedByteBuffer buffer, int capacity, PancakeMenu pancakeMenu) {
+        this.channel = channel;
+        this.buffer = buffer;
+        this.capacity = capacity;
+        this.mask = capacity - 1;
+        this.pancakeMenu = pancakeMenu;
+    }
+
+    /**
+     * Opens the store file, creating it with the given capacity if it does not exist yet.
+     *
+     * @param file           the store file
+     * @param capacity       the number of order records of a new file, must be a power of two
+     * @param pancakeMenu    provides the IDs and descriptions of the stored recipes, must contain every recipe
+     *                       stored in the file
+     * @return the opened store
+     * @throws IOException if the file cannot be mapped or was not written by this store
+     */
+    public static MappedOrderStore open(Path file, int capacity, PancakeMenu pancakeMenu) throws IOException {
+        if (capacity <= 0 || Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("Capacity must be a positive power of two.");
+        }
+        FileChannel channel = FileChannel.open(file,
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            boolean created = channel.size() == 0;
+            if (!created) {
+                MappedByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_SIZE);
+                if (header.getInt(HEADER_MAGIC) != MAGIC
+                        || header.getInt(HEADER_VERSION) != FORMAT_VERSION
+                        || header.getInt(HEADER_RECIPE_SLOTS) != RECIPE_SLOTS) {
+                    throw new IOException("Not a compatible order store: " + file);
+                }
+                capacity = header.getInt(HEADER_CAPACITY);
+            }
+
+            long fileSize = HEADER_SIZE + (long) capacity * RECORD_SIZE;
+            if (fileSize > Integer.MAX_VALUE) {
+                throw new IllegalArgumentException("Capacity too large for a single mapping: " + capacity);
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, fileSize);
+            if (created) {
+                buffer.putInt(HEADER_MAGIC, MAGIC);
+                buffer.putInt(HEADER_VERSION, FORMAT_VERSION);
+                buffer.putInt(HEADER_RECIPE_SLOTS, RECIPE_SLOTS);
+                buffer.putInt(HEADER_CAPACITY, capacity);
+            }
+            MappedOrderStore store = new MappedOrderStore(channel, buffer, capacity, pancakeMenu);
+            store.countStates();
+            return store;
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    public OrderRepository orderRepository() {
+        return orderRepository;
+    }
+
+    public PancakeRepository pancakeRepository() {
+        return pancakeRepository;
+    }
+
+    public OrderStateService orderStateService() {
+        return orderStateService;
+    }
+
+    /**
+     * @return the number of orders with an order record, state or pancakes
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return buffer.getInt(HEADER_LIVE);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Writes all changes to the file and closes it. The mapping itself is only released
+     * when the buffer is garbage collected, so the store must not be used after closing.
+     */
+    @Override
+    public void close() throws IOException {
+        lock.writeLock().lock();
+        try {
+            buffer.force();
+            channel.close();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private class MappedOrderRepository implements OrderRepository {
+        @Override
+        public void save(Order order) {
+            lock.writeLock().lock();
+            try {
+                write(order);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        /**
+         * Takes the write lock once for the whole batch.
+         */
+        @Override
+        public void saveAll(Collection<Order> orders) {
+            lock.writeLock().lock();
+            try {
+                for (Order order : orders) {
+                    write(order);
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        private void write(Order order) {
+            int offset = findOrInsert(order.getId());
+            buffer.putInt(offset + BUILDING, order.getBuilding());
+            buffer.putInt(offset + ROOM, order.getRoom());
+            buffer.put(offset + FLAGS, (byte) (buffer.get(offset + FLAGS) | ORDER_SAVED));
+        }
+
+        @Override
+        public Optional<Order> findById(UUID orderId) {
+            lock.readLock().lock();
+            try {
+                int offset = find(orderId);
+                if (offset < 0 || (buffer.get(offset + FLAGS) & ORDER_SAVED) == 0) return Optional.empty();
+                return Optional.of(Order.restore(orderId, buffer.getInt(offset + BUILDING), buffer.getInt(offset + ROOM)));
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        @Override
+        public void deleteById(UUID orderId) {
+            lock.writeLock().lock();
+            try {
+                int offset = find(orderId);
+                if (offset < 0) return;
+                buffer.put(offset + FLAGS, (byte) (buffer.get(offset + FLAGS) & ~ORDER_SAVED));
+                releaseIfUnused(offset);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+    }
+
+    private class MappedPancakeRepository implements PancakeRepository {
+        @Override
+        public List<String> viewOrderPancakes(UUID orderId) {
+            lock.readLock().lock();
+            try {
+                int offset = find(orderId);
+                if (offset < 0) return List.of();
+                List<String> pancakes = new ArrayList<>(buffer.getInt(offset + TOTAL));
+                for (int recipeMask = 1; recipeMask < RECIPE_SLOTS; recipeMask++) {
+                    int count = buffer.getInt(countOffset(offset, recipeMask));
+                    if (count > 0) {
+                        pancakes.addAll(Collections.nCopies(count, pancakeMenu.description(recipeMask)));
+                    }
+                }
+                return Collections.unmodifiableList(pancakes);
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        @Override
+        public int addPancake(UUID orderId, PancakeRecipe pancakeRecipe) {
+            return addPancakes(orderId, Map.of(pancakeRecipe, 1));
+        }
+
+        @Override
+        public int addPancakes(UUID orderId, Map<PancakeRecipe, Integer> pancakes) {
+            int[] recipeMasks = new int[pancakes.size()];
+            int i = 0;
+            for (PancakeRecipe recipe : pancakes.keySet()) {
+                recipeMasks[i++] = recipeIdOf(recipe);
+            }
+
+            lock.writeLock().lock();
+            try {
+                int offset = findOrInsert(orderId);
+                int total = buffer.getInt(offset + TOTAL);
+                i = 0;
+                for (int count : pancakes.values()) {
+                    int recipeMask = recipeMasks[i++];
+                    if (count <= 0) continue;
+                    int countOffset = countOffset(offset, recipeMask);
+                    buffer.putInt(countOffset, buffer.getInt(countOffset) + count);
+                    total += count;
+                }
+                buffer.putInt(offset + TOTAL, total);
+                releaseIfUnused(offset);
+                return total;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        @Override
+        public void remove(UUID orderId) {
+            lock.writeLock().lock();
+            try {
+                int offset = find(orderId);
+                if (offset < 0) return;
+                clearPancakes(offset);
+                releaseIfUnused(offset);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        @Override
+        public int removePancakes(UUID orderId, String description, int count) {
+            int recipeMask = pancakeMenu.idOf(description);
+            if (recipeMask < 0 || count <= 0) return 0;
+
+            lock.writeLock().lock();
+            try {
+                int offset = find(orderId);
+                if (offset < 0) return 0;
+                int countOffset = countOffset(offset, recipeMask);
+                int removed = Math.min(buffer.getInt(countOffset), count);
+                buffer.putInt(countOffset, buffer.getInt(countOffset) - removed);
+                buffer.putInt(offset + TOTAL, buffer.getInt(offset + TOTAL) - removed);
+                releaseIfUnused(offset);
+                return removed;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        @Override
+        public int getPancakesCount(UUID orderId) {
+            lock.readLock().lock();
+            try {
+                int offset = find(orderId);
+                return offset < 0 ? 0 : buffer.getInt(offset + TOTAL);
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+    }
+
+    private class MappedOrderStateService implements OrderStateService {
+        @Override
+        public OrderState get(UUID orderId) {
+            lock.readLock().lock();
+            try {
+                int offset = find(orderId);
+                return offset < 0 ? null : stateAt(offset);
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        @Override
+        public void update(UUID orderId, OrderState state) {
+            lock.writeLock().lock();
+            try {
+                setState(findOrInsert(orderId), state);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        /**
+         * Takes the write lock once for the whole batch.
+         */
+        @Override
+        public void updateAll(Collection<UUID> orderIds, OrderState state) {
+            lock.writeLock().lock();
+            try {
+                for (UUID orderId : orderIds) {
+                    setState(findOrInsert(orderId), state);
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        @Override
+        public void remove(UUID orderId) {
+            lock.writeLock().lock();
+            try {
+                int offset = find(orderId);
+                if (offset < 0) return;
+                setState(offset, null);
+                releaseIfUnused(offset);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        /**
+         * Scans the whole table, the cost grows with the capacity of the store.
+         */
+        @Override
+        public Set<UUID> getOrderIdsByState(OrderState state) {
+            lock.readLock().lock();
+            try {
+                Set<UUID> orderIds = new HashSet<>();
+                for (int index = 0; index < capacity; index++) {
+                    int offset = offset(index);
+                    if (buffer.get(offset + STATUS) == OCCUPIED && stateAt(offset) == state) {
+                        orderIds.add(new UUID(buffer.getLong(offset + MOST_SIGNIFICANT_BITS),
+                                buffer.getLong(offset + LEAST_SIGNIFICANT_BITS)));
+                    }
+                }
+                return orderIds;
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        @Override
+        public int countByState(OrderState state) {
+            lock.readLock().lock();
+            try {
+                return stateCounts[state.ordinal()];
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+    }
+
+    private int find(UUID orderId) {
+        long mostSignificantBits = orderId.getMostSignificantBits();
+        long leastSignificantBits = orderId.getLeastSignificantBits();
+        int index = hash(mostSignificantBits, leastSignificantBits) & mask;
+        for (int probe = 0; probe < capacity; probe++) {
+            int offset = offset(index);
+            byte status = buffer.get(offset + STATUS);
+            if (status == EMPTY) return -1;
+            if (status == OCCUPIED
+                    && buffer.getLong(offset + MOST_SIGNIFICANT_BITS) == mostSignificantBits
+                    && buffer.getLong(offset + LEAST_SIGNIFICANT_BITS) == leastSignificantBits) {
+                return offset;
+            }
+            index = (index + 1) & mask;
+        }
+        return -1;
+    }
+
+    private int findOrInsert(UUID orderId) {
+        long mostSignificantBits = orderId.getMostSignificantBits();
+        long leastSignificantBits = orderId.getLeastSignificantBits();
+        int index = hash(mostSignificantBits, leastSignificantBits) & mask;
+        while (true) {
+            int offset = offset(index);
+            byte status = buffer.get(offset + STATUS);
+            if (status == EMPTY) break;
+            if (buffer.getLong(offset + MOST_SIGNIFICANT_BITS) == mostSignificantBits
+                    && buffer.getLong(offset + LEAST_SIGNIFICANT_BITS) == leastSignificantBits) {
+                return offset;
+            }
+            index = (index + 1) & mask;
+        }
+
+        // the load factor keeps empty records in the table, which terminate the probes of absent orders
+        if (buffer.getInt(HEADER_LIVE) + 1 > capacity * MAX_LOAD_FACTOR) {
+            throw new IllegalStateException("Order store is full, capacity: " + capacity);
+        }
+        return insert(offset(index), mostSignificantBits, leastSignificantBits);
+    }
+
+    private int insert(int offset, long mostSignificantBits, long leastSignificantBits) {
+        buffer.putLong(offset + MOST_SIGNIFICANT_BITS, mostSignificantBits);
+        buffer.putLong(offset + LEAST_SIGNIFICANT_BITS, leastSignificantBits);
+        buffer.putInt(offset + BUILDING, 0);
+        buffer.putInt(offset + ROOM, 0);
+        buffer.put(offset + FLAGS, (byte) 0);
+        buffer.put(offset + STATE, NO_STATE);
+        clearPancakes(offset);
+        buffer.put(offset + STATUS, OCCUPIED);
+        buffer.putInt(HEADER_LIVE, buffer.getInt(HEADER_LIVE) + 1);
+        return offset;
+    }
+
+    /**
+     * Removes the record if nothing is left in it. The records after it in the probe sequence may move,
+     * so offsets must not be used after this call.
+     */
+    private void releaseIfUnused(int offset) {
+        if (buffer.get(offset + FLAGS) == 0 && buffer.get(offset + STATE) == NO_STATE && buffer.getInt(offset + TOTAL) == 0) {
+            delete((offset - HEADER_SIZE) / RECORD_SIZE);
+            buffer.putInt(HEADER_LIVE, buffer.getInt(HEADER_LIVE) - 1);
+        }
+    }
+
+    /**
+     * Empties a record by backward-shift deletion: every later record of the cluster whose probe sequence
+     * passes the hole is moved into it, so no record becomes unreachable and no tombstone is needed.
+     */
+    private void delete(int hole) {
+        int index = hole;
+        while (true) {
+            index = (index + 1) & mask;
+            int offset = offset(index);
+            if (buffer.get(offset + STATUS) == EMPTY) break;
+            int home = homeIndex(offset);
+            if (((index - home) & mask) >= ((index - hole) & mask)) {
+                buffer.put(offset(hole), buffer, offset, RECORD_SIZE);
+                hole = index;
+            }
+        }
+        buffer.put(offset(hole) + STATUS, EMPTY);
+    }
+
+    private int homeIndex(int offset) {
+        return hash(buffer.getLong(offset + MOST_SIGNIFICANT_BITS), buffer.getLong(offset + LEAST_SIGNIFICANT_BITS)) & mask;
+    }
+
+    private void clearPancakes(int offset) {
+        buffer.putInt(offset + TOTAL, 0);
+        for (int recipeMask = 0; recipeMask < RECIPE_SLOTS; recipeMask++) {
+            buffer.putInt(countOffset(offset, recipeMask), 0);
+        }
+    }
+
+    private void setState(int offset, OrderState state) {
+        OrderState previousState = stateAt(offset);
+        if (previousState == state) return;
+        if (previousState != null) {
+            stateCounts[previousState.ordinal()]--;
+        }
+        if (state != null) {
+            stateCounts[state.ordinal()]++;
+        }
+        buffer.put(offset + STATE, state == null ? NO_STATE : (byte) state.ordinal());
+    }
+
+    private void countStates() {
+        for (int index = 0; index < capacity; index++) {
+            int offset = offset(index);
+            if (buffer.get(offset + STATUS) == OCCUPIED && stateAt(offset) != null) {
+                stateCounts[stateAt(offset).ordinal()]++;
+            }
+        }
+    }
+
+    private OrderState stateAt(int offset) {
+        byte state = buffer.get(offset + STATE);
+        return state == NO_STATE ? null : STATES[state];
+    }
+
+    private int recipeIdOf(PancakeRecipe recipe) {
+        if (Ingredient.maskOf(recipe.ingredients()) < 0) {
+            throw new IllegalArgumentException("Recipes with a repeated ingredient cannot be stored: " + recipe.description());
+        }
+        return pancakeMenu.idOf(recipe);
+    }
+
+    private static int hash(long mostSignificantBits, long leastSignificantBits) {
+        long hash = mostSignificantBits ^ leastSignificantBits;
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        return (int) hash;
+    }
+
+    private static int offset(int index) {
+        return HEADER_SIZE + index * RECORD_SIZE;
+    }
+
+    private static int countOffset(int offset, int recipeMask) {
+        return offset + COUNTS + recipeMask * Integer.BYTES;
+    }
+}
@@ -0,0 +1,132 @@
+package org.pancakelab.service;
+
+import org.pancakelab.model.orders.DeliveredOrder;
+import org.pancakelab.model.orders.Order;
+import org.pancakelab.model.pancakes.PancakeRecipe;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Asynchronous facade of a {@link PancakeService}.
+ * Every call returns a CompletableFuture right away and runs the blocking service call on the executor,
+ * so request threads are never blocked by order locks or by repositories that do I/O.
+ * The service and its repositories stay blocking, the facade only moves their work onto the executor.
+ * <p>
+ * By default each call runs on its own virtual thread when the Java runtime provides virtual threads,
+ * otherwise on a cached pool of daemon platform threads.
+ */
+public class AsyncPancakeService implements AutoCloseable {
+    private static final AtomicInteger THREAD_COUNT = new AtomicInteger();
+
+    private final PancakeService pancakeService;
+    private final ExecutorService executor;
+    private final boolean ownsExecutor;
+
+    public AsyncPancakeService(PancakeService pancakeService) {
+        this(pancakeService, defaultExecutor(), true);
+    }
+
+    /**
+     * @param executor runs the service calls, it is not shut down when this facade is closed
+     */
+    public AsyncPancakeService(PancakeService pancakeService, ExecutorService executor) {
+        this(pancakeService, executor, false);
+    }
+
+    private AsyncPancakeService(PancakeService pancakeService, ExecutorService executor, boolean ownsExecutor) {
+        this.pancakeService = pancakeService;
+        this.executor = executor;
+        this.ownsExecutor = ownsExecutor;
+    }
+
+    /**
+     * @return an executor starting a virtual thread per task if the runtime supports it,
+     * otherwise a cached thread pool of daemon threads
+     */
+    public static ExecutorService defaultExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            ThreadFactory threadFactory = runnable -> {
+                Thread thread = new Thread(runnable, "pancake-service-async-" + THREAD_COUNT.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            };
+            return Executors.newCachedThreadPool(threadFactory);
+        }
+    }
+
+    public CompletableFuture<Order> createOrder(int building, int room) {
+        return CompletableFuture.supplyAsync(() -> pancakeService.createOrder(building, room), executor);
+    }
+
+    public CompletableFuture<Void> addPancake(UUID orderId, PancakeRecipe pancake, int count) {
+        return CompletableFuture.runAsync(() -> pancakeService.addPancake(orderId, pancake, count), executor);
+    }
+
+    public CompletableFuture<Void> addPancake(UUID orderId, int recipeId, int count) {
+        return CompletableFuture.runAsync(() -> pancakeService.addPancake(orderId, recipeId, count), executor);
+    }
+
+    public CompletableFuture<Void> addPancakes(UUID orderId, Map<PancakeRecipe, Integer> pancakes) {
+        return CompletableFuture.runAsync(() -> pancakeService.addPancakes(orderId, pancakes), executor);
+    }
+
+    public CompletableFuture<List<String>> viewOrder(UUID orderId) {
+        return CompletableFuture.supplyAsync(() -> pancakeService.viewOrder(orderId), executor);
+    }
+
+    public CompletableFuture<Void> removePancakes(String description, UUID orderId, int count) {
+        return CompletableFuture.runAsync(() -> pancakeService.removePancakes(description, orderId, count), executor);
+    }
+
+    public CompletableFuture<Void> removePancakes(int recipeId, UUID orderId, int count) {
+        return CompletableFuture.runAsync(() -> pancakeService.removePancakes(recipeId, orderId, count), executor);
+    }
+
+    public CompletableFuture<Void> cancelOrder(UUID orderId) {
+        return CompletableFuture.runAsync(() -> pancakeService.cancelOrder(orderId), executor);
+    }
+
+    public CompletableFuture<Void> completeOrder(UUID orderId) {
+        return CompletableFuture.runAsync(() -> pancakeService.completeOrder(orderId), executor);
+    }
+
+    public CompletableFuture<Set<UUID>> listCompletedOrders() {
+        return CompletableFuture.supplyAsync(pancakeService::listCompletedOrders, executor);
+    }
+
+    public CompletableFuture<Void> prepareOrder(UUID orderId) {
+        return CompletableFuture.runAsync(() -> pancakeService.prepareOrder(orderId), executor);
+    }
+
+    public CompletableFuture<Set<UUID>> listPreparedOrders() {
+        return CompletableFuture.supplyAsync(pancakeService::listPreparedOrders, executor);
+    }
+
+    public CompletableFuture<Object[]> deliverOrder(UUID orderId) {
+        return CompletableFuture.supplyAsync(() -> pancakeService.deliverOrder(orderId), executor);
+    }
+
+    public CompletableFuture<List<DeliveredOrder>> drainForDelivery(int maxOrders) {
+        return CompletableFuture.supplyAsync(() -> pancakeService.drainForDelivery(maxOrders), executor);
+    }
+
+    /**
+     * Shuts down the default executor after the running calls have finished, a provided executor is left running.
+     */
+    @Override
+    public void close() {
+        if (ownsExecutor) {
+            executor.shutdown();
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package org.pancakelab.service;
+
+import org.pancakelab.model.orders.Order;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+/**
+ * Index of prepared orders by building, with the orders of each building sorted by room,
+ * so a courier can deliver a whole building in one run along its rooms.
+ * The index is updated incrementally when orders enter or leave the PREPARED state,
+ * and listing or draining a building costs time proportional to the orders in that building.
+ */
+public class DeliveryPlanner {
+    private static final Comparator<Order> BY_ROOM = Comparator.comparingInt(Order::getRoom).thenComparing(Order::getId);
+
+    private final ConcurrentMap<Integer, NavigableSet<Order>> preparedOrdersByBuilding = new ConcurrentHashMap<>();
+
+    void add(Order order) {
+        preparedOrdersByBuilding.computeIfAbsent(order.getBuilding(), building -> new ConcurrentSkipListSet<>(BY_ROOM))
+                .add(order);
+    }
+
+    void remove(Order order) {
+        NavigableSet<Order> orders = preparedOrdersByBuilding.get(order.getBuilding());
+        if (orders != null) {
+            orders.remove(order);
+        }
+    }
+
+    /**
+     * Removes and returns the prepared order with the lowest room in the building.
+     *
+     * @return the order, or null if the building has no prepared orders
+     */
+    Order pollFirst(int building) {
+        NavigableSet<Order> orders = preparedOrdersByBuilding.get(building);
+        return orders == null ? null : orders.pollFirst();
+    }
+
+    /**
+     * @param building the building number
+     * @return the prepared orders of the building, sorted by room
+     */
+    public List<Order> getPreparedOrders(int building) {
+        NavigableSet<Order> orders = preparedOrdersByBuilding.get(building);
+        return orders == null ? List.of() : List.copyOf(orders);
+    }
+
+    /**
+     * @return the prepared orders grouped by building, buildings in ascending order and orders sorted by room
+     */
+    public Map<Integer, List<Order>> getPreparedOrdersByBuilding() {
+        Map<Integer, List<Order>> plan = new TreeMap<>();
+        preparedOrdersByBuilding.forEach((building, orders) -> {
+            List<Order> buildingOrders = new ArrayList<>(orders);
+            if (!buildingOrders.isEmpty()) {
+                plan.put(building, buildingOrders);
+            }
+        });
+        return plan;
+    }
+}
@@ -0,0 +1,19 @@
+package org.pancakelab.service;
+
+/**
+ * Groups the store mutations of one service operation, so that stores which make every mutation durable,
+ * e.g. by journaling it, wait for durability once per operation instead of once per mutation.
+ * The service begins an operation before its first mutation and ends it after its last one, on the same thread
+ * and while the order is still locked, so the operation returns only once all its mutations are durable.
+ */
+public interface DurabilityBarrier {
+    /**
+     * Starts an operation on the calling thread. Operations may nest, only the outermost one waits.
+     */
+    void beginOperation();
+
+    /**
+     * Ends the operation started last on the calling thread and blocks until its mutations are durable.
+     */
+    void endOperation();
+}
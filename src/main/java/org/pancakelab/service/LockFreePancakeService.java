@@ -0,0 +1,194 @@
+package org.pancakelab.service;
+
+import org.pancakelab.exception.OrderNotFoundException;
+import org.pancakelab.model.orders.Order;
+import org.pancakelab.model.orders.OrderAggregate;
+import org.pancakelab.model.orders.OrderFactory;
+import org.pancakelab.model.orders.OrderState;
+import org.pancakelab.model.pancakes.PancakeRecipe;
+
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Lock-free alternative to {@link PancakeService}.
+ * Each order's state and pancakes live in one immutable {@link OrderAggregate} held by an AtomicReference,
+ * and every mutation is a compare-and-set retry loop, so threads never block each other and no lock
+ * has to be created or cleaned up per order. A removed order has its reference cleared to null,
+ * which makes concurrent mutations of it fail with an OrderNotFoundException.
+ * Events are logged after the mutation has been applied.
+ */
+public class LockFreePancakeService {
+    private final OrderFactory orderFactory;
+    private final OrderLogger orderLogger;
+    private final ConcurrentMap<UUID, AtomicReference<OrderAggregate>> orders = new ConcurrentHashMap<>();
+
+    public LockFreePancakeService(OrderFactory orderFactory, OrderLogger orderLogger) {
+        this.orderFactory = orderFactory;
+        this.orderLogger = orderLogger;
+    }
+
+    public Order createOrder(int building, int room) {
+        Order order = orderFactory.createOrder(building, room);
+        orders.put(order.getId(), new AtomicReference<>(OrderAggregate.created(order)));
+        return order;
+    }
+
+    /**
+     * Adds a pancake to the specified order.
+     *
+     * @param orderId the ID of the order to which the pancake will be added
+     * @param pancake the pancake recipe to be added
+     * @param count   the number of pancakes to add
+     */
+    public void addPancake(UUID orderId, PancakeRecipe pancake, int count) {
+        var reference = findReference(orderId);
+        OrderAggregate current;
+        OrderAggregate updated;
+        do {
+            current = reference.get();
+            if (current == null) throw new OrderNotFoundException(orderId);
+            updated = current.withPancakesAdded(pancake, count);
+        } while (current != updated && !reference.compareAndSet(current, updated));
+
+        String description = pancake.description();
+        for (int i = 1; i <= count; ++i) {
+            orderLogger.logAddPancake(updated.getOrder(), description, current.getPancakesCount() + i);
+        }
+    }
+
+    /**
+     * Adds several pancakes to the specified order with a single compare-and-set.
+     *
+     * @param orderId  the ID of the order to which the pancakes will be added
+     * @param pancakes the number of pancakes to add per recipe, non-positive counts are ignored
+     */
+    public void addPancakes(UUID orderId, Map<PancakeRecipe, Integer> pancakes) {
+        Map<PancakeRecipe, Integer> pancakesToAdd = new LinkedHashMap<>();
+        pancakes.forEach((pancake, count) -> {
+            if (count > 0) {
+                pancakesToAdd.put(pancake, count);
+            }
+        });
+
+        var reference = findReference(orderId);
+        OrderAggregate current;
+        OrderAggregate updated;
+        do {
+            current = reference.get();
+            if (current == null) throw new OrderNotFoundException(orderId);
+            updated = current;
+            for (var entry : pancakesToAdd.entrySet()) {
+                updated = updated.withPancakesAdded(entry.getKey(), entry.getValue());
+            }
+        } while (current != updated && !reference.compareAndSet(current, updated));
+
+        if (!pancakesToAdd.isEmpty()) {
+            orderLogger.logAddPancakes(updated.getOrder(), pancakesToAdd, updated.getPancakesCount());
+        }
+    }
+
+    public List<String> viewOrder(UUID orderId) {
+        var reference = orders.get(orderId);
+        OrderAggregate aggregate = reference == null ? null : reference.get();
+        return aggregate == null ? List.of() : aggregate.pancakeDescriptions();
+    }
+
+    public void removePancakes(String description, UUID orderId, int count) {
+        var reference = findReference(orderId);
+        OrderAggregate current;
+        OrderAggregate updated;
+        do {
+            current = reference.get();
+            if (current == null) throw new OrderNotFoundException(orderId);
+            updated = current.withPancakesRemoved(description, count);
+        } while (current != updated && !reference.compareAndSet(current, updated));
+
+        int removedCount = current.getPancakesCount() - updated.getPancakesCount();
+        orderLogger.logRemovePancakes(updated.getOrder(), description, updated.getPancakesCount(), removedCount);
+    }
+
+    public void cancelOrder(UUID orderId) {
+        OrderAggregate removed = remove(orderId, null);
+        if (removed == null) throw new OrderNotFoundException(orderId);
+        orderLogger.logCancelOrder(removed.getOrder(), removed.getPancakesCount());
+    }
+
+    public void completeOrder(UUID orderId) {
+        updateState(orderId, OrderState.COMPLETED);
+    }
+
+    public Set<UUID> listCompletedOrders() {
+        return getOrderIdsByState(OrderState.COMPLETED);
+    }
+
+    public void prepareOrder(UUID orderId) {
+        updateState(orderId, OrderState.PREPARED);
+    }
+
+    public Set<UUID> listPreparedOrders() {
+        return getOrderIdsByState(OrderState.PREPARED);
+    }
+
+    public Object[] deliverOrder(UUID orderId) {
+        OrderAggregate delivered = remove(orderId, OrderState.PREPARED);
+        if (delivered == null) return null;
+
+        orderLogger.logDeliverOrder(delivered.getOrder(), delivered.getPancakesCount());
+        return new Object[]{delivered.getOrder(), delivered.pancakeDescriptions()};
+    }
+
+    private void updateState(UUID orderId, OrderState state) {
+        var reference = findReference(orderId);
+        OrderAggregate current;
+        do {
+            current = reference.get();
+            if (current == null) throw new OrderNotFoundException(orderId);
+        } while (current.getState() != state && !reference.compareAndSet(current, current.withState(state)));
+    }
+
+    /**
+     * Clears the reference of an order and removes it from the map.
+     *
+     * @param orderId       the ID of the order to remove
+     * @param expectedState the state the order must be in, or null to remove it in any state
+     * @return the removed aggregate, or null if the order does not exist or is in another state
+     */
+    private OrderAggregate remove(UUID orderId, OrderState expectedState) {
+        var reference = orders.get(orderId);
+        if (reference == null) return null;
+
+        OrderAggregate current;
+        do {
+            current = reference.get();
+            if (current == null || (expectedState != null && current.getState() != expectedState)) return null;
+        } while (!reference.compareAndSet(current, null));
+
+        orders.remove(orderId, reference);
+        return current;
+    }
+
+    private AtomicReference<OrderAggregate> findReference(UUID orderId) {
+        var reference = orders.get(orderId);
+        if (reference == null) throw new OrderNotFoundException(orderId);
+        return reference;
+    }
+
+    private Set<UUID> getOrderIdsByState(OrderState state) {
+        Set<UUID> orderIds = new HashSet<>();
+        for (var entry : orders.entrySet()) {
+            OrderAggregate aggregate = entry.getValue().get();
+            if (aggregate != null && aggregate.getState() == state) {
+                orderIds.add(entry.getKey());
+            }
+        }
+        return orderIds;
+    }
+}
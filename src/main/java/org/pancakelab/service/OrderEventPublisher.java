@@ -0,0 +1,24 @@
+package org.pancakelab.service;
+
+import org.pancakelab.model.orders.OrderEvent;
+
+import java.util.concurrent.Flow;
+
+/**
+ * Publishes order lifecycle events to subscribers, so they can follow changes instead of polling the order lists.
+ * Publishing must never block the caller, which holds the lock of the changed order.
+ */
+public interface OrderEventPublisher extends Flow.Publisher<OrderEvent> {
+    /**
+     * Hands an event to all current subscribers without waiting for them.
+     *
+     * @param event the event to publish
+     */
+    void publish(OrderEvent event);
+
+    /**
+     * @return true if at least one subscriber would receive a published event,
+     * callers may skip building events otherwise
+     */
+    boolean hasSubscribers();
+}
@@ -0,0 +1,62 @@
+package org.pancakelab.service;
+
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Calls {@link PancakeService#expireOrders()} periodically on a daemon thread until it is closed.
+ * A failed run does not stop the schedule. Failures are counted here and, while the metrics of the service
+ * are enabled, as failed calls of {@link org.pancakelab.service.metrics.PancakeServiceMetrics.Operation#EXPIRE_ORDERS}.
+ */
+public class OrderExpiryScheduler implements AutoCloseable {
+    private final ScheduledExecutorService executor;
+    private final AtomicLong failureCount = new AtomicLong();
+    private volatile RuntimeException lastFailure;
+
+    /**
+     * @param pancakeService the service whose abandoned orders expire
+     * @param period         the time between two runs, usually the tick of the expiry tracker
+     */
+    public OrderExpiryScheduler(PancakeService pancakeService, Duration period) {
+        if (period.isNegative() || period.isZero()) {
+            throw new IllegalArgumentException("Period must be positive.");
+        }
+        this.executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "order-expiry");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long periodMillis = Math.max(1, period.toMillis());
+        executor.scheduleWithFixedDelay(() -> {
+            try {
+                pancakeService.expireOrders();
+            } catch (RuntimeException e) {
+                // rethrowing would cancel all further runs
+                lastFailure = e;
+                failureCount.incrementAndGet();
+            }
+        }, periodMillis, periodMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * @return the number of runs that failed
+     */
+    public long getFailureCount() {
+        return failureCount.get();
+    }
+
+    /**
+     * @return the exception of the latest failed run, or null if no run failed
+     */
+    public RuntimeException getLastFailure() {
+        return lastFailure;
+    }
+
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+}
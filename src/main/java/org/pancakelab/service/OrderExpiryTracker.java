@@ -0,0 +1,58 @@
+package org.pancakelab.service;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Tracks when orders that are still being put together were last touched, so that abandoned orders can expire.
+ * The service tracks an order when it is created, touches it whenever its pancakes change and untracks it
+ * once it is completed, prepared or removed. Touching and untracking happen while the order is locked.
+ */
+public interface OrderExpiryTracker {
+    /**
+     * Starts tracking a new order, as touched now.
+     */
+    void track(UUID orderId);
+
+    /**
+     * Starts tracking existing orders, as touched now, e.g. the created orders recovered from durable stores
+     * when the service starts.
+     */
+    default void trackAll(Collection<UUID> orderIds) {
+        for (UUID orderId : orderIds) {
+            track(orderId);
+        }
+    }
+
+    /**
+     * Records that the order was changed now. Called on every change, so it must be cheap.
+     */
+    void touch(UUID orderId);
+
+    /**
+     * Stops tracking the order, does nothing if it is not tracked.
+     */
+    void untrack(UUID orderId);
+
+    /**
+     * @return the tracked orders that were idle longer than the time to live when last checked,
+     * each has to be confirmed with {@link #expireIfIdle(UUID)} while the order is locked
+     */
+    List<UUID> pollIdle();
+
+    /**
+     * Stops tracking the order if it is still idle longer than the time to live,
+     * otherwise schedules it again for when it would be idle.
+     *
+     * @return true if the order expired
+     */
+    boolean expireIfIdle(UUID orderId);
+
+    /**
+     * Schedules a polled order to be polled again at the next tick, e.g. when expiring it failed,
+     * so it is not left tracked but never polled. An order that {@link #expireIfIdle(UUID)} already stopped
+     * tracking is tracked again, as idle since its time to live elapsed.
+     */
+    void reschedule(UUID orderId);
+}
@@ -0,0 +1,52 @@
+package org.pancakelab.service;
+
+import java.util.UUID;
+import java.util.concurrent.locks.Lock;
+
+/**
+ * Provides the locks that serialize mutations of an order.
+ * Implementations may share a lock between several orders, so callers must never hold the lock
+ * of one order while acquiring the lock of another, and must not rely on locks being reentrant.
+ */
+public interface OrderLockManager {
+    /**
+     * @param orderId the ID of the order to mutate
+     * @return the lock that has to be held while mutating the order
+     */
+    Lock writeLock(UUID orderId);
+
+    /**
+     * @param orderId the ID of the order to read
+     * @return a lock that excludes mutations of the order while held, the write lock unless reads can be shared
+     */
+    default Lock readLock(UUID orderId) {
+        return writeLock(orderId);
+    }
+
+    /**
+     * Starts a read that does not block writers, to be checked with {@link #validate(UUID, long)} afterwards.
+     *
+     * @param orderId the ID of the order to read
+     * @return a stamp, or 0 if optimistic reads are not supported or the order is being mutated
+     */
+    default long tryOptimisticRead(UUID orderId) {
+        return 0;
+    }
+
+    /**
+     * @param orderId the ID of the order that was read
+     * @param stamp   the stamp returned by {@link #tryOptimisticRead(UUID)}
+     * @return true if the order was not mutated since the stamp was issued
+     */
+    default boolean validate(UUID orderId, long stamp) {
+        return false;
+    }
+
+    /**
+     * Called once an order is gone, implementations holding a lock per order can drop it.
+     *
+     * @param orderId the ID of the cancelled or delivered order
+     */
+    default void release(UUID orderId) {
+    }
+}
@@ -1,6 +1,9 @@
 package org.pancakelab.service;
 
 import org.pancakelab.model.orders.Order;
+import org.pancakelab.model.pancakes.PancakeRecipe;
+
+import java.util.Map;
 
 /**
  * Interface for logging order-related events.
@@ -16,6 +19,15 @@ public interface OrderLogger {
      */
     void logAddPancake(Order order, String description, int pancakeCount);
 
+    /**
+     * Logs the addition of several pancakes to an order in one batch.
+     *
+     * @param order        the order to which the pancakes are added
+     * @param pancakes     the number of pancakes added per recipe
+     * @param pancakeCount the total number of pancakes in the order after addition
+     */
+    void logAddPancakes(Order order, Map<PancakeRecipe, Integer> pancakes, int pancakeCount);
+
     /**
      * Logs the removal of pancakes from an order.
      *
@@ -41,4 +53,19 @@ public interface OrderLogger {
      * @param pancakesInOrder the total number of pancakes in the order at the time of delivery
      */
     void logDeliverOrder(Order order, int pancakesInOrder);
+
+    /**
+     * Logs the expiry of an order that was abandoned before it was completed.
+     *
+     * @param order           the order that expired
+     * @param pancakesInOrder the total number of pancakes in the order at the time of expiry
+     */
+    void logExpireOrder(Order order, int pancakesInOrder);
+
+    /**
+     * @return the number of events waiting to be written, 0 for loggers that write synchronously
+     */
+    default int getQueueDepth() {
+        return 0;
+    }
 }
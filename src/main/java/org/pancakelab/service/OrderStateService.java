@@ -2,6 +2,8 @@ package org.pancakelab.service;
 
 import org.pancakelab.model.orders.OrderState;
 
+import java.util.Collection;
+import java.util.Collections;
 import java.util.Set;
 import java.util.UUID;
 
@@ -27,6 +29,19 @@ public interface OrderStateService {
      */
     void update(UUID orderId, OrderState state);
 
+    /**
+     * Sets many orders to the same state, e.g. after a bulk import.
+     * Implementations may update them in fewer, larger steps.
+     *
+     * @param orderIds the IDs of the orders
+     * @param state    the new state of the orders
+     */
+    default void updateAll(Collection<UUID> orderIds, OrderState state) {
+        for (UUID orderId : orderIds) {
+            update(orderId, state);
+        }
+    }
+
     /**
      * Removes an order from the cache.
      *
@@ -41,4 +56,27 @@ public interface OrderStateService {
      * @return a set of order IDs that match the specified state
      */
     Set<UUID> getOrderIdsByState(OrderState state);
+
+    /**
+     * Retrieves a read-only view of the order IDs that are in a specific state.
+     * Unlike {@link #getOrderIdsByState(OrderState)} the result may reflect later state changes,
+     * implementations without an index return a snapshot.
+     *
+     * @param state the state to filter orders by
+     * @return a read-only set of order IDs that match the specified state
+     */
+    default Set<UUID> viewOrderIdsByState(OrderState state) {
+        return Collections.unmodifiableSet(getOrderIdsByState(state));
+    }
+
+    /**
+     * Counts the orders in a specific state. Safe to call from any thread, e.g. to export a gauge,
+     * and cheap in implementations that keep counters; the default counts a snapshot of the order IDs.
+     *
+     * @param state the state to count orders of
+     * @return the number of orders in the state
+     */
+    default int countByState(OrderState state) {
+        return getOrderIdsByState(state).size();
+    }
 }
@@ -1,35 +1,96 @@
 package org.pancakelab.service;
 
 import org.pancakelab.exception.OrderNotFoundException;
+import org.pancakelab.exception.ValidationException;
+import org.pancakelab.model.orders.BulkOrderResult;
+import org.pancakelab.model.orders.DeliveredOrder;
 import org.pancakelab.model.orders.Order;
+import org.pancakelab.model.orders.OrderEvent;
 import org.pancakelab.model.orders.OrderFactory;
+import org.pancakelab.model.orders.OrderRequest;
 import org.pancakelab.model.orders.OrderState;
+import org.pancakelab.model.pancakes.DefaultPancakeFactory;
 import org.pancakelab.model.pancakes.Ingredient;
 import org.pancakelab.model.pancakes.PancakeFactory;
+import org.pancakelab.model.pancakes.PancakeMenu;
 import org.pancakelab.model.pancakes.PancakeRecipe;
 import org.pancakelab.repository.OrderRepository;
 import org.pancakelab.repository.PancakeRepository;
+import org.pancakelab.repository.impl.InMemoryOrderRepository;
+import org.pancakelab.repository.impl.InMemoryPancakeRepository;
+import org.pancakelab.service.impl.InMemoryOrderStateService;
+import org.pancakelab.service.impl.NoLogOrderLogger;
+import org.pancakelab.service.impl.NoDurabilityBarrier;
+import org.pancakelab.service.impl.NoOrderEventPublisher;
+import org.pancakelab.service.impl.NoOrderExpiryTracker;
+import org.pancakelab.service.impl.StripedStampedLockManager;
+import org.pancakelab.service.metrics.PancakeServiceMetrics;
+import org.pancakelab.service.metrics.PancakeServiceMetrics.Operation;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Queue;
 import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.locks.Lock;
-import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.IntSupplier;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
 
 /**
  * Service class for managing pancake orders.
  * This class provides methods to create, modify, and manage pancake orders,
  * including adding pancakes, viewing orders, and changing order states.
+ * Prepared orders are queued for dispatch in the order they were prepared, see {@link #drainForDelivery(int)},
+ * and indexed by building for courier runs, see {@link #deliveryPlanner()}.
+ * Mutations of an order are serialized by the lock its ID maps to in the {@link OrderLockManager}.
+ * Every change is published as an {@link OrderEvent} to the subscribers of {@link #orderEvents()}.
+ * Calls, lock wait and hold times and order sizes are recorded in the {@link #metrics()} while they are enabled.
+ * Created orders whose pancakes are not changed within the time to live of the {@link OrderExpiryTracker}
+ * are removed by {@link #expireOrders()}. The orders that are already created when the service is constructed,
+ * e.g. recovered from durable stores, are tracked from then on.
+ * Pancakes can also be referred to by the recipe IDs of the {@link #menu()}.
+ * Services with collaborators beyond the stores and factories are created with a {@link Builder}.
+ * The store mutations of each operation are grouped by the {@link DurabilityBarrier}, so durable stores
+ * wait for durability once per operation.
  */
 public class PancakeService {
+    private static final int MAX_OPTIMISTIC_READS = 3;
+    private static final int MIN_STALE_DISPATCH_ENTRIES = 1024;
+
+    /**
+     * A prepared order in the dispatch queue, current while its sequence is the one recorded for the order.
+     */
+    private record DispatchEntry(UUID orderId, long sequence) {
+    }
+
     private final OrderRepository orderRepository;
     private final OrderFactory orderFactory;
     private final OrderLogger orderLogger;
     private final OrderStateService orderStateService;
     private final PancakeRepository pancakeRepository;
     private final PancakeFactory pancakeFactory;
+    private final PancakeMenu pancakeMenu;
+    private final OrderEventPublisher orderEventPublisher;
+    private final OrderLockManager orderLockManager;
+    private final PancakeServiceMetrics metrics;
+    private final OrderExpiryTracker orderExpiryTracker;
+    private final DurabilityBarrier durabilityBarrier;
+    // prepared orders in the order they were prepared; entries of orders that left the prepared state are skipped
+    // when polled and purged once they outnumber the prepared orders
+    private final Queue<DispatchEntry> dispatchQueue = new ConcurrentLinkedQueue<>();
+    private final Map<UUID, Long> dispatchSequences = new ConcurrentHashMap<>();
+    private final AtomicLong nextDispatchSequence = new AtomicLong();
+    private final AtomicInteger staleDispatchEntries = new AtomicInteger();
+    private final DeliveryPlanner deliveryPlanner = new DeliveryPlanner();
 
     public PancakeService(
             OrderRepository orderRepository,
@@ -39,36 +100,149 @@ public class PancakeService {
             PancakeRepository pancakeRepository,
             PancakeFactory pancakeFactory
     ) {
-        this.orderRepository = orderRepository;
-        this.orderFactory = orderFactory;
-        this.orderLogger = orderLogger;
-        this.orderStateService = orderStateService;
-        this.pancakeRepository = pancakeRepository;
-        this.pancakeFactory = pancakeFactory;
+        this(new Builder()
+                .withOrderRepository(orderRepository)
+                .withOrderFactory(orderFactory)
+                .withOrderLogger(orderLogger)
+                .withOrderStateService(orderStateService)
+                .withPancakeRepository(pancakeRepository)
+                .withPancakeFactory(pancakeFactory));
     }
 
-    private final Map<UUID, Lock> orderLocks = new ConcurrentHashMap<>();
-
-    private Lock getOrderLock(UUID orderId) {
-        return orderLocks.computeIfAbsent(orderId, id -> new ReentrantLock());
+    private PancakeService(Builder builder) {
+        this.orderRepository = builder.orderRepository;
+        this.orderFactory = builder.orderFactory;
+        this.orderLogger = builder.orderLogger;
+        this.orderStateService = builder.orderStateService;
+        this.pancakeRepository = builder.pancakeRepository;
+        this.pancakeFactory = builder.pancakeFactory;
+        this.pancakeMenu = pancakeFactory instanceof PancakeMenu menu ? menu : new PancakeMenu(pancakeFactory);
+        this.orderEventPublisher = builder.orderEventPublisher;
+        this.orderLockManager = builder.orderLockManager;
+        this.metrics = builder.metrics;
+        this.orderExpiryTracker = builder.orderExpiryTracker;
+        this.durabilityBarrier = builder.durabilityBarrier;
+        orderExpiryTracker.trackAll(orderStateService.getOrderIdsByState(OrderState.CREATED));
+        for (OrderState state : OrderState.values()) {
+            metrics.registerGauge("Orders" + state.name().charAt(0) + state.name().substring(1).toLowerCase(),
+                    () -> orderStateService.countByState(state));
+        }
+        metrics.registerGauge("LoggerQueueDepth", orderLogger::getQueueDepth);
     }
 
     public Order createOrder(int building, int room) {
-        Order order = orderFactory.createOrder(building, room);
-        orderRepository.save(order);
-        orderStateService.update(order.getId(), OrderState.CREATED);
+        return timed(Operation.CREATE_ORDER, () -> saveOrder(orderFactory.createOrder(building, room)));
+    }
+
+    /**
+     * Stores an order that was already created and validated, e.g. by a facade that routes orders by ID.
+     */
+    Order createOrder(Order order) {
+        return timed(Operation.CREATE_ORDER, () -> saveOrder(order));
+    }
+
+    /**
+     * Creates many orders at once, e.g. to preload the orders of an event day.
+     * All rows are validated in one pass before any order is created, invalid rows are reported
+     * instead of failing the batch, and the created orders are stored with batched writes.
+     *
+     * @param requests the buildings and rooms of the orders to create
+     * @return the created orders in the order of the requests, and the rejected rows
+     */
+    public BulkOrderResult createOrders(Collection<OrderRequest> requests) {
+        return timed(Operation.CREATE_ORDERS, () -> {
+            int[] buildings = new int[requests.size()];
+            int[] rooms = new int[requests.size()];
+            int row = 0;
+            for (OrderRequest request : requests) {
+                buildings[row] = request.building();
+                rooms[row] = request.room();
+                row++;
+            }
+            BulkOrderResult result = orderFactory.createOrders(buildings, rooms);
+            saveOrders(result.orders());
+            return result;
+        });
+    }
+
+    /**
+     * Creates many orders at once, see {@link #createOrders(Collection)}. The stream is consumed before
+     * the first order is created.
+     */
+    public BulkOrderResult createOrders(Stream<OrderRequest> requests) {
+        return createOrders(requests.toList());
+    }
+
+    /**
+     * Stores orders that were already created and validated, e.g. by a facade that routes orders by ID.
+     */
+    void createOrders(List<Order> orders) {
+        timed(Operation.CREATE_ORDERS, () -> {
+            saveOrders(orders);
+            return null;
+        });
+    }
+
+    private void saveOrders(List<Order> orders) {
+        if (orders.isEmpty()) return;
+        List<UUID> orderIds = new ArrayList<>(orders.size());
+        for (Order order : orders) {
+            orderIds.add(order.getId());
+        }
+        durably(() -> {
+            orderRepository.saveAll(orders);
+            orderStateService.updateAll(orderIds, OrderState.CREATED);
+        });
+        for (UUID orderId : orderIds) {
+            orderExpiryTracker.track(orderId);
+        }
+        if (orderEventPublisher.hasSubscribers()) {
+            for (Order order : orders) {
+                publish(OrderEvent.Type.CREATED, order, null, 0, 0);
+            }
+        }
+    }
+
+    private Order saveOrder(Order order) {
+        durably(() -> {
+            orderRepository.save(order);
+            orderStateService.update(order.getId(), OrderState.CREATED);
+        });
+        orderExpiryTracker.track(order.getId());
+        publish(OrderEvent.Type.CREATED, order, null, 0, 0);
         return order;
     }
 
+    /**
+     * @return the metrics of this service, disabled unless enabled at construction or at runtime
+     */
+    public PancakeServiceMetrics metrics() {
+        return metrics;
+    }
+
+    /**
+     * @return the menu whose recipe IDs this service accepts, the pancake factory itself if it is a menu,
+     * otherwise every combination of ingredients
+     */
+    public PancakeMenu menu() {
+        return pancakeMenu;
+    }
+
+    /**
+     * @return the feed of order lifecycle events, a subscriber only receives events published after it subscribed
+     */
+    public Flow.Publisher<OrderEvent> orderEvents() {
+        return orderEventPublisher;
+    }
+
     @Deprecated
     // This method is deprecated and will be removed in future versions.
     // Use addPancake instead.
     public void addDarkChocolatePancake(UUID orderId, int count) {
-        withOrderLock(orderId, () -> {
+        withOrderLock(Operation.ADD_PANCAKE, orderId, () -> {
             Order order = orderRepository.findById(orderId).orElseThrow(() -> new OrderNotFoundException(orderId));
-            for (int i = 0; i < count; ++i) {
-                addPancake(pancakeFactory.createRecipe(List.of(Ingredient.DARK_CHOCOLATE)), order);
-            }
+            PancakeRecipe pancake = pancakeFactory.createRecipe(List.of(Ingredient.DARK_CHOCOLATE));
+            addPancakes(pancake, order, count);
         });
     }
 
@@ -76,11 +250,10 @@ public class PancakeService {
     // This method is deprecated and will be removed in future versions.
     // Use addPancake instead.
     public void addDarkChocolateWhippedCreamPancake(UUID orderId, int count) {
-        withOrderLock(orderId, () -> {
+        withOrderLock(Operation.ADD_PANCAKE, orderId, () -> {
             Order order = orderRepository.findById(orderId).orElseThrow(() -> new OrderNotFoundException(orderId));
-            for (int i = 0; i < count; ++i) {
-                addPancake(pancakeFactory.createRecipe(List.of(Ingredient.DARK_CHOCOLATE, Ingredient.WHIPPED_CREAM)), order);
-            }
+            PancakeRecipe pancake = pancakeFactory.createRecipe(List.of(Ingredient.DARK_CHOCOLATE, Ingredient.WHIPPED_CREAM));
+            addPancakes(pancake, order, count);
         });
     }
 
@@ -88,11 +261,10 @@ public class PancakeService {
     // This method is deprecated and will be removed in future versions.
     // Use addPancake instead.
     public void addDarkChocolateWhippedCreamHazelnutsPancake(UUID orderId, int count) {
-        withOrderLock(orderId, () -> {
+        withOrderLock(Operation.ADD_PANCAKE, orderId, () -> {
             Order order = orderRepository.findById(orderId).orElseThrow(() -> new OrderNotFoundException(orderId));
-            for (int i = 0; i < count; ++i) {
-                addPancake(pancakeFactory.createRecipe(List.of(Ingredient.DARK_CHOCOLATE, Ingredient.WHIPPED_CREAM, Ingredient.HAZELNUTS)), order);
-            }
+            PancakeRecipe pancake = pancakeFactory.createRecipe(List.of(Ingredient.DARK_CHOCOLATE, Ingredient.WHIPPED_CREAM, Ingredient.HAZELNUTS));
+            addPancakes(pancake, order, count);
         });
     }
 
@@ -100,11 +272,10 @@ public class PancakeService {
     // This method is deprecated and will be removed in future versions.
     // Use addPancake instead.
     public void addMilkChocolatePancake(UUID orderId, int count) {
-        withOrderLock(orderId, () -> {
+        withOrderLock(Operation.ADD_PANCAKE, orderId, () -> {
             Order order = orderRepository.findById(orderId).orElseThrow(() -> new OrderNotFoundException(orderId));
-            for (int i = 0; i < count; ++i) {
-                addPancake(pancakeFactory.createRecipe(List.of(Ingredient.MILK_CHOCOLATE)), order);
-            }
+            PancakeRecipe pancake = pancakeFactory.createRecipe(List.of(Ingredient.MILK_CHOCOLATE));
+            addPancakes(pancake, order, count);
         });
     }
 
@@ -112,11 +283,10 @@ public class PancakeService {
     // This method is deprecated and will be removed in future versions.
     // Use addPancake instead.
     public void addMilkChocolateHazelnutsPancake(UUID orderId, int count) {
-        withOrderLock(orderId, () -> {
+        withOrderLock(Operation.ADD_PANCAKE, orderId, () -> {
             Order order = orderRepository.findById(orderId).orElseThrow(() -> new OrderNotFoundException(orderId));
-            for (int i = 0; i < count; ++i) {
-                addPancake(pancakeFactory.createRecipe(List.of(Ingredient.MILK_CHOCOLATE, Ingredient.HAZELNUTS)), order);
-            }
+            PancakeRecipe pancake = pancakeFactory.createRecipe(List.of(Ingredient.MILK_CHOCOLATE, Ingredient.HAZELNUTS));
+            addPancakes(pancake, order, count);
         });
     }
 
@@ -128,91 +298,513 @@ public class PancakeService {
      * @param count   the number of pancakes to add
      */
     public void addPancake(UUID orderId, PancakeRecipe pancake, int count) {
-        withOrderLock(orderId, () -> {
+        withOrderLock(Operation.ADD_PANCAKE, orderId, () -> {
             Order order = orderRepository.findById(orderId).orElseThrow(() -> new OrderNotFoundException(orderId));
-            for (int i = 0; i < count; ++i) {
-                addPancake(pancake, order);
+            addPancakes(pancake, order, count);
+        });
+    }
+
+    /**
+     * Adds pancakes of a recipe on the {@link #menu()} to the specified order.
+     *
+     * @param orderId  the ID of the order to which the pancakes will be added
+     * @param recipeId the ID of the recipe on the menu
+     * @param count    the number of pancakes to add
+     * @throws ValidationException if the recipe is not on the menu
+     */
+    public void addPancake(UUID orderId, int recipeId, int count) {
+        addPancake(orderId, pancakeMenu.recipe(recipeId), count);
+    }
+
+    /**
+     * Adds several pancakes to the specified order in one batch, e.g. a whole cart.
+     * The order is looked up and locked once, and a single event is logged for the whole batch.
+     *
+     * @param orderId  the ID of the order to which the pancakes will be added
+     * @param pancakes the number of pancakes to add per recipe, non-positive counts are ignored
+     */
+    public void addPancakes(UUID orderId, Map<PancakeRecipe, Integer> pancakes) {
+        Map<PancakeRecipe, Integer> pancakesToAdd = new LinkedHashMap<>();
+        pancakes.forEach((pancake, count) -> {
+            if (count > 0) {
+                pancakesToAdd.put(pancake, count);
+            }
+        });
+
+        withOrderLock(Operation.ADD_PANCAKES, orderId, () -> {
+            Order order = orderRepository.findById(orderId).orElseThrow(() -> new OrderNotFoundException(orderId));
+            if (pancakesToAdd.isEmpty()) return;
+            int pancakeCount = pancakeRepository.addPancakes(orderId, pancakesToAdd);
+            orderLogger.logAddPancakes(order, pancakesToAdd, pancakeCount);
+            orderExpiryTracker.touch(orderId);
+            if (orderEventPublisher.hasSubscribers()) {
+                int pancakesInOrder = pancakeCount;
+                for (int count : pancakesToAdd.values()) {
+                    pancakesInOrder -= count;
+                }
+                for (var entry : pancakesToAdd.entrySet()) {
+                    pancakesInOrder += entry.getValue();
+                    publish(OrderEvent.Type.PANCAKES_ADDED, order, entry.getKey().description(), entry.getValue(), pancakesInOrder);
+                }
             }
         });
     }
 
+    /**
+     * Returns the pancakes of the order as of one point in time, never a half-applied mutation.
+     * The pancakes are read optimistically and the read is retried if the order was mutated meanwhile,
+     * so readers do not block writers. Only if the order keeps changing, or the lock manager does not
+     * support optimistic reads, the read lock of the order is taken.
+     *
+     * @param orderId the ID of the order
+     * @return the descriptions of the pancakes in the order, empty if the order does not exist
+     */
     public List<String> viewOrder(UUID orderId) {
-        return pancakeRepository.viewOrderPancakes(orderId);
+        return timed(Operation.VIEW_ORDER, () -> readOrderPancakes(orderId));
+    }
+
+    private List<String> readOrderPancakes(UUID orderId) {
+        for (int attempt = 0; attempt < MAX_OPTIMISTIC_READS; attempt++) {
+            long stamp = orderLockManager.tryOptimisticRead(orderId);
+            if (stamp == 0) break;
+            List<String> pancakes = pancakeRepository.viewOrderPancakes(orderId);
+            if (orderLockManager.validate(orderId, stamp)) return pancakes;
+        }
+
+        long start = metrics.startTimer();
+        final Lock lock = orderLockManager.readLock(orderId);
+        lock.lock();
+        long acquired = metrics.recordLockAcquired(start);
+        try {
+            return pancakeRepository.viewOrderPancakes(orderId);
+        } finally {
+            lock.unlock();
+            metrics.recordLockReleased(acquired);
+        }
     }
 
-    private void addPancake(PancakeRecipe pancake, Order order) {
-        int pancakeCount = pancakeRepository.addPancake(order.getId(), pancake);
-        orderLogger.logAddPancake(order, pancake.description(), pancakeCount);
+    private void addPancakes(PancakeRecipe pancake, Order order, int count) {
+        int pancakeCount = 0;
+        for (int i = 0; i < count; ++i) {
+            pancakeCount = pancakeRepository.addPancake(order.getId(), pancake);
+            orderLogger.logAddPancake(order, pancake.description(), pancakeCount);
+        }
+        if (count > 0) {
+            orderExpiryTracker.touch(order.getId());
+            publish(OrderEvent.Type.PANCAKES_ADDED, order, pancake.description(), count, pancakeCount);
+        }
     }
 
     public void removePancakes(String description, UUID orderId, int count) {
-        withOrderLock(orderId, () -> {
-            int removedCount = pancakeRepository.removePancakes(orderId, description, count);
+        removePancakes(orderId, description, () -> pancakeRepository.removePancakes(orderId, description, count));
+    }
+
+    /**
+     * Removes pancakes of a recipe on the {@link #menu()} from the specified order.
+     * The repository matches the recipe itself, and the description is only used for logging.
+     *
+     * @param recipeId the ID of the recipe on the menu
+     * @param orderId  the ID of the order
+     * @param count    the number of pancakes to remove
+     * @throws ValidationException if the recipe is not on the menu
+     */
+    public void removePancakes(int recipeId, UUID orderId, int count) {
+        PancakeRecipe recipe = pancakeMenu.recipe(recipeId);
+        removePancakes(orderId, recipe.description(), () -> pancakeRepository.removePancakes(orderId, recipe, count));
+    }
+
+    private void removePancakes(UUID orderId, String description, IntSupplier remover) {
+        withOrderLock(Operation.REMOVE_PANCAKES, orderId, () -> {
+            int removedCount = remover.getAsInt();
             Order order = orderRepository.findById(orderId).orElseThrow(() -> new OrderNotFoundException(orderId));
-            orderLogger.logRemovePancakes(order, description, pancakeRepository.getPancakesCount(order.getId()), removedCount);
+            int pancakeCount = pancakeRepository.getPancakesCount(order.getId());
+            orderLogger.logRemovePancakes(order, description, pancakeCount, removedCount);
+            orderExpiryTracker.touch(orderId);
+            if (removedCount > 0) {
+                publish(OrderEvent.Type.PANCAKES_REMOVED, order, description, removedCount, pancakeCount);
+            }
         });
     }
 
     public void cancelOrder(UUID orderId) {
-        withOrderLock(orderId, () -> {
+        withOrderLock(Operation.CANCEL_ORDER, orderId, () -> {
             Order order = orderRepository.findById(orderId).orElseThrow(() -> new OrderNotFoundException(orderId));
-            orderLogger.logCancelOrder(order, pancakeRepository.getPancakesCount(order.getId()));
-            pancakeRepository.remove(orderId);
-            orderRepository.deleteById(orderId);
-            orderStateService.remove(orderId);
+            int pancakeCount = pancakeRepository.getPancakesCount(order.getId());
+            orderLogger.logCancelOrder(order, pancakeCount);
+            removeOrder(order, pancakeCount);
+            publish(OrderEvent.Type.CANCELLED, order, null, 0, pancakeCount);
+        });
+        orderLockManager.release(orderId);
+    }
+
+    /**
+     * Removes the created orders whose pancakes were not changed within the time to live of the expiry tracker,
+     * the same way as {@link #cancelOrder(UUID)} but logged as expired. Completed orders never expire.
+     * Call it periodically, e.g. once per tick of the tracker.
+     *
+     * @return the number of expired orders
+     */
+    public int expireOrders() {
+        return timed(Operation.EXPIRE_ORDERS, () -> {
+            int expired = 0;
+            RuntimeException failure = null;
+            for (UUID orderId : orderExpiryTracker.pollIdle()) {
+                // the polled orders are only scheduled again when confirmed, so one failure must not skip the rest
+                try {
+                    if (expire(orderId)) {
+                        expired++;
+                    }
+                } catch (RuntimeException e) {
+                    orderExpiryTracker.reschedule(orderId);
+                    if (failure == null) {
+                        failure = e;
+                    } else {
+                        failure.addSuppressed(e);
+                    }
+                }
+            }
+            if (failure != null) throw failure;
+            return expired;
         });
-        removeOrderLock(orderId);
+    }
+
+    private boolean expire(UUID orderId) {
+        final Lock lock = orderLockManager.writeLock(orderId);
+        lock.lock();
+        try {
+            Order order = orderRepository.findById(orderId).orElse(null);
+            if (order == null || orderStateService.get(orderId) != OrderState.CREATED) {
+                orderExpiryTracker.untrack(orderId);
+                return false;
+            }
+            if (!orderExpiryTracker.expireIfIdle(orderId)) return false;
+
+            int pancakeCount = pancakeRepository.getPancakesCount(orderId);
+            orderLogger.logExpireOrder(order, pancakeCount);
+            durably(() -> removeOrder(order, pancakeCount));
+            publish(OrderEvent.Type.EXPIRED, order, null, 0, pancakeCount);
+        } finally {
+            lock.unlock();
+        }
+        orderLockManager.release(orderId);
+        return true;
+    }
+
+    /**
+     * Removes a cancelled or expired order from all stores, while its lock is held.
+     */
+    private void removeOrder(Order order, int pancakeCount) {
+        UUID orderId = order.getId();
+        metrics.recordPancakesPerOrder(pancakeCount);
+        pancakeRepository.remove(orderId);
+        orderRepository.deleteById(orderId);
+        orderStateService.remove(orderId);
+        deliveryPlanner.remove(order);
+        dequeueForDispatch(orderId);
+        orderExpiryTracker.untrack(orderId);
     }
 
     public void completeOrder(UUID orderId) {
-        withOrderLock(orderId, () -> orderStateService.update(orderId, OrderState.COMPLETED));
+        withOrderLock(Operation.COMPLETE_ORDER, orderId, () -> {
+            if (orderStateService.get(orderId) == OrderState.PREPARED) {
+                orderRepository.findById(orderId).ifPresent(deliveryPlanner::remove);
+                dequeueForDispatch(orderId);
+            }
+            orderStateService.update(orderId, OrderState.COMPLETED);
+            orderExpiryTracker.untrack(orderId);
+            publishStateChange(OrderEvent.Type.COMPLETED, orderId);
+        });
     }
 
     public Set<UUID> listCompletedOrders() {
-        return orderStateService.getOrderIdsByState(OrderState.COMPLETED);
-
+        return timed(Operation.LIST_COMPLETED_ORDERS, () -> orderStateService.getOrderIdsByState(OrderState.COMPLETED));
     }
 
     public void prepareOrder(UUID orderId) {
-        withOrderLock(orderId, () -> orderStateService.update(orderId, OrderState.PREPARED));
+        withOrderLock(Operation.PREPARE_ORDER, orderId, () -> {
+            if (orderStateService.get(orderId) != OrderState.PREPARED) {
+                enqueueForDispatch(orderId);
+                orderRepository.findById(orderId).ifPresent(deliveryPlanner::add);
+            }
+            orderStateService.update(orderId, OrderState.PREPARED);
+            orderExpiryTracker.untrack(orderId);
+            publishStateChange(OrderEvent.Type.PREPARED, orderId);
+        });
     }
 
     public Set<UUID> listPreparedOrders() {
-        return orderStateService.getOrderIdsByState(OrderState.PREPARED);
+        return timed(Operation.LIST_PREPARED_ORDERS, () -> orderStateService.getOrderIdsByState(OrderState.PREPARED));
     }
 
     public Object[] deliverOrder(UUID orderId) {
-        final Lock lock = getOrderLock(orderId);
+        DeliveredOrder delivered = timed(Operation.DELIVER_ORDER, () -> deliver(orderId, true));
+        return delivered == null ? null : new Object[]{delivered.order(), delivered.pancakes()};
+    }
+
+    /**
+     * Hands over up to the given number of prepared orders for delivery, oldest prepared first.
+     * Each order is delivered under its lock, so concurrent couriers never receive the same order,
+     * and the cost is proportional to the number of drained orders, not to the number of orders in the system.
+     *
+     * @param maxOrders the maximum number of orders to deliver
+     * @return the delivered orders with their pancakes, empty if no order is prepared
+     */
+    public List<DeliveredOrder> drainForDelivery(int maxOrders) {
+        if (maxOrders <= 0) {
+            throw new ValidationException("Number of orders to deliver must be positive.");
+        }
+        return timed(Operation.DRAIN_FOR_DELIVERY, () -> {
+            List<DeliveredOrder> deliveredOrders = new ArrayList<>(Math.min(maxOrders, 64));
+            UUID orderId;
+            while (deliveredOrders.size() < maxOrders && (orderId = pollForDispatch()) != null) {
+                DeliveredOrder delivered = deliver(orderId, false);
+                if (delivered != null) {
+                    deliveredOrders.add(delivered);
+                }
+            }
+            return deliveredOrders;
+        });
+    }
+
+    /**
+     * @return the index of prepared orders by building and room
+     */
+    public DeliveryPlanner deliveryPlanner() {
+        return deliveryPlanner;
+    }
+
+    /**
+     * Hands over up to the given number of prepared orders of one building for delivery, in ascending room order.
+     * The cost is proportional to the number of prepared orders in the building.
+     *
+     * @param building  the building to deliver to
+     * @param maxOrders the maximum number of orders to deliver
+     * @return the delivered orders with their pancakes, empty if no order of the building is prepared
+     */
+    public List<DeliveredOrder> drainBuildingForDelivery(int building, int maxOrders) {
+        if (maxOrders <= 0) {
+            throw new ValidationException("Number of orders to deliver must be positive.");
+        }
+        return timed(Operation.DRAIN_FOR_DELIVERY, () -> {
+            List<DeliveredOrder> deliveredOrders = new ArrayList<>(Math.min(maxOrders, 64));
+            Order order;
+            while (deliveredOrders.size() < maxOrders && (order = deliveryPlanner.pollFirst(building)) != null) {
+                DeliveredOrder delivered = deliver(order.getId(), false);
+                if (delivered != null) {
+                    deliveredOrders.add(delivered);
+                }
+            }
+            return deliveredOrders;
+        });
+    }
+
+    /**
+     * @param failIfNotFound whether a prepared ID without an order is an error, drains skip such IDs instead,
+     *                       since failing would lose the orders already delivered in the batch
+     * @return the delivered order, or null if the order is not prepared
+     */
+    private DeliveredOrder deliver(UUID orderId, boolean failIfNotFound) {
+        long start = metrics.startTimer();
+        final Lock lock = orderLockManager.writeLock(orderId);
         lock.lock();
+        long acquired = metrics.recordLockAcquired(start);
 
         try {
             if (orderStateService.get(orderId) != OrderState.PREPARED) return null;
 
-            Order order = orderRepository.findById(orderId).orElseThrow(() -> new OrderNotFoundException(orderId));
-            List<String> pancakesToDeliver = viewOrder(orderId);
-            orderLogger.logDeliverOrder(order, pancakeRepository.getPancakesCount(order.getId()));
-            pancakeRepository.remove(orderId);
-            orderRepository.deleteById(orderId);
-            orderStateService.remove(orderId);
+            Order order = orderRepository.findById(orderId).orElse(null);
+            if (order == null) {
+                if (failIfNotFound) throw new OrderNotFoundException(orderId);
+                return null;
+            }
+            List<String> pancakesToDeliver = pancakeRepository.viewOrderPancakes(orderId);
+            int pancakeCount = pancakeRepository.getPancakesCount(order.getId());
+            orderLogger.logDeliverOrder(order, pancakeCount);
+            metrics.recordPancakesPerOrder(pancakeCount);
+            durably(() -> {
+                pancakeRepository.remove(orderId);
+                orderRepository.deleteById(orderId);
+                orderStateService.remove(orderId);
+            });
+            deliveryPlanner.remove(order);
+            dequeueForDispatch(orderId);
+            publish(OrderEvent.Type.DELIVERED, order, null, 0, pancakeCount);
 
-            return new Object[]{order, pancakesToDeliver};
+            return new DeliveredOrder(order, pancakesToDeliver);
         } finally {
             lock.unlock();
-            removeOrderLock(orderId);
+            metrics.recordLockReleased(acquired);
+            orderLockManager.release(orderId);
         }
     }
 
-    private void withOrderLock(UUID orderId, Runnable action) {
-        final Lock lock = getOrderLock(orderId);
-        lock.lock();
+    private void enqueueForDispatch(UUID orderId) {
+        long sequence = nextDispatchSequence.getAndIncrement();
+        dispatchSequences.put(orderId, sequence);
+        dispatchQueue.add(new DispatchEntry(orderId, sequence));
+    }
+
+    private void dequeueForDispatch(UUID orderId) {
+        if (dispatchSequences.remove(orderId) == null) return;
+        if (staleDispatchEntries.incrementAndGet() > Math.max(dispatchSequences.size(), MIN_STALE_DISPATCH_ENTRIES)) {
+            staleDispatchEntries.set(0);
+            dispatchQueue.removeIf(entry -> !isCurrent(entry));
+        }
+    }
+
+    private UUID pollForDispatch() {
+        DispatchEntry entry;
+        while ((entry = dispatchQueue.poll()) != null) {
+            if (dispatchSequences.remove(entry.orderId(), entry.sequence())) {
+                return entry.orderId();
+            }
+            staleDispatchEntries.decrementAndGet();
+        }
+        return null;
+    }
+
+    private boolean isCurrent(DispatchEntry entry) {
+        Long sequence = dispatchSequences.get(entry.orderId());
+        return sequence != null && sequence == entry.sequence();
+    }
+
+    private void publish(OrderEvent.Type type, Order order, String description, int count, int pancakesCount) {
+        if (orderEventPublisher.hasSubscribers()) {
+            orderEventPublisher.publish(new OrderEvent(type, order, description, count, pancakesCount));
+        }
+    }
+
+    private void publishStateChange(OrderEvent.Type type, UUID orderId) {
+        if (orderEventPublisher.hasSubscribers()) {
+            orderRepository.findById(orderId).ifPresent(order ->
+                    publish(type, order, null, 0, pancakeRepository.getPancakesCount(orderId)));
+        }
+    }
+
+    private void withOrderLock(Operation operation, UUID orderId, Runnable action) {
+        long start = metrics.startTimer();
+        RuntimeException failure = null;
         try {
-            action.run();
+            final Lock lock = orderLockManager.writeLock(orderId);
+            lock.lock();
+            long acquired = metrics.recordLockAcquired(start);
+            try {
+                durably(action);
+            } finally {
+                lock.unlock();
+                metrics.recordLockReleased(acquired);
+            }
+        } catch (RuntimeException e) {
+            failure = e;
+            throw e;
         } finally {
-            lock.unlock();
+            metrics.recordCall(operation, start, failure);
         }
     }
 
-    private void removeOrderLock(UUID orderId) {
-        orderLocks.remove(orderId);
+    /**
+     * Runs the store mutations of one operation, and waits once for them to become durable.
+     */
+    private void durably(Runnable mutations) {
+        durabilityBarrier.beginOperation();
+        try {
+            mutations.run();
+        } finally {
+            durabilityBarrier.endOperation();
+        }
+    }
+
+    private <T> T timed(Operation operation, Supplier<T> action) {
+        long start = metrics.startTimer();
+        RuntimeException failure = null;
+        try {
+            return action.get();
+        } catch (RuntimeException e) {
+            failure = e;
+            throw e;
+        } finally {
+            metrics.recordCall(operation, start, failure);
+        }
+    }
+
+    /**
+     * Builds a service from its collaborators. Only the order factory must be provided, every other collaborator
+     * defaults to the in-memory stores, no logging, no event subscribers, striped order locks, disabled metrics,
+     * no expiry and no durability barrier.
+     */
+    public static class Builder {
+        private OrderRepository orderRepository = new InMemoryOrderRepository();
+        private OrderFactory orderFactory;
+        private OrderLogger orderLogger = new NoLogOrderLogger();
+        private OrderStateService orderStateService = new InMemoryOrderStateService();
+        private PancakeRepository pancakeRepository = new InMemoryPancakeRepository();
+        private PancakeFactory pancakeFactory = new DefaultPancakeFactory();
+        private OrderEventPublisher orderEventPublisher = new NoOrderEventPublisher();
+        private OrderLockManager orderLockManager = new StripedStampedLockManager();
+        private PancakeServiceMetrics metrics = new PancakeServiceMetrics();
+        private OrderExpiryTracker orderExpiryTracker = new NoOrderExpiryTracker();
+        private DurabilityBarrier durabilityBarrier = new NoDurabilityBarrier();
+
+        public Builder withOrderRepository(OrderRepository orderRepository) {
+            this.orderRepository = orderRepository;
+            return this;
+        }
+
+        public Builder withOrderFactory(OrderFactory orderFactory) {
+            this.orderFactory = orderFactory;
+            return this;
+        }
+
+        public Builder withOrderLogger(OrderLogger orderLogger) {
+            this.orderLogger = orderLogger;
+            return this;
+        }
+
+        public Builder withOrderStateService(OrderStateService orderStateService) {
+            this.orderStateService = orderStateService;
+            return this;
+        }
+
+        public Builder withPancakeRepository(PancakeRepository pancakeRepository) {
+            this.pancakeRepository = pancakeRepository;
+            return this;
+        }
+
+        public Builder withPancakeFactory(PancakeFactory pancakeFactory) {
+            this.pancakeFactory = pancakeFactory;
+            return this;
+        }
+
+        public Builder withOrderEventPublisher(OrderEventPublisher orderEventPublisher) {
+            this.orderEventPublisher = orderEventPublisher;
+            return this;
+        }
+
+        public Builder withOrderLockManager(OrderLockManager orderLockManager) {
+            this.orderLockManager = orderLockManager;
+            return this;
+        }
+
+        public Builder withMetrics(PancakeServiceMetrics metrics) {
+            this.metrics = metrics;
+            return this;
+        }
+
+        public Builder withOrderExpiryTracker(OrderExpiryTracker orderExpiryTracker) {
+            this.orderExpiryTracker = orderExpiryTracker;
+            return this;
+        }
+
+        public Builder withDurabilityBarrier(DurabilityBarrier durabilityBarrier) {
+            this.durabilityBarrier = durabilityBarrier;
+            return this;
+        }
+
+        public PancakeService build() {
+            if (orderFactory == null) {
+                throw new IllegalStateException("Order factory must be provided");
+            }
+            return new PancakeService(this);
+        }
     }
 }
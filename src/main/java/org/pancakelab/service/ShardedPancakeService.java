@@ -0,0 +1,235 @@
+package org.pancakelab.service;
+
+import org.pancakelab.exception.ValidationException;
+import org.pancakelab.model.orders.BulkOrderResult;
+import org.pancakelab.model.orders.DeliveredOrder;
+import org.pancakelab.model.orders.Order;
+import org.pancakelab.model.orders.OrderFactory;
+import org.pancakelab.model.orders.OrderRequest;
+import org.pancakelab.model.pancakes.PancakeRecipe;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntFunction;
+import java.util.stream.Stream;
+
+/**
+ * Facade that partitions orders over independent {@link PancakeService} shards by the hash of the order ID.
+ * Every shard owns its repositories, state service and locks, so operations on orders of different shards
+ * share no data structures. Operations on one order are routed to its shard, queries over all orders
+ * fan out to every shard and merge the results.
+ */
+public class ShardedPancakeService {
+    private final OrderFactory orderFactory;
+    private final PancakeService[] shards;
+    private final int mask;
+    private final int shardShift;
+    private final AtomicInteger nextDrainShard = new AtomicInteger();
+
+    /**
+     * @param orderFactory creates and validates the orders before they are routed to their shard
+     * @param shardCount   the number of shards, must be a power of two
+     * @param shardFactory creates the service of the shard with the given index, with its own repositories
+     *                     and state service
+     */
+    public ShardedPancakeService(OrderFactory orderFactory, int shardCount, IntFunction<PancakeService> shardFactory) {
+        if (shardCount <= 0 || Integer.bitCount(shardCount) != 1) {
+            throw new IllegalArgumentException("Shard count must be a positive power of two.");
+        }
+        this.orderFactory = orderFactory;
+        this.shards = new PancakeService[shardCount];
+        for (int i = 0; i < shardCount; i++) {
+            shards[i] = shardFactory.apply(i);
+        }
+        this.mask = shardCount - 1;
+        this.shardShift = Long.SIZE - Integer.numberOfTrailingZeros(shardCount);
+    }
+
+    public int getShardCount() {
+        return shards.length;
+    }
+
+    public Order createOrder(int building, int room) {
+        Order order = orderFactory.createOrder(building, room);
+        return shard(order.getId()).createOrder(order);
+    }
+
+    /**
+     * Creates many orders at once, see {@link PancakeService#createOrders(Collection)}.
+     * All rows are validated before any order is created, then the orders of each shard are stored in one batch.
+     *
+     * @param requests the buildings and rooms of the orders to create
+     * @return the created orders in the order of the requests, and the rejected rows
+     */
+    public BulkOrderResult createOrders(Collection<OrderRequest> requests) {
+        int[] buildings = new int[requests.size()];
+        int[] rooms = new int[requests.size()];
+        int row = 0;
+        for (OrderRequest request : requests) {
+            buildings[row] = request.building();
+            rooms[row] = request.room();
+            row++;
+        }
+        BulkOrderResult result = orderFactory.createOrders(buildings, rooms);
+
+        List<List<Order>> ordersByShard = new ArrayList<>(shards.length);
+        for (int i = 0; i < shards.length; i++) {
+            ordersByShard.add(new ArrayList<>());
+        }
+        for (Order order : result.orders()) {
+            ordersByShard.get(shardIndex(order.getId())).add(order);
+        }
+        for (int i = 0; i < shards.length; i++) {
+            if (!ordersByShard.get(i).isEmpty()) {
+                shards[i].createOrders(ordersByShard.get(i));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Creates many orders at once, see {@link #createOrders(Collection)}. The stream is consumed before
+     * the first order is created.
+     */
+    public BulkOrderResult createOrders(Stream<OrderRequest> requests) {
+        return createOrders(requests.toList());
+    }
+
+    public void addPancake(UUID orderId, PancakeRecipe pancake, int count) {
+        shard(orderId).addPancake(orderId, pancake, count);
+    }
+
+    public void addPancake(UUID orderId, int recipeId, int count) {
+        shard(orderId).addPancake(orderId, recipeId, count);
+    }
+
+    public void addPancakes(UUID orderId, Map<PancakeRecipe, Integer> pancakes) {
+        shard(orderId).addPancakes(orderId, pancakes);
+    }
+
+    public List<String> viewOrder(UUID orderId) {
+        return shard(orderId).viewOrder(orderId);
+    }
+
+    public void removePancakes(String description, UUID orderId, int count) {
+        shard(orderId).removePancakes(description, orderId, count);
+    }
+
+    public void removePancakes(int recipeId, UUID orderId, int count) {
+        shard(orderId).removePancakes(recipeId, orderId, count);
+    }
+
+    public void cancelOrder(UUID orderId) {
+        shard(orderId).cancelOrder(orderId);
+    }
+
+    public void completeOrder(UUID orderId) {
+        shard(orderId).completeOrder(orderId);
+    }
+
+    public Set<UUID> listCompletedOrders() {
+        Set<UUID> orderIds = new HashSet<>();
+        for (PancakeService shard : shards) {
+            orderIds.addAll(shard.listCompletedOrders());
+        }
+        return orderIds;
+    }
+
+    public void prepareOrder(UUID orderId) {
+        shard(orderId).prepareOrder(orderId);
+    }
+
+    public Set<UUID> listPreparedOrders() {
+        Set<UUID> orderIds = new HashSet<>();
+        for (PancakeService shard : shards) {
+            orderIds.addAll(shard.listPreparedOrders());
+        }
+        return orderIds;
+    }
+
+    public Object[] deliverOrder(UUID orderId) {
+        return shard(orderId).deliverOrder(orderId);
+    }
+
+    /**
+     * Removes the idle created orders of every shard, see {@link PancakeService#expireOrders()}.
+     * A failing shard does not keep the other shards from expiring their orders, the first failure is rethrown
+     * afterwards.
+     *
+     * @return the number of orders expired over all shards
+     */
+    public int expireOrders() {
+        int expired = 0;
+        RuntimeException failure = null;
+        for (PancakeService shard : shards) {
+            try {
+                expired += shard.expireOrders();
+            } catch (RuntimeException e) {
+                if (failure == null) {
+                    failure = e;
+                } else {
+                    failure.addSuppressed(e);
+                }
+            }
+        }
+        if (failure != null) throw failure;
+        return expired;
+    }
+
+    /**
+     * Hands over up to the given number of prepared orders, taken from the shards in turn.
+     * Each call starts at the next shard, so no shard is starved when batches are small.
+     * Within a shard the oldest prepared orders are delivered first.
+     *
+     * @param maxOrders the maximum number of orders to deliver
+     * @return the delivered orders with their pancakes
+     */
+    public List<DeliveredOrder> drainForDelivery(int maxOrders) {
+        return drain(maxOrders, (shard, remaining) -> shard.drainForDelivery(remaining));
+    }
+
+    /**
+     * Hands over up to the given number of prepared orders of one building, taken from the shards in turn.
+     * Within a shard the orders are delivered in ascending room order.
+     *
+     * @param building  the building to deliver to
+     * @param maxOrders the maximum number of orders to deliver
+     * @return the delivered orders with their pancakes
+     */
+    public List<DeliveredOrder> drainBuildingForDelivery(int building, int maxOrders) {
+        return drain(maxOrders, (shard, remaining) -> shard.drainBuildingForDelivery(building, remaining));
+    }
+
+    private interface ShardDrain {
+        List<DeliveredOrder> drain(PancakeService shard, int maxOrders);
+    }
+
+    private List<DeliveredOrder> drain(int maxOrders, ShardDrain shardDrain) {
+        if (maxOrders <= 0) {
+            throw new ValidationException("Number of orders to deliver must be positive.");
+        }
+        List<DeliveredOrder> deliveredOrders = new ArrayList<>();
+        int first = nextDrainShard.getAndIncrement();
+        for (int i = 0; i < shards.length && deliveredOrders.size() < maxOrders; i++) {
+            PancakeService shard = shards[(first + i) & mask];
+            deliveredOrders.addAll(shardDrain.drain(shard, maxOrders - deliveredOrders.size()));
+        }
+        return deliveredOrders;
+    }
+
+    private PancakeService shard(UUID orderId) {
+        return shards[shardIndex(orderId)];
+    }
+
+    private int shardIndex(UUID orderId) {
+        // the high bits of a multiplicative hash, the low bits of the ID hash pick the lock stripe within the shard
+        long hash = orderId.hashCode() * 0x9E3779B97F4A7C15L;
+        return (int) (hash >>> shardShift) & mask;
+    }
+}
@@ -0,0 +1,229 @@
+package org.pancakelab.service;
+
+import org.pancakelab.model.orders.DeliveredOrder;
+import org.pancakelab.model.orders.Order;
+import org.pancakelab.model.orders.OrderFactory;
+import org.pancakelab.model.pancakes.PancakeFactory;
+import org.pancakelab.model.pancakes.PancakeRecipe;
+import org.pancakelab.repository.impl.SingleThreadedOrderRepository;
+import org.pancakelab.repository.impl.SingleThreadedPancakeRepository;
+import org.pancakelab.service.impl.NoOrderLockManager;
+import org.pancakelab.service.impl.SingleThreadedOrderStateService;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Runs a {@link PancakeService} on a single writer thread instead of locking per order.
+ * Callers submit commands through a bounded queue and get a CompletableFuture of the result back.
+ * The writer drains the queue in batches and executes the commands one after the other, so the service
+ * runs on plain HashMap and ArrayList stores without any locks.
+ * For one writer per partition, put several instances behind a router like {@link ShardedPancakeService} does.
+ * <p>
+ * When the queue is full, submitting waits for the writer to catch up. The futures are completed
+ * on the writer thread, so dependent stages that do real work should use the async variants.
+ * Closing the service executes all queued commands, commands submitted afterwards fail.
+ */
+public class SingleWriterPancakeService implements AutoCloseable {
+    public static final int DEFAULT_QUEUE_CAPACITY = 8192;
+
+    private static final int MAX_BATCH_SIZE = 256;
+    private static final long IDLE_POLL_MILLIS = 10;
+
+    private final PancakeService pancakeService;
+    private final BlockingQueue<Command<?>> commands;
+    private final Thread writer;
+    private volatile boolean closed;
+    private volatile boolean terminated;
+
+    private record Command<T>(Function<PancakeService, T> action, CompletableFuture<T> result) {
+        private void execute(PancakeService pancakeService) {
+            try {
+                result.complete(action.apply(pancakeService));
+            } catch (Throwable e) {
+                result.completeExceptionally(e);
+            }
+        }
+
+        private void reject() {
+            result.completeExceptionally(new IllegalStateException("Pancake service is closed."));
+        }
+    }
+
+    public SingleWriterPancakeService(OrderFactory orderFactory, OrderLogger orderLogger, PancakeFactory pancakeFactory) {
+        this(orderFactory, orderLogger, pancakeFactory, DEFAULT_QUEUE_CAPACITY);
+    }
+
+    /**
+     * @param queueCapacity the maximum number of commands waiting for the writer
+     */
+    public SingleWriterPancakeService(OrderFactory orderFactory, OrderLogger orderLogger, PancakeFactory pancakeFactory,
+                                      int queueCapacity) {
+        this.pancakeService = new PancakeService.Builder()
+                .withOrderRepository(new SingleThreadedOrderRepository())
+                .withOrderFactory(orderFactory)
+                .withOrderLogger(orderLogger)
+                .withOrderStateService(new SingleThreadedOrderStateService())
+                .withPancakeRepository(new SingleThreadedPancakeRepository())
+                .withPancakeFactory(pancakeFactory)
+                .withOrderLockManager(new NoOrderLockManager())
+                .build();
+        this.commands = new ArrayBlockingQueue<>(queueCapacity);
+        this.writer = new Thread(this::runWriter, "pancake-service-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    /**
+     * Executes an arbitrary command on the writer thread, e.g. several operations that must not interleave
+     * with other commands.
+     *
+     * @param action the command, it must not block and must not keep references to the service
+     * @return the result of the command
+     */
+    public <T> CompletableFuture<T> submit(Function<PancakeService, T> action) {
+        var command = new Command<>(action, new CompletableFuture<>());
+        if (closed) {
+            command.reject();
+            return command.result();
+        }
+        try {
+            commands.put(command);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            command.result().completeExceptionally(e);
+            return command.result();
+        }
+        // the writer has already drained its last batch, so nobody else would complete the command
+        if (terminated && commands.remove(command)) {
+            command.reject();
+        }
+        return command.result();
+    }
+
+    public CompletableFuture<Order> createOrder(int building, int room) {
+        return submit(service -> service.createOrder(building, room));
+    }
+
+    public CompletableFuture<Void> addPancake(UUID orderId, PancakeRecipe pancake, int count) {
+        return submit(service -> {
+            service.addPancake(orderId, pancake, count);
+            return null;
+        });
+    }
+
+    public CompletableFuture<Void> addPancakes(UUID orderId, Map<PancakeRecipe, Integer> pancakes) {
+        return submit(service -> {
+            service.addPancakes(orderId, pancakes);
+            return null;
+        });
+    }
+
+    public CompletableFuture<List<String>> viewOrder(UUID orderId) {
+        return submit(service -> service.viewOrder(orderId));
+    }
+
+    public CompletableFuture<Void> removePancakes(String description, UUID orderId, int count) {
+        return submit(service -> {
+            service.removePancakes(description, orderId, count);
+            return null;
+        });
+    }
+
+    public CompletableFuture<Void> cancelOrder(UUID orderId) {
+        return submit(service -> {
+            service.cancelOrder(orderId);
+            return null;
+        });
+    }
+
+    public CompletableFuture<Void> completeOrder(UUID orderId) {
+        return submit(service -> {
+            service.completeOrder(orderId);
+            return null;
+        });
+    }
+
+    public CompletableFuture<Set<UUID>> listCompletedOrders() {
+        return submit(PancakeService::listCompletedOrders);
+    }
+
+    public CompletableFuture<Void> prepareOrder(UUID orderId) {
+        return submit(service -> {
+            service.prepareOrder(orderId);
+            return null;
+        });
+    }
+
+    public CompletableFuture<Set<UUID>> listPreparedOrders() {
+        return submit(PancakeService::listPreparedOrders);
+    }
+
+    public CompletableFuture<Object[]> deliverOrder(UUID orderId) {
+        return submit(service -> service.deliverOrder(orderId));
+    }
+
+    public CompletableFuture<List<DeliveredOrder>> drainForDelivery(int maxOrders) {
+        return submit(service -> service.drainForDelivery(maxOrders));
+    }
+
+    /**
+     * @return the number of commands waiting for the writer
+     */
+    public int getQueueDepth() {
+        return commands.size();
+    }
+
+    /**
+     * Stops accepting commands and waits until all queued commands are executed.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        boolean interrupted = false;
+        while (writer.isAlive()) {
+            try {
+                writer.join();
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void runWriter() {
+        List<Command<?>> batch = new ArrayList<>(MAX_BATCH_SIZE);
+        while (!closed || !commands.isEmpty()) {
+            Command<?> first;
+            try {
+                first = commands.poll(IDLE_POLL_MILLIS, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                continue;
+            }
+            if (first == null) continue;
+
+            batch.add(first);
+            commands.drainTo(batch, MAX_BATCH_SIZE - 1);
+            for (Command<?> command : batch) {
+                command.execute(pancakeService);
+            }
+            batch.clear();
+        }
+
+        terminated = true;
+        Command<?> command;
+        while ((command = commands.poll()) != null) {
+            command.reject();
+        }
+    }
+}
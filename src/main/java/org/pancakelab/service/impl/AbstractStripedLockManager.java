@@ -0,0 +1,34 @@
+package org.pancakelab.service.impl;
+
+import org.pancakelab.service.OrderLockManager;
+
+import java.util.UUID;
+import java.util.function.Supplier;
+
+/**
+ * Base of the lock managers that map order IDs onto a fixed power-of-two array of lock stripes,
+ * so memory stays bounded no matter how many order IDs are locked.
+ */
+abstract class AbstractStripedLockManager<T> implements OrderLockManager {
+    static final int DEFAULT_STRIPE_COUNT = 1024;
+
+    private final Object[] stripes;
+    private final int mask;
+
+    AbstractStripedLockManager(int stripeCount, Supplier<T> stripeFactory) {
+        if (stripeCount <= 0 || Integer.bitCount(stripeCount) != 1) {
+            throw new IllegalArgumentException("Stripe count must be a positive power of two.");
+        }
+        stripes = new Object[stripeCount];
+        for (int i = 0; i < stripeCount; i++) {
+            stripes[i] = stripeFactory.get();
+        }
+        mask = stripeCount - 1;
+    }
+
+    @SuppressWarnings("unchecked")
+    final T stripe(UUID orderId) {
+        int hash = orderId.hashCode();
+        return (T) stripes[(hash ^ (hash >>> 16)) & mask];
+    }
+}
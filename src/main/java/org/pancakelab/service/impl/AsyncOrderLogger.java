@@ -0,0 +1,330 @@
+package org.pancakelab.service.impl;
+
+import org.pancakelab.model.orders.Order;
+import org.pancakelab.model.pancakes.PancakeRecipe;
+import org.pancakelab.service.OrderLogger;
+
+import java.io.PrintStream;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Asynchronous implementation of the OrderLogger interface backed by a bounded ring buffer.
+ * Callers only copy the event fields into a preallocated slot, while a single background thread
+ * formats the events and writes them in batches, so logging does not add formatting or I/O to order latency.
+ * What happens when the buffer is full is decided by the {@link BackpressurePolicy}.
+ * <p>
+ * The logger keeps references to the logged orders and pancake maps until they are written,
+ * so callers must not modify the maps they pass in. Closing the logger writes all pending events,
+ * events logged after closing are dropped.
+ */
+public class AsyncOrderLogger implements OrderLogger, AutoCloseable {
+    public static final int DEFAULT_CAPACITY = 8192;
+
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+    private static final long FULL_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(10);
+    // set in the claimed sequence by the consumer when it stops, so that no slot can be claimed afterwards
+    private static final long CLOSED = 1L << 62;
+
+    /**
+     * Decides what a caller does when the ring buffer is full.
+     */
+    public enum BackpressurePolicy {
+        /**
+         * The caller waits until the consumer frees a slot.
+         */
+        BLOCK,
+        /**
+         * The event is discarded.
+         */
+        DROP,
+        /**
+         * The event is discarded and the number of discarded events is written to the log.
+         */
+        DROP_AND_COUNT
+    }
+
+    private enum EventType {
+        ADD_PANCAKE,
+        ADD_PANCAKES,
+        REMOVE_PANCAKES,
+        CANCEL_ORDER,
+        DELIVER_ORDER,
+        EXPIRE_ORDER
+    }
+
+    private static final class Slot {
+        private EventType type;
+        private Order order;
+        private String description;
+        private Map<PancakeRecipe, Integer> pancakes;
+        private int pancakeCount;
+        private int removedCount;
+
+        private void clear() {
+            order = null;
+            description = null;
+            pancakes = null;
+        }
+    }
+
+    private final PrintStream out;
+    private final BackpressurePolicy policy;
+    private final Slot[] slots;
+    private final int mask;
+    // sequence number of the event stored in each slot, a slot is readable once it holds the expected sequence
+    private final AtomicLongArray published;
+    private final AtomicLong claimed = new AtomicLong();
+    private final LongAdder dropped = new LongAdder();
+    private final Thread consumer;
+
+    private volatile long consumed;
+    private volatile long written;
+    private volatile boolean consumerParked;
+    private volatile boolean running = true;
+    private long reportedDropped;
+
+    public AsyncOrderLogger() {
+        this(System.out, DEFAULT_CAPACITY, BackpressurePolicy.BLOCK);
+    }
+
+    /**
+     * @param out      the stream the events are written to
+     * @param capacity the number of slots in the ring buffer, must be a power of two
+     * @param policy   what callers do when the ring buffer is full
+     */
+    public AsyncOrderLogger(PrintStream out, int capacity, BackpressurePolicy policy) {
+        if (capacity <= 0 || Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("Capacity must be a positive power of two.");
+        }
+        this.out = out;
+        this.policy = policy;
+        this.slots = new Slot[capacity];
+        this.mask = capacity - 1;
+        this.published = new AtomicLongArray(capacity);
+        for (int i = 0; i < capacity; i++) {
+            slots[i] = new Slot();
+            published.set(i, -1);
+        }
+        this.consumer = new Thread(this::consume, "async-order-logger");
+        this.consumer.setDaemon(true);
+        this.consumer.start();
+    }
+
+    @Override
+    public void logAddPancake(Order order, String description, int pancakeCount) {
+        long sequence = claim();
+        if (sequence < 0) return;
+        Slot slot = slots[index(sequence)];
+        slot.type = EventType.ADD_PANCAKE;
+        slot.order = order;
+        slot.description = description;
+        slot.pancakeCount = pancakeCount;
+        publish(sequence);
+    }
+
+    @Override
+    public void logAddPancakes(Order order, Map<PancakeRecipe, Integer> pancakes, int pancakeCount) {
+        long sequence = claim();
+        if (sequence < 0) return;
+        Slot slot = slots[index(sequence)];
+        slot.type = EventType.ADD_PANCAKES;
+        slot.order = order;
+        slot.pancakes = pancakes;
+        slot.pancakeCount = pancakeCount;
+        publish(sequence);
+    }
+
+    @Override
+    public void logRemovePancakes(Order order, String description, int pancakesInOrder, int removedCount) {
+        long sequence = claim();
+        if (sequence < 0) return;
+        Slot slot = slots[index(sequence)];
+        slot.type = EventType.REMOVE_PANCAKES;
+        slot.order = order;
+        slot.description = description;
+        slot.pancakeCount = pancakesInOrder;
+        slot.removedCount = removedCount;
+        publish(sequence);
+    }
+
+    @Override
+    public void logCancelOrder(Order order, int pancakesInOrder) {
+        long sequence = claim();
+        if (sequence < 0) return;
+        Slot slot = slots[index(sequence)];
+        slot.type = EventType.CANCEL_ORDER;
+        slot.order = order;
+        slot.pancakeCount = pancakesInOrder;
+        publish(sequence);
+    }
+
+    @Override
+    public void logDeliverOrder(Order order, int pancakesInOrder) {
+        long sequence = claim();
+        if (sequence < 0) return;
+        Slot slot = slots[index(sequence)];
+        slot.type = EventType.DELIVER_ORDER;
+        slot.order = order;
+        slot.pancakeCount = pancakesInOrder;
+        publish(sequence);
+    }
+
+    @Override
+    public void logExpireOrder(Order order, int pancakesInOrder) {
+        long sequence = claim();
+        if (sequence < 0) return;
+        Slot slot = slots[index(sequence)];
+        slot.type = EventType.EXPIRE_ORDER;
+        slot.order = order;
+        slot.pancakeCount = pancakesInOrder;
+        publish(sequence);
+    }
+
+    /**
+     * Waits until every event logged before this call has been written.
+     */
+    public void flush() {
+        long target = claimed.get() & ~CLOSED;
+        while (written < target && consumer.isAlive()) {
+            LockSupport.unpark(consumer);
+            LockSupport.parkNanos(FULL_PARK_NANOS);
+        }
+    }
+
+    /**
+     * Writes all pending events and stops the background thread.
+     */
+    @Override
+    public void close() {
+        running = false;
+        LockSupport.unpark(consumer);
+        try {
+            consumer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Closes the logger when the JVM shuts down, so that pending events are not lost.
+     */
+    public void registerShutdownHook() {
+        Runtime.getRuntime().addShutdownHook(new Thread(this::close, "async-order-logger-shutdown"));
+    }
+
+    /**
+     * @return the number of events discarded because the ring buffer was full or the logger was closed
+     */
+    public long getDroppedCount() {
+        return dropped.sum();
+    }
+
+    /**
+     * @return the number of events waiting to be formatted
+     */
+    @Override
+    public int getQueueDepth() {
+        return (int) Math.max(0, (claimed.get() & ~CLOSED) - consumed);
+    }
+
+    private long claim() {
+        while (true) {
+            if (!running) {
+                dropped.increment();
+                return -1;
+            }
+            long sequence = claimed.get();
+            // a closed sequence always looks full, so a caller that checked running before closing drops the event
+            if (sequence - consumed >= slots.length) {
+                if (policy != BackpressurePolicy.BLOCK) {
+                    dropped.increment();
+                    return -1;
+                }
+                LockSupport.unpark(consumer);
+                LockSupport.parkNanos(FULL_PARK_NANOS);
+            } else if (claimed.compareAndSet(sequence, sequence + 1)) {
+                return sequence;
+            }
+        }
+    }
+
+    private void publish(long sequence) {
+        published.set(index(sequence), sequence);
+        if (consumerParked) {
+            LockSupport.unpark(consumer);
+        }
+    }
+
+    private int index(long sequence) {
+        return (int) sequence & mask;
+    }
+
+    private void consume() {
+        StringBuilder batch = new StringBuilder();
+        while (true) {
+            long next = consumed;
+            long end = next;
+            while (end - next < slots.length && published.get(index(end)) == end) {
+                Slot slot = slots[index(end)];
+                batch.append(format(slot)).append(System.lineSeparator());
+                slot.clear();
+                end++;
+            }
+
+            if (end > next) {
+                consumed = end;
+                appendDropped(batch);
+                write(batch);
+                written = end;
+            } else if (!running && claimed.compareAndSet(next, next | CLOSED)) {
+                // a caller may have checked running just before closing, it fails to claim once the sequence is closed
+                break;
+            } else {
+                park();
+            }
+        }
+        appendDropped(batch);
+        write(batch);
+    }
+
+    private void park() {
+        consumerParked = true;
+        if (running && published.get(index(consumed)) != consumed) {
+            LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+        }
+        consumerParked = false;
+    }
+
+    private void write(StringBuilder batch) {
+        if (batch.isEmpty()) return;
+        out.print(batch);
+        out.flush();
+        batch.setLength(0);
+    }
+
+    private void appendDropped(StringBuilder batch) {
+        if (policy != BackpressurePolicy.DROP_AND_COUNT) return;
+        long droppedCount = dropped.sum();
+        if (droppedCount > reportedDropped) {
+            batch.append("Dropped %d order log event(s).".formatted(droppedCount - reportedDropped))
+                    .append(System.lineSeparator());
+            reportedDropped = droppedCount;
+        }
+    }
+
+    private static String format(Slot slot) {
+        return switch (slot.type) {
+            case ADD_PANCAKE -> OrderLogMessages.addPancake(slot.order, slot.description, slot.pancakeCount);
+            case ADD_PANCAKES -> OrderLogMessages.addPancakes(slot.order, slot.pancakes, slot.pancakeCount);
+            case REMOVE_PANCAKES -> OrderLogMessages.removePancakes(slot.order, slot.description, slot.pancakeCount, slot.removedCount);
+            case CANCEL_ORDER -> OrderLogMessages.cancelOrder(slot.order, slot.pancakeCount);
+            case DELIVER_ORDER -> OrderLogMessages.deliverOrder(slot.order, slot.pancakeCount);
+            case EXPIRE_ORDER -> OrderLogMessages.expireOrder(slot.order, slot.pancakeCount);
+        };
+    }
+}
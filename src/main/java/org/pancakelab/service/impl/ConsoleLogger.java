@@ -1,42 +1,38 @@
 package org.pancakelab.service.impl;
 
 import org.pancakelab.model.orders.Order;
+import org.pancakelab.model.pancakes.PancakeRecipe;
 import org.pancakelab.service.OrderLogger;
 
+import java.util.Map;
+
 /**
  * ConsoleLogger is an implementation of the OrderLogger interface that logs order events to the console.
- * It provides methods to log when pancakes are added, removed, orders are cancelled, and orders are delivered.
+ * It provides methods to log when pancakes are added, removed, orders are cancelled, delivered or expired.
  */
 public class ConsoleLogger implements OrderLogger {
 
     public void logAddPancake(Order order, String description, int pancakeCount) {
-        String log = "Added pancake with description '%s' ".formatted(description) +
-                "to order %s containing %d pancakes, ".formatted(order.getId(), pancakeCount) +
-                "for building %d, room %d.".formatted(order.getBuilding(), order.getRoom());
+        System.out.println(OrderLogMessages.addPancake(order, description, pancakeCount));
+    }
 
-        System.out.println(log);
+    public void logAddPancakes(Order order, Map<PancakeRecipe, Integer> pancakes, int pancakeCount) {
+        System.out.println(OrderLogMessages.addPancakes(order, pancakes, pancakeCount));
     }
 
     public void logRemovePancakes(Order order, String description, int pancakesInOrder, int removedCount) {
-
-        String log = "Removed %d pancake(s) with description '%s' ".formatted(removedCount, description) +
-                "from order %s now containing %d pancakes, ".formatted(order.getId(), pancakesInOrder) +
-                "for building %d, room %d.".formatted(order.getBuilding(), order.getRoom());
-
-        System.out.println(log);
+        System.out.println(OrderLogMessages.removePancakes(order, description, pancakesInOrder, removedCount));
     }
 
     public void logCancelOrder(Order order, int pancakesInOrder) {
-        String log = "Cancelled order %s with %d pancakes ".formatted(order.getId(), pancakesInOrder) +
-                "for building %d, room %d.".formatted(order.getBuilding(), order.getRoom());
-
-        System.out.println(log);
+        System.out.println(OrderLogMessages.cancelOrder(order, pancakesInOrder));
     }
 
     public void logDeliverOrder(Order order, int pancakesInOrder) {
-        String log = "Order %s with %d pancakes ".formatted(order.getId(), pancakesInOrder) +
-                "for building %d, room %d out for delivery.".formatted(order.getBuilding(), order.getRoom());
+        System.out.println(OrderLogMessages.deliverOrder(order, pancakesInOrder));
+    }
 
-        System.out.println(log);
+    public void logExpireOrder(Order order, int pancakesInOrder) {
+        System.out.println(OrderLogMessages.expireOrder(order, pancakesInOrder));
     }
 }
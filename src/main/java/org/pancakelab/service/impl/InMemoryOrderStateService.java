@@ -1,41 +1,80 @@
 package org.pancakelab.service.impl;
 
 import org.pancakelab.model.orders.OrderState;
+import org.pancakelab.repository.impl.UuidByteMap;
 import org.pancakelab.service.OrderStateService;
 
-import java.util.Map;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
 import java.util.UUID;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.stream.Collectors;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
  * In-memory implementation of the OrderStateService interface.
  * This class provides a thread-safe way to manage order states in memory.
+ * The state of each order is stored as its ordinal in the control byte of a {@link UuidByteMap} slot.
+ * The orders per state are counted as the map reports the previous state of every change.
  */
 public class InMemoryOrderStateService implements OrderStateService {
-    private final Map<UUID, OrderState> orderStates = new ConcurrentHashMap<>();
+    private static final OrderState[] STATES = OrderState.values();
+
+    private final UuidByteMap orderStates = new UuidByteMap();
+    private final LongAdder[] stateCounts = new LongAdder[STATES.length];
+
+    public InMemoryOrderStateService() {
+        for (int i = 0; i < stateCounts.length; i++) {
+            stateCounts[i] = new LongAdder();
+        }
+    }
 
     @Override
     public OrderState get(UUID orderId) {
-        return orderStates.get(orderId);
+        int state = orderStates.get(orderId);
+        return state == UuidByteMap.NO_VALUE ? null : STATES[state];
     }
 
     @Override
     public void update(UUID orderId, OrderState state) {
-        orderStates.put(orderId, state);
+        changed(orderStates.put(orderId, state.ordinal()), state.ordinal());
+    }
+
+    @Override
+    public void updateAll(Collection<UUID> orderIds, OrderState state) {
+        int ordinal = state.ordinal();
+        orderStates.putAll(List.copyOf(orderIds), ordinal, previous -> changed(previous, ordinal));
     }
 
     @Override
     public void remove(UUID orderId) {
-        orderStates.remove(orderId);
+        changed(orderStates.remove(orderId), UuidByteMap.NO_VALUE);
     }
 
     @Override
     public Set<UUID> getOrderIdsByState(OrderState state) {
-        return orderStates.entrySet().stream()
-                .filter(entry -> entry.getValue() == state)
-                .map(Map.Entry::getKey)
-                .collect(Collectors.toSet());
+        Set<UUID> orderIds = new HashSet<>();
+        int ordinal = state.ordinal();
+        orderStates.forEach((orderId, orderState) -> {
+            if (orderState == ordinal) {
+                orderIds.add(orderId);
+            }
+        });
+        return orderIds;
+    }
+
+    @Override
+    public int countByState(OrderState state) {
+        return stateCounts[state.ordinal()].intValue();
+    }
+
+    private void changed(int previousState, int state) {
+        if (previousState == state) return;
+        if (previousState != UuidByteMap.NO_VALUE) {
+            stateCounts[previousState].decrement();
+        }
+        if (state != UuidByteMap.NO_VALUE) {
+            stateCounts[state].increment();
+        }
     }
 }
@@ -0,0 +1,70 @@
+package org.pancakelab.service.impl;
+
+import org.pancakelab.model.orders.OrderState;
+import org.pancakelab.service.OrderStateService;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory implementation of the OrderStateService interface with a secondary index per order state.
+ * Each state owns a concurrent set of order IDs, and an ID is moved between sets while the state map
+ * holds the entry of that order, so updates of the same order never interleave.
+ * Querying orders by state costs time proportional to the result size instead of a scan over all orders.
+ */
+public class IndexedOrderStateService implements OrderStateService {
+    private final ConcurrentHashMap<UUID, OrderState> orderStates = new ConcurrentHashMap<>();
+    private final Map<OrderState, Set<UUID>> orderIdsByState = new EnumMap<>(OrderState.class);
+
+    public IndexedOrderStateService() {
+        for (OrderState state : OrderState.values()) {
+            orderIdsByState.put(state, ConcurrentHashMap.newKeySet());
+        }
+    }
+
+    @Override
+    public OrderState get(UUID orderId) {
+        return orderStates.get(orderId);
+    }
+
+    @Override
+    public void update(UUID orderId, OrderState state) {
+        orderStates.compute(orderId, (id, previousState) -> {
+            if (previousState != state) {
+                if (previousState != null) {
+                    orderIdsByState.get(previousState).remove(id);
+                }
+                orderIdsByState.get(state).add(id);
+            }
+            return state;
+        });
+    }
+
+    @Override
+    public void remove(UUID orderId) {
+        orderStates.computeIfPresent(orderId, (id, previousState) -> {
+            orderIdsByState.get(previousState).remove(id);
+            return null;
+        });
+    }
+
+    @Override
+    public Set<UUID> getOrderIdsByState(OrderState state) {
+        return new HashSet<>(orderIdsByState.get(state));
+    }
+
+    @Override
+    public Set<UUID> viewOrderIdsByState(OrderState state) {
+        return Collections.unmodifiableSet(orderIdsByState.get(state));
+    }
+
+    @Override
+    public int countByState(OrderState state) {
+        return orderIdsByState.get(state).size();
+    }
+}
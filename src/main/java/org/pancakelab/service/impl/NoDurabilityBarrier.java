@@ -0,0 +1,16 @@
+package org.pancakelab.service.impl;
+
+import org.pancakelab.service.DurabilityBarrier;
+
+/**
+ * Durability barrier for stores that are not durable, or that wait for every mutation themselves.
+ */
+public class NoDurabilityBarrier implements DurabilityBarrier {
+    @Override
+    public void beginOperation() {
+    }
+
+    @Override
+    public void endOperation() {
+    }
+}
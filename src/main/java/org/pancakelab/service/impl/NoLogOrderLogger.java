@@ -1,14 +1,22 @@
 package org.pancakelab.service.impl;
 
 import org.pancakelab.model.orders.Order;
+import org.pancakelab.model.pancakes.PancakeRecipe;
 import org.pancakelab.service.OrderLogger;
 
+import java.util.Map;
+
 public class NoLogOrderLogger implements OrderLogger {
     @Override
     public void logAddPancake(Order order, String description, int pancakeCount) {
 
     }
 
+    @Override
+    public void logAddPancakes(Order order, Map<PancakeRecipe, Integer> pancakes, int pancakeCount) {
+
+    }
+
     @Override
     public void logRemovePancakes(Order order, String description, int pancakesInOrder, int removedCount) {
 
@@ -23,4 +31,9 @@ public class NoLogOrderLogger implements OrderLogger {
     public void logDeliverOrder(Order order, int pancakesInOrder) {
 
     }
+
+    @Override
+    public void logExpireOrder(Order order, int pancakesInOrder) {
+
+    }
 }
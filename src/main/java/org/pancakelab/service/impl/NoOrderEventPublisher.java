@@ -0,0 +1,37 @@
+package org.pancakelab.service.impl;
+
+import org.pancakelab.model.orders.OrderEvent;
+import org.pancakelab.service.OrderEventPublisher;
+
+import java.util.concurrent.Flow;
+
+/**
+ * Publisher for services without an event feed, subscribers are completed right away.
+ */
+public class NoOrderEventPublisher implements OrderEventPublisher {
+    @Override
+    public void publish(OrderEvent event) {
+
+    }
+
+    @Override
+    public boolean hasSubscribers() {
+        return false;
+    }
+
+    @Override
+    public void subscribe(Flow.Subscriber<? super OrderEvent> subscriber) {
+        subscriber.onSubscribe(new Flow.Subscription() {
+            @Override
+            public void request(long n) {
+
+            }
+
+            @Override
+            public void cancel() {
+
+            }
+        });
+        subscriber.onComplete();
+    }
+}
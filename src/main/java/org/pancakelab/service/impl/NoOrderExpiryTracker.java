@@ -0,0 +1,42 @@
+package org.pancakelab.service.impl;
+
+import org.pancakelab.service.OrderExpiryTracker;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Expiry tracker for services whose orders never expire.
+ */
+public class NoOrderExpiryTracker implements OrderExpiryTracker {
+    @Override
+    public void track(UUID orderId) {
+    }
+
+    @Override
+    public void trackAll(Collection<UUID> orderIds) {
+    }
+
+    @Override
+    public void touch(UUID orderId) {
+    }
+
+    @Override
+    public void untrack(UUID orderId) {
+    }
+
+    @Override
+    public List<UUID> pollIdle() {
+        return List.of();
+    }
+
+    @Override
+    public boolean expireIfIdle(UUID orderId) {
+        return false;
+    }
+
+    @Override
+    public void reschedule(UUID orderId) {
+    }
+}
@@ -0,0 +1,47 @@
+package org.pancakelab.service.impl;
+
+import org.pancakelab.service.OrderLockManager;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.Lock;
+
+/**
+ * Lock manager whose locks do nothing, for services that are only ever called from a single thread.
+ */
+public class NoOrderLockManager implements OrderLockManager {
+    private static final Lock NO_LOCK = new Lock() {
+        @Override
+        public void lock() {
+        }
+
+        @Override
+        public void lockInterruptibly() {
+        }
+
+        @Override
+        public boolean tryLock() {
+            return true;
+        }
+
+        @Override
+        public boolean tryLock(long time, TimeUnit unit) {
+            return true;
+        }
+
+        @Override
+        public void unlock() {
+        }
+
+        @Override
+        public Condition newCondition() {
+            throw new UnsupportedOperationException("No conditions without locking.");
+        }
+    };
+
+    @Override
+    public Lock writeLock(UUID orderId) {
+        return NO_LOCK;
+    }
+}
@@ -0,0 +1,53 @@
+package org.pancakelab.service.impl;
+
+import org.pancakelab.model.orders.Order;
+import org.pancakelab.model.pancakes.PancakeRecipe;
+
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Formats the human-readable messages of order events.
+ * Shared by the loggers that write plain text, so that all of them produce the same lines.
+ */
+final class OrderLogMessages {
+
+    private OrderLogMessages() {
+    }
+
+    static String addPancake(Order order, String description, int pancakeCount) {
+        return "Added pancake with description '%s' ".formatted(description) +
+                "to order %s containing %d pancakes, ".formatted(order.getId(), pancakeCount) +
+                "for building %d, room %d.".formatted(order.getBuilding(), order.getRoom());
+    }
+
+    static String addPancakes(Order order, Map<PancakeRecipe, Integer> pancakes, int pancakeCount) {
+        String added = pancakes.entrySet().stream()
+                .map(entry -> "%d x '%s'".formatted(entry.getValue(), entry.getKey().description()))
+                .collect(Collectors.joining(", "));
+        return "Added pancakes %s ".formatted(added) +
+                "to order %s containing %d pancakes, ".formatted(order.getId(), pancakeCount) +
+                "for building %d, room %d.".formatted(order.getBuilding(), order.getRoom());
+    }
+
+    static String removePancakes(Order order, String description, int pancakesInOrder, int removedCount) {
+        return "Removed %d pancake(s) with description '%s' ".formatted(removedCount, description) +
+                "from order %s now containing %d pancakes, ".formatted(order.getId(), pancakesInOrder) +
+                "for building %d, room %d.".formatted(order.getBuilding(), order.getRoom());
+    }
+
+    static String cancelOrder(Order order, int pancakesInOrder) {
+        return "Cancelled order %s with %d pancakes ".formatted(order.getId(), pancakesInOrder) +
+                "for building %d, room %d.".formatted(order.getBuilding(), order.getRoom());
+    }
+
+    static String expireOrder(Order order, int pancakesInOrder) {
+        return "Expired abandoned order %s with %d pancakes ".formatted(order.getId(), pancakesInOrder) +
+                "for building %d, room %d.".formatted(order.getBuilding(), order.getRoom());
+    }
+
+    static String deliverOrder(Order order, int pancakesInOrder) {
+        return "Order %s with %d pancakes ".formatted(order.getId(), pancakesInOrder) +
+                "for building %d, room %d out for delivery.".formatted(order.getBuilding(), order.getRoom());
+    }
+}
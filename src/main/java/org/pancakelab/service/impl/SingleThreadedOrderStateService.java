@@ -0,0 +1,72 @@
+package org.pancakelab.service.impl;
+
+import org.pancakelab.model.orders.OrderState;
+import org.pancakelab.service.OrderStateService;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * OrderStateService backed by a HashMap with a HashSet of order IDs per state,
+ * for services that access it from a single thread only. It is not thread-safe,
+ * except for {@link #countByState(OrderState)}, whose counters may be read from any thread.
+ */
+public class SingleThreadedOrderStateService implements OrderStateService {
+    private final Map<UUID, OrderState> orderStates = new HashMap<>();
+    private final Map<OrderState, Set<UUID>> orderIdsByState = new EnumMap<>(OrderState.class);
+    private final AtomicIntegerArray stateCounts = new AtomicIntegerArray(OrderState.values().length);
+
+    public SingleThreadedOrderStateService() {
+        for (OrderState state : OrderState.values()) {
+            orderIdsByState.put(state, new HashSet<>());
+        }
+    }
+
+    @Override
+    public OrderState get(UUID orderId) {
+        return orderStates.get(orderId);
+    }
+
+    @Override
+    public void update(UUID orderId, OrderState state) {
+        OrderState previousState = orderStates.put(orderId, state);
+        if (previousState != state) {
+            if (previousState != null) {
+                orderIdsByState.get(previousState).remove(orderId);
+                stateCounts.decrementAndGet(previousState.ordinal());
+            }
+            orderIdsByState.get(state).add(orderId);
+            stateCounts.incrementAndGet(state.ordinal());
+        }
+    }
+
+    @Override
+    public void remove(UUID orderId) {
+        OrderState previousState = orderStates.remove(orderId);
+        if (previousState != null) {
+            orderIdsByState.get(previousState).remove(orderId);
+            stateCounts.decrementAndGet(previousState.ordinal());
+        }
+    }
+
+    @Override
+    public Set<UUID> getOrderIdsByState(OrderState state) {
+        return new HashSet<>(orderIdsByState.get(state));
+    }
+
+    @Override
+    public Set<UUID> viewOrderIdsByState(OrderState state) {
+        return Collections.unmodifiableSet(orderIdsByState.get(state));
+    }
+
+    @Override
+    public int countByState(OrderState state) {
+        return stateCounts.get(state.ordinal());
+    }
+}
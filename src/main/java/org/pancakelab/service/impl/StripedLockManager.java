@@ -0,0 +1,26 @@
+package org.pancakelab.service.impl;
+
+import java.util.UUID;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Lock manager with exclusive ReentrantLock stripes, reads and writes of orders sharing a stripe exclude each other.
+ */
+public class StripedLockManager extends AbstractStripedLockManager<ReentrantLock> {
+    public StripedLockManager() {
+        this(DEFAULT_STRIPE_COUNT);
+    }
+
+    /**
+     * @param stripeCount the number of locks, must be a power of two
+     */
+    public StripedLockManager(int stripeCount) {
+        super(stripeCount, ReentrantLock::new);
+    }
+
+    @Override
+    public Lock writeLock(UUID orderId) {
+        return stripe(orderId);
+    }
+}
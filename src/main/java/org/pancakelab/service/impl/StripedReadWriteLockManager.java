@@ -0,0 +1,31 @@
+package org.pancakelab.service.impl;
+
+import java.util.UUID;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Lock manager with ReentrantReadWriteLock stripes, reads of orders sharing a stripe run concurrently.
+ */
+public class StripedReadWriteLockManager extends AbstractStripedLockManager<ReentrantReadWriteLock> {
+    public StripedReadWriteLockManager() {
+        this(DEFAULT_STRIPE_COUNT);
+    }
+
+    /**
+     * @param stripeCount the number of locks, must be a power of two
+     */
+    public StripedReadWriteLockManager(int stripeCount) {
+        super(stripeCount, ReentrantReadWriteLock::new);
+    }
+
+    @Override
+    public Lock writeLock(UUID orderId) {
+        return stripe(orderId).writeLock();
+    }
+
+    @Override
+    public Lock readLock(UUID orderId) {
+        return stripe(orderId).readLock();
+    }
+}
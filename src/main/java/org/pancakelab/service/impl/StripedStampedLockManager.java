@@ -0,0 +1,42 @@
+package org.pancakelab.service.impl;
+
+import java.util.UUID;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * Lock manager with StampedLock stripes, which additionally supports optimistic reads that never block writers.
+ * StampedLocks are not reentrant.
+ */
+public class StripedStampedLockManager extends AbstractStripedLockManager<StampedLock> {
+    public StripedStampedLockManager() {
+        this(DEFAULT_STRIPE_COUNT);
+    }
+
+    /**
+     * @param stripeCount the number of locks, must be a power of two
+     */
+    public StripedStampedLockManager(int stripeCount) {
+        super(stripeCount, StampedLock::new);
+    }
+
+    @Override
+    public Lock writeLock(UUID orderId) {
+        return stripe(orderId).asWriteLock();
+    }
+
+    @Override
+    public Lock readLock(UUID orderId) {
+        return stripe(orderId).asReadLock();
+    }
+
+    @Override
+    public long tryOptimisticRead(UUID orderId) {
+        return stripe(orderId).tryOptimisticRead();
+    }
+
+    @Override
+    public boolean validate(UUID orderId, long stamp) {
+        return stamp != 0 && stripe(orderId).validate(stamp);
+    }
+}
@@ -0,0 +1,69 @@
+package org.pancakelab.service.impl;
+
+import org.pancakelab.model.orders.OrderEvent;
+import org.pancakelab.service.OrderEventPublisher;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.SubmissionPublisher;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Order event feed backed by a {@link SubmissionPublisher}.
+ * Every subscriber gets its own bounded buffer, which is drained on the executor as the subscriber requests events.
+ * Events are offered without waiting, so when the buffer of a slow subscriber is full the event is dropped
+ * for that subscriber only and counted, while order mutations and the other subscribers carry on.
+ * Closing the publisher completes all subscribers once their buffered events are delivered,
+ * events published after closing are discarded.
+ */
+public class SubmissionOrderEventPublisher implements OrderEventPublisher, AutoCloseable {
+    private final SubmissionPublisher<OrderEvent> publisher;
+    private final LongAdder dropped = new LongAdder();
+
+    public SubmissionOrderEventPublisher() {
+        this(ForkJoinPool.commonPool(), Flow.defaultBufferSize());
+    }
+
+    /**
+     * @param executor       runs the delivery of events to the subscribers
+     * @param bufferCapacity the maximum number of undelivered events per subscriber
+     */
+    public SubmissionOrderEventPublisher(Executor executor, int bufferCapacity) {
+        this.publisher = new SubmissionPublisher<>(executor, bufferCapacity);
+    }
+
+    @Override
+    public void publish(OrderEvent event) {
+        try {
+            publisher.offer(event, (subscriber, droppedEvent) -> {
+                dropped.increment();
+                return false;
+            });
+        } catch (IllegalStateException e) {
+            // closed, the event is discarded
+        }
+    }
+
+    @Override
+    public boolean hasSubscribers() {
+        return publisher.hasSubscribers();
+    }
+
+    @Override
+    public void subscribe(Flow.Subscriber<? super OrderEvent> subscriber) {
+        publisher.subscribe(subscriber);
+    }
+
+    /**
+     * @return the number of events that were not delivered to a subscriber because its buffer was full
+     */
+    public long getDroppedCount() {
+        return dropped.sum();
+    }
+
+    @Override
+    public void close() {
+        publisher.close();
+    }
+}
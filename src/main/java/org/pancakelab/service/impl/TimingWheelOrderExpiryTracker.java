@@ -0,0 +1,225 @@
+package org.pancakelab.service.impl;
+
+import org.pancakelab.repository.impl.UuidHashMap;
+import org.pancakelab.service.OrderExpiryTracker;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Expiry tracker backed by a hierarchical timing wheel, so scheduling, rescheduling and expiring an order
+ * cost O(1) and finding the idle orders never scans all tracked orders.
+ * <p>
+ * The wheel has {@value #LEVELS} levels of {@value #WHEEL_SIZE} slots. A slot of the lowest level spans one tick,
+ * a slot of each higher level spans a whole turn of the level below, and when time reaches a slot of a higher level
+ * its orders are moved down to finer slots. Touching an order only records the time and does not move it:
+ * when its slot comes due, an order that was touched meanwhile is scheduled again for its new deadline.
+ * Orders idle for longer than the span of the wheel wait in its last slot and are rescheduled when it comes due.
+ */
+public class TimingWheelOrderExpiryTracker implements OrderExpiryTracker {
+    public static final Duration DEFAULT_TICK = Duration.ofSeconds(1);
+
+    private static final int WHEEL_BITS = 6;
+    private static final int WHEEL_SIZE = 1 << WHEEL_BITS;
+    private static final int WHEEL_MASK = WHEEL_SIZE - 1;
+    private static final int LEVELS = 4;
+    private static final long MAX_DELAY_TICKS = (1L << (WHEEL_BITS * LEVELS)) - 1;
+
+    private static final class Node {
+        private final UUID orderId;
+        private volatile long lastTouchMillis;
+        private Node previous;
+        private Node next;
+
+        private Node(UUID orderId, long lastTouchMillis) {
+            this.orderId = orderId;
+            this.lastTouchMillis = lastTouchMillis;
+        }
+
+        private boolean isScheduled() {
+            return previous != null;
+        }
+    }
+
+    private final long ttlMillis;
+    private final long tickMillis;
+    private final Clock clock;
+    private final UuidHashMap<Node> nodes = new UuidHashMap<>();
+    // sentinels of circular doubly linked lists, so a node is unlinked without knowing its slot
+    private final Node[][] wheels = new Node[LEVELS][WHEEL_SIZE];
+    private long currentTick;
+
+    public TimingWheelOrderExpiryTracker(Duration ttl) {
+        this(ttl, DEFAULT_TICK, Clock.systemUTC());
+    }
+
+    /**
+     * @param ttl   how long an order may stay untouched before it expires
+     * @param tick  the resolution of the wheel, orders expire up to one tick late
+     * @param clock the source of the current time
+     */
+    public TimingWheelOrderExpiryTracker(Duration ttl, Duration tick, Clock clock) {
+        if (ttl.isNegative() || ttl.isZero() || tick.isNegative() || tick.isZero()) {
+            throw new IllegalArgumentException("Time to live and tick must be positive.");
+        }
+        this.ttlMillis = ttl.toMillis();
+        this.tickMillis = Math.max(1, tick.toMillis());
+        this.clock = clock;
+        for (Node[] wheel : wheels) {
+            for (int slot = 0; slot < WHEEL_SIZE; slot++) {
+                Node sentinel = new Node(null, 0);
+                sentinel.previous = sentinel;
+                sentinel.next = sentinel;
+                wheel[slot] = sentinel;
+            }
+        }
+        this.currentTick = clock.millis() / tickMillis;
+    }
+
+    @Override
+    public void track(UUID orderId) {
+        Node node = new Node(orderId, clock.millis());
+        synchronized (this) {
+            Node previous = nodes.put(orderId, node);
+            if (previous != null && previous.isScheduled()) {
+                unlink(previous);
+            }
+            schedule(node, deadlineTick(node));
+        }
+    }
+
+    @Override
+    public synchronized void trackAll(Collection<UUID> orderIds) {
+        long now = clock.millis();
+        for (UUID orderId : orderIds) {
+            Node node = new Node(orderId, now);
+            Node previous = nodes.put(orderId, node);
+            if (previous != null && previous.isScheduled()) {
+                unlink(previous);
+            }
+            schedule(node, deadlineTick(node));
+        }
+    }
+
+    @Override
+    public void touch(UUID orderId) {
+        Node node = nodes.get(orderId);
+        if (node != null) {
+            node.lastTouchMillis = clock.millis();
+        }
+    }
+
+    @Override
+    public void untrack(UUID orderId) {
+        if (nodes.get(orderId) == null) return;
+        synchronized (this) {
+            Node node = nodes.remove(orderId);
+            if (node != null && node.isScheduled()) {
+                unlink(node);
+            }
+        }
+    }
+
+    /**
+     * Advances the wheel to the current time. The returned orders stay tracked, but unscheduled,
+     * until they are confirmed by {@link #expireIfIdle(UUID)} or untracked.
+     */
+    @Override
+    public synchronized List<UUID> pollIdle() {
+        List<UUID> idle = new ArrayList<>();
+        long nowTick = clock.millis() / tickMillis;
+        List<Node> due = new ArrayList<>();
+        while (currentTick < nowTick) {
+            currentTick++;
+            for (int level = LEVELS - 1; level > 0; level--) {
+                if ((currentTick & ((1L << (WHEEL_BITS * level)) - 1)) == 0) {
+                    drain(wheels[level][(int) (currentTick >>> (WHEEL_BITS * level)) & WHEEL_MASK], due);
+                }
+            }
+            drain(wheels[0][(int) currentTick & WHEEL_MASK], due);
+
+            for (Node node : due) {
+                long deadline = deadlineTick(node);
+                if (deadline <= currentTick) {
+                    idle.add(node.orderId);
+                } else {
+                    schedule(node, deadline);
+                }
+            }
+            due.clear();
+        }
+        return idle;
+    }
+
+    @Override
+    public synchronized boolean expireIfIdle(UUID orderId) {
+        Node node = nodes.get(orderId);
+        if (node == null) return false;
+        if (node.isScheduled()) {
+            // touched and rescheduled since it was polled
+            return false;
+        }
+        long deadline = deadlineTick(node);
+        if (deadline <= clock.millis() / tickMillis) {
+            nodes.remove(orderId);
+            return true;
+        }
+        schedule(node, deadline);
+        return false;
+    }
+
+    @Override
+    public synchronized void reschedule(UUID orderId) {
+        Node node = nodes.get(orderId);
+        if (node == null) {
+            node = new Node(orderId, clock.millis() - ttlMillis);
+            nodes.put(orderId, node);
+        } else if (node.isScheduled()) {
+            return;
+        }
+        schedule(node, currentTick + 1);
+    }
+
+    private long deadlineTick(Node node) {
+        // round up, so an order never expires before its time to live
+        return (node.lastTouchMillis + ttlMillis + tickMillis - 1) / tickMillis;
+    }
+
+    private void schedule(Node node, long deadlineTick) {
+        long delay = Math.min(Math.max(deadlineTick - currentTick, 1), MAX_DELAY_TICKS);
+        long tick = currentTick + delay;
+        int level = 0;
+        while (delay >= 1L << (WHEEL_BITS * (level + 1))) {
+            level++;
+        }
+        Node sentinel = wheels[level][(int) (tick >>> (WHEEL_BITS * level)) & WHEEL_MASK];
+        node.previous = sentinel.previous;
+        node.next = sentinel;
+        sentinel.previous.next = node;
+        sentinel.previous = node;
+    }
+
+    private static void drain(Node sentinel, List<Node> due) {
+        Node node = sentinel.next;
+        while (node != sentinel) {
+            Node next = node.next;
+            node.previous = null;
+            node.next = null;
+            due.add(node);
+            node = next;
+        }
+        sentinel.previous = sentinel;
+        sentinel.next = sentinel;
+    }
+
+    private static void unlink(Node node) {
+        node.previous.next = node.next;
+        node.next.previous = node.previous;
+        node.previous = null;
+        node.next = null;
+    }
+}
@@ -0,0 +1,227 @@
+package org.pancakelab.service.metrics;
+
+import org.pancakelab.exception.OrderNotFoundException;
+
+import javax.management.InstanceAlreadyExistsException;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Metrics of a {@link org.pancakelab.service.PancakeService}: calls, failures and latency per operation,
+ * how long callers wait for and hold order locks, and the number of pancakes per order when it leaves the system.
+ * Gauges such as the live orders per state or the logger queue depth are only evaluated when they are read.
+ * <p>
+ * Recording is switchable at runtime. While disabled, an instrumented call costs one volatile read,
+ * while enabled it adds a few System.nanoTime calls and LongAdder increments, recording never allocates or locks.
+ * Use one instance per service, the gauges registered by a service replace those of the same name.
+ */
+public class PancakeServiceMetrics {
+    /**
+     * Marks a timer started while recording was disabled.
+     */
+    public static final long NOT_TIMED = Long.MIN_VALUE;
+
+    public enum Operation {
+        CREATE_ORDER,
+        CREATE_ORDERS,
+        ADD_PANCAKE,
+        ADD_PANCAKES,
+        VIEW_ORDER,
+        REMOVE_PANCAKES,
+        CANCEL_ORDER,
+        COMPLETE_ORDER,
+        LIST_COMPLETED_ORDERS,
+        PREPARE_ORDER,
+        LIST_PREPARED_ORDERS,
+        DELIVER_ORDER,
+        DRAIN_FOR_DELIVERY,
+        EXPIRE_ORDERS
+    }
+
+    private static final class OperationMetrics {
+        private final LongAdder calls = new LongAdder();
+        private final LongAdder failures = new LongAdder();
+        private final LatencyHistogram latency = new LatencyHistogram();
+    }
+
+    private final Map<Operation, OperationMetrics> operations = new EnumMap<>(Operation.class);
+    private final LongAdder ordersNotFound = new LongAdder();
+    private final LatencyHistogram lockWait = new LatencyHistogram();
+    private final LatencyHistogram lockHold = new LatencyHistogram();
+    private final LatencyHistogram pancakesPerOrder = new LatencyHistogram();
+    private final Map<String, LongSupplier> gauges = Collections.synchronizedMap(new LinkedHashMap<>());
+    private volatile boolean enabled;
+
+    /**
+     * Creates disabled metrics.
+     */
+    public PancakeServiceMetrics() {
+        this(false);
+    }
+
+    public PancakeServiceMetrics(boolean enabled) {
+        for (Operation operation : Operation.values()) {
+            operations.put(operation, new OperationMetrics());
+        }
+        this.enabled = enabled;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    /**
+     * @return the start time of a measurement, or {@link #NOT_TIMED} if recording is disabled
+     */
+    public long startTimer() {
+        return enabled ? System.nanoTime() : NOT_TIMED;
+    }
+
+    /**
+     * Records a finished call of the operation.
+     *
+     * @param start   the result of {@link #startTimer()} when the call started
+     * @param failure the exception the call failed with, or null
+     */
+    public void recordCall(Operation operation, long start, Throwable failure) {
+        if (start == NOT_TIMED) return;
+        OperationMetrics metrics = operations.get(operation);
+        metrics.calls.increment();
+        metrics.latency.record(System.nanoTime() - start);
+        if (failure != null) {
+            metrics.failures.increment();
+            if (failure instanceof OrderNotFoundException) {
+                ordersNotFound.increment();
+            }
+        }
+    }
+
+    /**
+     * Records the time a caller waited for an order lock, call it right after the lock was acquired.
+     *
+     * @param start the result of {@link #startTimer()} before the lock was requested
+     * @return the time the lock was acquired, to be passed to {@link #recordLockReleased(long)}
+     */
+    public long recordLockAcquired(long start) {
+        if (start == NOT_TIMED) return NOT_TIMED;
+        long acquired = System.nanoTime();
+        lockWait.record(acquired - start);
+        return acquired;
+    }
+
+    /**
+     * Records the time an order lock was held, call it right after the lock was released.
+     *
+     * @param acquired the result of {@link #recordLockAcquired(long)}
+     */
+    public void recordLockReleased(long acquired) {
+        if (acquired == NOT_TIMED) return;
+        lockHold.record(System.nanoTime() - acquired);
+    }
+
+    /**
+     * Records the number of pancakes of an order that was delivered or cancelled.
+     */
+    public void recordPancakesPerOrder(int pancakeCount) {
+        if (enabled) {
+            pancakesPerOrder.record(pancakeCount);
+        }
+    }
+
+    /**
+     * Registers a value that is evaluated whenever the metrics are read.
+     *
+     * @param name  the name of the gauge, an existing gauge of the same name is replaced
+     * @param value supplies the current value, it must be cheap enough to call on every read
+     */
+    public void registerGauge(String name, LongSupplier value) {
+        gauges.put(name, value);
+    }
+
+    public long getCalls(Operation operation) {
+        return operations.get(operation).calls.sum();
+    }
+
+    public long getFailures(Operation operation) {
+        return operations.get(operation).failures.sum();
+    }
+
+    public LatencyHistogram getLatency(Operation operation) {
+        return operations.get(operation).latency;
+    }
+
+    /**
+     * @return the number of calls that failed with an {@link OrderNotFoundException}
+     */
+    public long getOrdersNotFound() {
+        return ordersNotFound.sum();
+    }
+
+    public LatencyHistogram getLockWait() {
+        return lockWait;
+    }
+
+    public LatencyHistogram getLockHold() {
+        return lockHold;
+    }
+
+    public LatencyHistogram getPancakesPerOrder() {
+        return pancakesPerOrder;
+    }
+
+    /**
+     * @return the current values of all gauges by name
+     */
+    public Map<String, Long> getGauges() {
+        Map<String, Long> values = new LinkedHashMap<>();
+        synchronized (gauges) {
+            gauges.forEach((name, value) -> values.put(name, value.getAsLong()));
+        }
+        return values;
+    }
+
+    public void reset() {
+        for (OperationMetrics metrics : operations.values()) {
+            metrics.calls.reset();
+            metrics.failures.reset();
+            metrics.latency.reset();
+        }
+        ordersNotFound.reset();
+        lockWait.reset();
+        lockHold.reset();
+        pancakesPerOrder.reset();
+    }
+
+    /**
+     * Exposes the metrics as a JMX MBean on the platform MBean server, where the attribute Enabled
+     * switches recording and the operation reset clears all counters and histograms.
+     *
+     * @param name the object name, e.g. {@code org.pancakelab:type=PancakeService,name=orders}
+     * @return the registered object name
+     * @throws IllegalStateException if the name is invalid or already registered
+     */
+    public ObjectName registerMBean(String name) {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        try {
+            ObjectName objectName = new ObjectName(name);
+            server.registerMBean(new PancakeServiceMetricsMBean(this), objectName);
+            return objectName;
+        } catch (InstanceAlreadyExistsException e) {
+            throw new IllegalStateException("MBean " + name + " is already registered.", e);
+        } catch (JMException e) {
+            throw new IllegalStateException("MBean " + name + " could not be registered.", e);
+        }
+    }
+}
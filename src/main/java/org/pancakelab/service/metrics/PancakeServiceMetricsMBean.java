@@ -0,0 +1,135 @@
+package org.pancakelab.service.metrics;
+
+import javax.management.Attribute;
+import javax.management.AttributeList;
+import javax.management.AttributeNotFoundException;
+import javax.management.DynamicMBean;
+import javax.management.InvalidAttributeValueException;
+import javax.management.MBeanAttributeInfo;
+import javax.management.MBeanInfo;
+import javax.management.MBeanOperationInfo;
+import javax.management.MBeanParameterInfo;
+import javax.management.ReflectionException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * JMX view of {@link PancakeServiceMetrics}. The attributes are computed on every read, so gauges
+ * registered after the MBean show up as well. Latencies are reported in nanoseconds.
+ */
+class PancakeServiceMetricsMBean implements DynamicMBean {
+    private static final String ENABLED = "Enabled";
+    private static final String RESET = "reset";
+
+    private final PancakeServiceMetrics metrics;
+
+    PancakeServiceMetricsMBean(PancakeServiceMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    @Override
+    public Object getAttribute(String attribute) throws AttributeNotFoundException {
+        if (ENABLED.equals(attribute)) return metrics.isEnabled();
+        Object value = attributes().get(attribute);
+        if (value == null) {
+            throw new AttributeNotFoundException(attribute);
+        }
+        return value;
+    }
+
+    @Override
+    public void setAttribute(Attribute attribute) throws AttributeNotFoundException, InvalidAttributeValueException {
+        if (!ENABLED.equals(attribute.getName())) {
+            throw new AttributeNotFoundException(attribute.getName() + " is read-only or unknown.");
+        }
+        if (!(attribute.getValue() instanceof Boolean enabled)) {
+            throw new InvalidAttributeValueException("Enabled must be a boolean.");
+        }
+        metrics.setEnabled(enabled);
+    }
+
+    @Override
+    public AttributeList getAttributes(String[] names) {
+        Map<String, Object> attributes = attributes();
+        AttributeList list = new AttributeList();
+        for (String name : names) {
+            if (ENABLED.equals(name)) {
+                list.add(new Attribute(name, metrics.isEnabled()));
+            } else if (attributes.containsKey(name)) {
+                list.add(new Attribute(name, attributes.get(name)));
+            }
+        }
+        return list;
+    }
+
+    @Override
+    public AttributeList setAttributes(AttributeList attributes) {
+        AttributeList set = new AttributeList();
+        for (Attribute attribute : attributes.asList()) {
+            try {
+                setAttribute(attribute);
+                set.add(attribute);
+            } catch (AttributeNotFoundException | InvalidAttributeValueException e) {
+                // JMX reports only the attributes that were set
+            }
+        }
+        return set;
+    }
+
+    @Override
+    public Object invoke(String actionName, Object[] params, String[] signature) throws ReflectionException {
+        if (RESET.equals(actionName)) {
+            metrics.reset();
+            return null;
+        }
+        throw new ReflectionException(new NoSuchMethodException(actionName));
+    }
+
+    @Override
+    public MBeanInfo getMBeanInfo() {
+        var attributes = attributes();
+        MBeanAttributeInfo[] infos = new MBeanAttributeInfo[attributes.size() + 1];
+        infos[0] = new MBeanAttributeInfo(ENABLED, boolean.class.getName(), "Whether metrics are recorded", true, true, true);
+        int i = 1;
+        for (var entry : attributes.entrySet()) {
+            infos[i++] = new MBeanAttributeInfo(entry.getKey(), entry.getValue().getClass().getName(),
+                    entry.getKey(), true, false, false);
+        }
+        MBeanOperationInfo reset = new MBeanOperationInfo(RESET, "Clears all counters and histograms",
+                new MBeanParameterInfo[0], void.class.getName(), MBeanOperationInfo.ACTION);
+        return new MBeanInfo(PancakeServiceMetrics.class.getName(), "Pancake service metrics",
+                infos, null, new MBeanOperationInfo[]{reset}, null);
+    }
+
+    private Map<String, Object> attributes() {
+        Map<String, Object> attributes = new LinkedHashMap<>();
+        for (PancakeServiceMetrics.Operation operation : PancakeServiceMetrics.Operation.values()) {
+            String prefix = pascalCase(operation.name());
+            attributes.put(prefix + "Calls", metrics.getCalls(operation));
+            attributes.put(prefix + "Failures", metrics.getFailures(operation));
+            putHistogram(attributes, prefix + "Latency", metrics.getLatency(operation));
+        }
+        attributes.put("OrdersNotFound", metrics.getOrdersNotFound());
+        putHistogram(attributes, "LockWait", metrics.getLockWait());
+        putHistogram(attributes, "LockHold", metrics.getLockHold());
+        putHistogram(attributes, "PancakesPerOrder", metrics.getPancakesPerOrder());
+        attributes.putAll(metrics.getGauges());
+        return attributes;
+    }
+
+    private static void putHistogram(Map<String, Object> attributes, String prefix, LatencyHistogram histogram) {
+        attributes.put(prefix + "Mean", histogram.getMean());
+        attributes.put(prefix + "P50", histogram.getValueAtPercentile(50));
+        attributes.put(prefix + "P99", histogram.getValueAtPercentile(99));
+        attributes.put(prefix + "P999", histogram.getValueAtPercentile(99.9));
+        attributes.put(prefix + "Max", histogram.getMax());
+    }
+
+    private static String pascalCase(String constant) {
+        StringBuilder name = new StringBuilder(constant.length());
+        for (String word : constant.split("_")) {
+            name.append(word.charAt(0)).append(word.substring(1).toLowerCase());
+        }
+        return name.toString();
+    }
+}
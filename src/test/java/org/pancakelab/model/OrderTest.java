@@ -5,6 +5,14 @@ import org.junit.jupiter.api.Test;
 import org.pancakelab.exception.ValidationException;
 import org.pancakelab.model.orders.*;
 
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.UUID;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 public class OrderTest {
@@ -46,4 +54,103 @@ public class OrderTest {
         assertThrows(ValidationException.class, () -> orderFactory.createOrder(MIN_BUILDING, MIN_ROOM - 1));
         assertThrows(ValidationException.class, () -> orderFactory.createOrder(MIN_BUILDING, MAX_ROOM + 1));
     }
+
+    @Test
+    public void GivenOrderIdGenerator_WhenCreatingOrder_ThenGeneratedIdAssigned_Test() {
+        UUID orderId = UUID.randomUUID();
+        var orderValidatorConfig = new OrderValidatorConfig(MIN_BUILDING, MAX_BUILDING, MIN_ROOM, MAX_ROOM);
+        var factory = new DefaultOrderFactory(new OrderValidator(orderValidatorConfig), () -> orderId);
+
+        assertEquals(orderId, factory.createOrder(MIN_BUILDING, MIN_ROOM).getId());
+    }
+
+    @Test
+    public void GivenTimeOrderedOrderIdGenerator_WhenGeneratingIds_ThenIdsAreVersion7AndIncreasing_Test() {
+        Instant now = Instant.parse("2025-01-01T00:00:00Z");
+        var generator = new TimeOrderedOrderIdGenerator(Clock.fixed(now, ZoneOffset.UTC));
+
+        Set<UUID> orderIds = new HashSet<>();
+        UUID previous = generator.nextId();
+        orderIds.add(previous);
+        for (int i = 0; i < 10_000; i++) {
+            UUID orderId = generator.nextId();
+            assertEquals(7, orderId.version());
+            assertEquals(2, orderId.variant());
+            assertEquals(now.toEpochMilli(), orderId.getMostSignificantBits() >>> 16);
+            assertTrue(orderId.compareTo(previous) > 0);
+            assertTrue(orderIds.add(orderId));
+            previous = orderId;
+        }
+    }
+
+    @Test
+    public void GivenTimeOrderedOrderIdGenerator_WhenClockMovesBackwards_ThenIdsStillIncreasing_Test() {
+        var clock = new Clock() {
+            private long millis = 1_000_000;
+
+            @Override
+            public long millis() {
+                return millis;
+            }
+
+            @Override
+            public Instant instant() {
+                return Instant.ofEpochMilli(millis);
+            }
+
+            @Override
+            public ZoneOffset getZone() {
+                return ZoneOffset.UTC;
+            }
+
+            @Override
+            public Clock withZone(ZoneId zone) {
+                return this;
+            }
+        };
+        var generator = new TimeOrderedOrderIdGenerator(clock);
+
+        UUID first = generator.nextId();
+        clock.millis -= 10;
+        UUID second = generator.nextId();
+
+        assertTrue(second.compareTo(first) > 0);
+    }
+
+    @Test
+    public void GivenInvalidPairs_WhenCheckingWithoutThrowing_ThenResultAndPrecomputedMessageReturned_Test() {
+        var validator = new OrderValidator(new OrderValidatorConfig(MIN_BUILDING, MAX_BUILDING, MIN_ROOM, MAX_ROOM));
+
+        assertEquals(OrderValidator.Result.VALID, validator.check(MIN_BUILDING, MAX_ROOM));
+        assertEquals(OrderValidator.Result.INVALID_BUILDING, validator.check(MAX_BUILDING + 1, MAX_ROOM + 1));
+        assertEquals(OrderValidator.Result.INVALID_ROOM, validator.check(MAX_BUILDING, MIN_ROOM - 1));
+        assertEquals("Room number must be between 1 and 1000.", validator.getMessage(OrderValidator.Result.INVALID_ROOM));
+        assertNull(validator.getMessage(OrderValidator.Result.VALID));
+    }
+
+    @Test
+    public void GivenStacklessValidator_WhenValidationFails_ThenSameExceptionWithoutStackTraceThrown_Test() {
+        var validator = new OrderValidator(new OrderValidatorConfig(MIN_BUILDING, MAX_BUILDING, MIN_ROOM, MAX_ROOM), true);
+
+        var first = assertThrows(ValidationException.class, () -> validator.validate(MIN_BUILDING - 1, MIN_ROOM));
+        var second = assertThrows(ValidationException.class, () -> validator.validate(MAX_BUILDING + 1, MIN_ROOM));
+
+        assertSame(first, second);
+        assertEquals(0, first.getStackTrace().length);
+        assertEquals("Building number must be between 1 and 10.", first.getMessage());
+    }
+
+    @Test
+    public void GivenBatchOfPairs_WhenCheckingAll_ThenResultCodesMatchSingleChecks_Test() {
+        var validator = new OrderValidator(new OrderValidatorConfig(MIN_BUILDING, MAX_BUILDING, MIN_ROOM, MAX_ROOM));
+        int[] buildings = {MIN_BUILDING, MIN_BUILDING - 1, MAX_BUILDING, Integer.MIN_VALUE, Integer.MAX_VALUE, MAX_BUILDING};
+        int[] rooms = {MAX_ROOM, MAX_ROOM + 1, MIN_ROOM - 1, MIN_ROOM, MIN_ROOM, Integer.MIN_VALUE};
+        byte[] results = new byte[buildings.length];
+
+        assertEquals(5, validator.checkAll(buildings, rooms, results));
+        for (int i = 0; i < buildings.length; i++) {
+            assertEquals(validator.check(buildings[i], rooms[i]), OrderValidator.Result.fromCode(results[i]));
+        }
+        assertThrows(IllegalArgumentException.class, () -> validator.checkAll(buildings, new int[1], results));
+    }
 }
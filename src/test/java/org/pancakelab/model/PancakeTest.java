@@ -9,8 +9,7 @@ import org.pancakelab.model.pancakes.PancakeRecipe;
 
 import java.util.List;
 
-import static org.junit.jupiter.api.Assertions.assertEquals;
-import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.*;
 
 public class PancakeTest {
     private PancakeFactory pancakeFactory;
@@ -37,4 +36,19 @@ public class PancakeTest {
         assertEquals("Delicious pancake with milk chocolate, hazelnuts!", createdPancake.description());
         assertEquals(List.of(Ingredient.MILK_CHOCOLATE, Ingredient.HAZELNUTS), createdPancake.ingredients());
     }
+
+    @Test
+    public void GivenRecipeCreated_WhenCreatingSameIngredientsInDifferentOrder_ThenSameCanonicalRecipeReturned_Test() {
+        PancakeRecipe first = pancakeFactory.createRecipe(List.of(Ingredient.HAZELNUTS, Ingredient.MILK_CHOCOLATE));
+        PancakeRecipe second = pancakeFactory.createRecipe(List.of(Ingredient.MILK_CHOCOLATE, Ingredient.HAZELNUTS));
+
+        assertSame(first, second);
+        assertEquals("Delicious pancake with milk chocolate, hazelnuts!", first.description());
+        assertEquals(List.of(Ingredient.MILK_CHOCOLATE, Ingredient.HAZELNUTS), first.ingredients());
+    }
+
+    @Test
+    public void GivenNoIngredients_WhenCreatingPancake_ThenThrowsIllegalStateException_Test() {
+        assertThrows(IllegalStateException.class, () -> pancakeFactory.createRecipe(List.of()));
+    }
 }
@@ -0,0 +1,87 @@
+package org.pancakelab.repository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.pancakelab.model.pancakes.DefaultPancakeFactory;
+import org.pancakelab.model.pancakes.Ingredient;
+import org.pancakelab.model.pancakes.PancakeFactory;
+import org.pancakelab.model.pancakes.PancakeRecipe;
+import org.pancakelab.repository.impl.InMemoryCountedPancakeRepository;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class InMemoryCountedPancakeRepositoryTest {
+    private PancakeRepository pancakeRepository;
+    private PancakeRecipe darkChocolate;
+    private PancakeRecipe milkChocolateHazelnuts;
+    private UUID orderId;
+
+    @BeforeEach
+    public void setUp() {
+        PancakeFactory pancakeFactory = new DefaultPancakeFactory();
+        pancakeRepository = new InMemoryCountedPancakeRepository();
+        darkChocolate = pancakeFactory.createRecipe(List.of(Ingredient.DARK_CHOCOLATE));
+        milkChocolateHazelnuts = pancakeFactory.createRecipe(List.of(Ingredient.MILK_CHOCOLATE, Ingredient.HAZELNUTS));
+        orderId = UUID.randomUUID();
+    }
+
+    @Test
+    public void GivenOrderWithPancakes_WhenAddingPancakes_ThenRunningTotalReturnedAndPancakesGroupedByRecipe_Test() {
+        assertEquals(1, pancakeRepository.addPancake(orderId, darkChocolate));
+        assertEquals(2, pancakeRepository.addPancake(orderId, milkChocolateHazelnuts));
+        assertEquals(3, pancakeRepository.addPancake(orderId, darkChocolate));
+
+        assertEquals(3, pancakeRepository.getPancakesCount(orderId));
+        assertEquals(List.of(darkChocolate.description(),
+                darkChocolate.description(),
+                milkChocolateHazelnuts.description()), pancakeRepository.viewOrderPancakes(orderId));
+    }
+
+    @Test
+    public void GivenOrderWithPancakes_WhenRemovingMorePancakesThanPresent_ThenOnlyPresentPancakesRemoved_Test() {
+        pancakeRepository.addPancake(orderId, darkChocolate);
+        pancakeRepository.addPancake(orderId, darkChocolate);
+        pancakeRepository.addPancake(orderId, milkChocolateHazelnuts);
+
+        assertEquals(2, pancakeRepository.removePancakes(orderId, darkChocolate.description(), 5));
+        assertEquals(0, pancakeRepository.removePancakes(orderId, darkChocolate.description(), 1));
+        assertEquals(1, pancakeRepository.getPancakesCount(orderId));
+        assertEquals(List.of(milkChocolateHazelnuts.description()), pancakeRepository.viewOrderPancakes(orderId));
+    }
+
+    @Test
+    public void GivenOrderEmptiedByRemoval_WhenAddingPancakeAgain_ThenOrderCountsRestartFromOne_Test() {
+        pancakeRepository.addPancake(orderId, darkChocolate);
+        pancakeRepository.removePancakes(orderId, darkChocolate.description(), 1);
+
+        assertEquals(0, pancakeRepository.getPancakesCount(orderId));
+        assertEquals(List.of(), pancakeRepository.viewOrderPancakes(orderId));
+        assertEquals(1, pancakeRepository.addPancake(orderId, milkChocolateHazelnuts));
+    }
+
+    @Test
+    public void GivenOrderWithPancakes_WhenRemovingOrder_ThenNoPancakesLeft_Test() {
+        pancakeRepository.addPancake(orderId, darkChocolate);
+        pancakeRepository.remove(orderId);
+
+        assertEquals(0, pancakeRepository.getPancakesCount(orderId));
+        assertEquals(List.of(), pancakeRepository.viewOrderPancakes(orderId));
+    }
+
+    @Test
+    public void GivenOrderWithMaximumPancakes_WhenAddingMore_ThenOverflowRejectedAndCountsUnchanged_Test() {
+        assertEquals(Integer.MAX_VALUE, pancakeRepository.addPancakes(orderId, Map.of(darkChocolate, Integer.MAX_VALUE)));
+
+        assertThrows(ArithmeticException.class,
+                () -> pancakeRepository.addPancakes(orderId, Map.of(milkChocolateHazelnuts, Integer.MAX_VALUE)));
+        assertThrows(ArithmeticException.class, () -> pancakeRepository.addPancake(orderId, milkChocolateHazelnuts));
+        assertEquals(Integer.MAX_VALUE, pancakeRepository.getPancakesCount(orderId));
+        assertEquals(Integer.MAX_VALUE, pancakeRepository.removePancakes(orderId, darkChocolate.description(), Integer.MAX_VALUE));
+        assertEquals(0, pancakeRepository.getPancakesCount(orderId));
+    }
+}
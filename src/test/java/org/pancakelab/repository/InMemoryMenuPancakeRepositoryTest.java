@@ -0,0 +1,87 @@
+package org.pancakelab.repository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.pancakelab.exception.ValidationException;
+import org.pancakelab.model.pancakes.DefaultPancakeFactory;
+import org.pancakelab.model.pancakes.Ingredient;
+import org.pancakelab.model.pancakes.PancakeFactory;
+import org.pancakelab.model.pancakes.PancakeMenu;
+import org.pancakelab.model.pancakes.PancakeRecipe;
+import org.pancakelab.repository.impl.InMemoryMenuPancakeRepository;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class InMemoryMenuPancakeRepositoryTest {
+    private PancakeMenu pancakeMenu;
+    private InMemoryMenuPancakeRepository pancakeRepository;
+    private PancakeRecipe darkChocolate;
+    private PancakeRecipe milkChocolateHazelnuts;
+    private UUID orderId;
+
+    @BeforeEach
+    public void setUp() {
+        PancakeFactory pancakeFactory = new DefaultPancakeFactory();
+        pancakeMenu = new PancakeMenu(pancakeFactory, List.of(
+                List.of(Ingredient.DARK_CHOCOLATE),
+                List.of(Ingredient.MILK_CHOCOLATE, Ingredient.HAZELNUTS)
+        ));
+        pancakeRepository = new InMemoryMenuPancakeRepository(pancakeMenu);
+        darkChocolate = pancakeFactory.createRecipe(List.of(Ingredient.DARK_CHOCOLATE));
+        milkChocolateHazelnuts = pancakeFactory.createRecipe(List.of(Ingredient.HAZELNUTS, Ingredient.MILK_CHOCOLATE));
+        orderId = UUID.randomUUID();
+    }
+
+    @Test
+    public void GivenMenu_WhenLookingUpRecipes_ThenIdsResolveToTheSameRecipesAndDescriptions_Test() {
+        int darkChocolateId = pancakeMenu.idOf(darkChocolate);
+        int milkChocolateHazelnutsId = pancakeMenu.idOf(milkChocolateHazelnuts);
+
+        assertEquals(List.of(darkChocolateId, milkChocolateHazelnutsId), pancakeMenu.recipeIds());
+        assertSame(darkChocolate, pancakeMenu.recipe(darkChocolateId));
+        assertEquals(milkChocolateHazelnuts.description(), pancakeMenu.description(milkChocolateHazelnutsId));
+        assertEquals(darkChocolateId, pancakeMenu.idOf(darkChocolate.description()));
+        assertEquals(-1, pancakeMenu.idOf("Delicious pancake with ketchup!"));
+        assertFalse(pancakeMenu.contains(0));
+        assertThrows(ValidationException.class, () -> pancakeMenu.createRecipe(List.of(Ingredient.WHIPPED_CREAM)));
+        assertThrows(ValidationException.class, () -> pancakeMenu.recipe(darkChocolateId | milkChocolateHazelnutsId));
+    }
+
+    @Test
+    public void GivenOrderWithPancakes_WhenRemovingByRecipe_ThenMatchingIdsRemovedInAddedOrder_Test() {
+        pancakeRepository.addPancake(orderId, darkChocolate);
+        pancakeRepository.addPancake(orderId, milkChocolateHazelnuts);
+        pancakeRepository.addPancake(orderId, darkChocolate);
+        short darkChocolateId = (short) pancakeMenu.idOf(darkChocolate);
+        short milkChocolateHazelnutsId = (short) pancakeMenu.idOf(milkChocolateHazelnuts);
+
+        assertArrayEquals(new short[]{darkChocolateId, milkChocolateHazelnutsId, darkChocolateId},
+                pancakeRepository.viewOrderRecipeIds(orderId));
+        assertEquals(1, pancakeRepository.removePancakes(orderId, darkChocolate, 1));
+        assertEquals(1, pancakeRepository.removePancakes(orderId, darkChocolate.description(), 5));
+        assertEquals(0, pancakeRepository.removePancakes(orderId, "Delicious pancake with ketchup!", 1));
+        assertEquals(1, pancakeRepository.getPancakesCount(orderId));
+        assertEquals(List.of(milkChocolateHazelnuts.description()), pancakeRepository.viewOrderPancakes(orderId));
+    }
+
+    @Test
+    public void GivenRecipeNotOnMenu_WhenAddingPancake_ThenValidationExceptionThrownAndOrderUnchanged_Test() {
+        PancakeRecipe whippedCream = new DefaultPancakeFactory().createRecipe(List.of(Ingredient.WHIPPED_CREAM));
+
+        assertThrows(ValidationException.class, () -> pancakeRepository.addPancake(orderId, whippedCream));
+        assertEquals(0, pancakeRepository.getPancakesCount(orderId));
+    }
+
+    @Test
+    public void GivenOrderEmptiedByRemoval_WhenAddingPancakeAgain_ThenOrderCountsRestartFromOne_Test() {
+        pancakeRepository.addPancake(orderId, darkChocolate);
+        pancakeRepository.removePancakes(orderId, darkChocolate, 1);
+
+        assertEquals(0, pancakeRepository.getPancakesCount(orderId));
+        assertEquals(List.of(), pancakeRepository.viewOrderPancakes(orderId));
+        assertEquals(1, pancakeRepository.addPancake(orderId, milkChocolateHazelnuts));
+    }
+}
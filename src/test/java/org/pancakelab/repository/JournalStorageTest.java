@@ -0,0 +1,253 @@
+package org.pancakelab.repository;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.pancakelab.model.orders.DefaultOrderFactory;
+import org.pancakelab.model.orders.BulkOrderResult;
+import org.pancakelab.model.orders.Order;
+import org.pancakelab.model.orders.OrderRequest;
+import org.pancakelab.model.orders.OrderState;
+import org.pancakelab.model.orders.OrderValidator;
+import org.pancakelab.model.orders.OrderValidatorConfig;
+import org.pancakelab.model.pancakes.DefaultPancakeFactory;
+import org.pancakelab.model.pancakes.Ingredient;
+import org.pancakelab.model.pancakes.PancakeFactory;
+import org.pancakelab.model.pancakes.PancakeRecipe;
+import org.pancakelab.repository.journal.JournalStorage;
+import org.pancakelab.service.PancakeService;
+import org.pancakelab.service.impl.NoLogOrderLogger;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class JournalStorageTest {
+    private static final Duration COMMIT_INTERVAL = Duration.ofNanos(100_000);
+
+    private final PancakeFactory pancakeFactory = new DefaultPancakeFactory();
+    private final PancakeRecipe darkChocolate = pancakeFactory.createRecipe(List.of(Ingredient.DARK_CHOCOLATE));
+    private final PancakeRecipe milkChocolateHazelnuts = pancakeFactory.createRecipe(List.of(Ingredient.MILK_CHOCOLATE, Ingredient.HAZELNUTS));
+
+    @TempDir
+    Path directory;
+
+    @Test
+    public void GivenJournaledOrders_WhenReopeningStorage_ThenLiveOrdersRecovered_Test() throws IOException {
+        Path journalFile = directory.resolve("orders.journal");
+        Order completedOrder;
+        Order cancelledOrder;
+        try (var storage = JournalStorage.open(journalFile, COMMIT_INTERVAL, pancakeFactory)) {
+            var pancakeService = createPancakeService(storage);
+            completedOrder = pancakeService.createOrder(1, 10);
+            pancakeService.addPancake(completedOrder.getId(), darkChocolate, 3);
+            pancakeService.addPancake(completedOrder.getId(), milkChocolateHazelnuts, 1);
+            pancakeService.removePancakes(darkChocolate.description(), completedOrder.getId(), 1);
+            pancakeService.completeOrder(completedOrder.getId());
+
+            cancelledOrder = pancakeService.createOrder(2, 20);
+            pancakeService.addPancake(cancelledOrder.getId(), darkChocolate, 1);
+            pancakeService.cancelOrder(cancelledOrder.getId());
+        }
+
+        try (var storage = JournalStorage.open(journalFile, COMMIT_INTERVAL, pancakeFactory)) {
+            Order recovered = storage.orderRepository().findById(completedOrder.getId()).orElseThrow();
+            assertEquals(1, recovered.getBuilding());
+            assertEquals(10, recovered.getRoom());
+            assertEquals(OrderState.COMPLETED, storage.orderStateService().get(completedOrder.getId()));
+            assertEquals(List.of(darkChocolate.description(), darkChocolate.description(), milkChocolateHazelnuts.description()),
+                    storage.pancakeRepository().viewOrderPancakes(completedOrder.getId()));
+
+            assertTrue(storage.orderRepository().findById(cancelledOrder.getId()).isEmpty());
+            assertNull(storage.orderStateService().get(cancelledOrder.getId()));
+            assertEquals(0, storage.pancakeRepository().getPancakesCount(cancelledOrder.getId()));
+        }
+    }
+
+    @Test
+    public void GivenTornRecordAtEndOfJournal_WhenReopeningStorage_ThenTornRecordTruncated_Test() throws IOException {
+        Path journalFile = directory.resolve("orders.journal");
+        Order order;
+        try (var storage = JournalStorage.open(journalFile, COMMIT_INTERVAL, pancakeFactory)) {
+            order = createPancakeService(storage).createOrder(1, 10);
+        }
+        long validSize = Files.size(journalFile);
+        Files.write(journalFile, new byte[]{0, 0, 0, 24, 0, 1, 2}, StandardOpenOption.APPEND);
+
+        try (var storage = JournalStorage.open(journalFile, COMMIT_INTERVAL, pancakeFactory)) {
+            assertTrue(storage.orderRepository().findById(order.getId()).isPresent());
+            assertEquals(OrderState.CREATED, storage.orderStateService().get(order.getId()));
+        }
+        assertEquals(validSize, Files.size(journalFile));
+    }
+
+    @Test
+    public void GivenCorruptRecordFollowedByValidRecords_WhenReopeningStorage_ThenOpenFailsAndJournalKept_Test() throws IOException {
+        Path journalFile = directory.resolve("orders.journal");
+        try (var storage = JournalStorage.open(journalFile, COMMIT_INTERVAL, pancakeFactory)) {
+            var pancakeService = createPancakeService(storage);
+            for (int i = 0; i < 3; i++) {
+                pancakeService.createOrder(1, 10 + i);
+            }
+        }
+        long size = Files.size(journalFile);
+        try (FileChannel channel = FileChannel.open(journalFile, StandardOpenOption.WRITE)) {
+            // a byte of the ID in the first record
+            channel.write(ByteBuffer.wrap(new byte[]{(byte) 0xFF}), 10);
+        }
+
+        IOException exception = assertThrows(IOException.class,
+                () -> JournalStorage.open(journalFile, COMMIT_INTERVAL, pancakeFactory));
+        assertTrue(exception.getMessage().contains("corrupt record at position 0"));
+        assertEquals(size, Files.size(journalFile));
+    }
+
+    @Test
+    public void GivenSnapshotTaken_WhenReopeningStorage_ThenSnapshotLoadedAndOnlyJournalTailReplayed_Test() throws IOException {
+        Path journalFile = directory.resolve("orders.journal");
+        Path snapshotFile = directory.resolve("orders.snapshot");
+        Order order;
+        Order deliveredOrder;
+        try (var storage = JournalStorage.open(journalFile, snapshotFile, COMMIT_INTERVAL, null, pancakeFactory)) {
+            var pancakeService = createPancakeService(storage);
+            order = pancakeService.createOrder(3, 30);
+            pancakeService.addPancake(order.getId(), darkChocolate, 2);
+            deliveredOrder = pancakeService.createOrder(4, 40);
+            pancakeService.completeOrder(deliveredOrder.getId());
+
+            storage.snapshot();
+
+            pancakeService.addPancake(order.getId(), milkChocolateHazelnuts, 1);
+            pancakeService.prepareOrder(deliveredOrder.getId());
+            pancakeService.deliverOrder(deliveredOrder.getId());
+        }
+
+        // records before the snapshot position are no longer needed
+        try (var channel = FileChannel.open(journalFile, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.wrap(new byte[]{-1, -1, -1, -1}), 0);
+        }
+
+        try (var storage = JournalStorage.open(journalFile, snapshotFile, COMMIT_INTERVAL, null, pancakeFactory)) {
+            assertEquals(List.of(darkChocolate.description(), darkChocolate.description(), milkChocolateHazelnuts.description()),
+                    storage.pancakeRepository().viewOrderPancakes(order.getId()));
+            assertEquals(OrderState.CREATED, storage.orderStateService().get(order.getId()));
+            assertTrue(storage.orderRepository().findById(deliveredOrder.getId()).isEmpty());
+            assertNull(storage.orderStateService().get(deliveredOrder.getId()));
+        }
+    }
+
+    @Test
+    public void GivenStateOfUnknownOrderInSnapshot_WhenReopeningStorage_ThenStateRecoveredAsByJournalReplay_Test() throws IOException {
+        Path journalFile = directory.resolve("orders.journal");
+        Path snapshotFile = directory.resolve("orders.snapshot");
+        UUID unknownOrderId = UUID.randomUUID();
+        try (var storage = JournalStorage.open(journalFile, snapshotFile, COMMIT_INTERVAL, null, pancakeFactory)) {
+            createPancakeService(storage).prepareOrder(unknownOrderId);
+        }
+
+        // records before the snapshot position are no longer needed
+        try (var channel = FileChannel.open(journalFile, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.wrap(new byte[]{-1, -1, -1, -1}), 0);
+        }
+
+        try (var storage = JournalStorage.open(journalFile, snapshotFile, COMMIT_INTERVAL, null, pancakeFactory)) {
+            assertEquals(OrderState.PREPARED, storage.orderStateService().get(unknownOrderId));
+            assertTrue(storage.orderRepository().findById(unknownOrderId).isEmpty());
+        }
+    }
+
+    @Test
+    public void GivenBackgroundSnapshotFailed_WhenTakingSnapshot_ThenFailureReportedOnce_Test() throws Exception {
+        Path journalFile = directory.resolve("orders.journal");
+        Path snapshotFile = directory.resolve("orders.snapshot");
+        Path blockedTemporaryFile = Files.createDirectories(directory.resolve("orders.snapshot.tmp"));
+        try (var storage = JournalStorage.open(journalFile, snapshotFile, COMMIT_INTERVAL, Duration.ofMillis(10), pancakeFactory)) {
+            createPancakeService(storage).createOrder(1, 10);
+            Thread.sleep(300);
+            Files.delete(blockedTemporaryFile);
+
+            IOException failure = assertThrows(IOException.class, storage::snapshot);
+            assertNotNull(failure.getCause());
+            storage.snapshot();
+        }
+    }
+
+    @Test
+    public void GivenDurabilityBarrierOfStorage_WhenAddingManyPancakesInOneCall_ThenSingleGroupCommitAwaited_Test() throws IOException {
+        Duration commitInterval = Duration.ofMillis(100);
+        int pancakes = 10;
+        Path journalFile = directory.resolve("orders.journal");
+        Order order;
+        try (var storage = JournalStorage.open(journalFile, commitInterval, pancakeFactory)) {
+            var pancakeService = new PancakeService.Builder()
+                    .withOrderRepository(storage.orderRepository())
+                    .withOrderFactory(new DefaultOrderFactory(new OrderValidator(new OrderValidatorConfig(1, 10, 1, 100))))
+                    .withOrderStateService(storage.orderStateService())
+                    .withPancakeRepository(storage.pancakeRepository())
+                    .withPancakeFactory(pancakeFactory)
+                    .withDurabilityBarrier(storage.durabilityBarrier())
+                    .build();
+            order = pancakeService.createOrder(1, 10);
+
+            long start = System.nanoTime();
+            pancakeService.addPancake(order.getId(), darkChocolate, pancakes);
+            Duration elapsed = Duration.ofNanos(System.nanoTime() - start);
+
+            // one wait per pancake would take at least ten commit intervals
+            assertTrue(elapsed.compareTo(commitInterval.multipliedBy(pancakes / 2)) < 0, "took " + elapsed);
+        }
+
+        try (var storage = JournalStorage.open(journalFile, COMMIT_INTERVAL, pancakeFactory)) {
+            assertEquals(pancakes, storage.pancakeRepository().getPancakesCount(order.getId()));
+        }
+    }
+
+    @Test
+    public void GivenJournalStorage_WhenCreatingOrdersInBulk_ThenBatchJournaledWithOneWaitAndRecovered_Test() throws IOException {
+        Duration commitInterval = Duration.ofMillis(100);
+        Path journalFile = directory.resolve("orders.journal");
+        List<OrderRequest> requests = new ArrayList<>();
+        for (int room = 1; room <= 20; room++) {
+            requests.add(new OrderRequest(1, room));
+        }
+        BulkOrderResult result;
+        try (var storage = JournalStorage.open(journalFile, commitInterval, pancakeFactory)) {
+            var pancakeService = createPancakeService(storage);
+
+            long start = System.nanoTime();
+            result = pancakeService.createOrders(requests);
+            Duration elapsed = Duration.ofNanos(System.nanoTime() - start);
+
+            // one wait per row would take at least forty commit intervals
+            assertTrue(elapsed.compareTo(commitInterval.multipliedBy(10)) < 0, "took " + elapsed);
+        }
+
+        try (var storage = JournalStorage.open(journalFile, COMMIT_INTERVAL, pancakeFactory)) {
+            assertEquals(20, result.orders().size());
+            for (Order order : result.orders()) {
+                assertEquals(order.getRoom(), storage.orderRepository().findById(order.getId()).orElseThrow().getRoom());
+                assertEquals(OrderState.CREATED, storage.orderStateService().get(order.getId()));
+            }
+        }
+    }
+
+    private PancakeService createPancakeService(JournalStorage storage) {
+        var orderFactory = new DefaultOrderFactory(new OrderValidator(new OrderValidatorConfig(1, 10, 1, 100)));
+        return new PancakeService(
+                storage.orderRepository(),
+                orderFactory,
+                new NoLogOrderLogger(),
+                storage.orderStateService(),
+                storage.pancakeRepository(),
+                pancakeFactory
+        );
+    }
+}
@@ -0,0 +1,163 @@
+package org.pancakelab.repository;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.pancakelab.model.orders.DefaultOrderFactory;
+import org.pancakelab.model.orders.Order;
+import org.pancakelab.model.orders.OrderRequest;
+import org.pancakelab.model.orders.OrderState;
+import org.pancakelab.model.orders.OrderValidator;
+import org.pancakelab.model.orders.OrderValidatorConfig;
+import org.pancakelab.model.pancakes.DefaultPancakeFactory;
+import org.pancakelab.model.pancakes.Ingredient;
+import org.pancakelab.model.pancakes.PancakeFactory;
+import org.pancakelab.model.pancakes.PancakeMenu;
+import org.pancakelab.model.pancakes.PancakeRecipe;
+import org.pancakelab.repository.mapped.MappedOrderStore;
+import org.pancakelab.service.PancakeService;
+import org.pancakelab.service.impl.NoLogOrderLogger;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MappedOrderStoreTest {
+    private static final int CAPACITY = 16;
+
+    private final PancakeFactory pancakeFactory = new DefaultPancakeFactory();
+    private final PancakeMenu pancakeMenu = new PancakeMenu(pancakeFactory);
+    private final PancakeRecipe darkChocolate = pancakeFactory.createRecipe(List.of(Ingredient.DARK_CHOCOLATE));
+    private final PancakeRecipe milkChocolateHazelnuts = pancakeFactory.createRecipe(List.of(Ingredient.MILK_CHOCOLATE, Ingredient.HAZELNUTS));
+
+    @TempDir
+    Path directory;
+
+    @Test
+    public void GivenOrdersInMappedStore_WhenReopeningStore_ThenLiveOrdersStillThere_Test() throws IOException {
+        Path file = directory.resolve("orders.mapped");
+        Order completedOrder;
+        Order cancelledOrder;
+        try (var store = MappedOrderStore.open(file, CAPACITY, pancakeMenu)) {
+            var pancakeService = createPancakeService(store);
+            completedOrder = pancakeService.createOrder(1, 10);
+            pancakeService.addPancake(completedOrder.getId(), darkChocolate, 3);
+            pancakeService.addPancake(completedOrder.getId(), milkChocolateHazelnuts, 1);
+            pancakeService.removePancakes(darkChocolate.description(), completedOrder.getId(), 1);
+            pancakeService.completeOrder(completedOrder.getId());
+
+            cancelledOrder = pancakeService.createOrder(2, 20);
+            pancakeService.addPancake(cancelledOrder.getId(), darkChocolate, 1);
+            pancakeService.cancelOrder(cancelledOrder.getId());
+        }
+
+        try (var store = MappedOrderStore.open(file, CAPACITY, pancakeMenu)) {
+            Order recovered = store.orderRepository().findById(completedOrder.getId()).orElseThrow();
+            assertEquals(1, recovered.getBuilding());
+            assertEquals(10, recovered.getRoom());
+            assertEquals(OrderState.COMPLETED, store.orderStateService().get(completedOrder.getId()));
+            assertEquals(Set.of(completedOrder.getId()), store.orderStateService().getOrderIdsByState(OrderState.COMPLETED));
+            assertEquals(1, store.orderStateService().countByState(OrderState.COMPLETED));
+            assertEquals(0, store.orderStateService().countByState(OrderState.CREATED));
+            assertEquals(List.of(darkChocolate.description(), darkChocolate.description(), milkChocolateHazelnuts.description()),
+                    store.pancakeRepository().viewOrderPancakes(completedOrder.getId()));
+
+            assertTrue(store.orderRepository().findById(cancelledOrder.getId()).isEmpty());
+            assertNull(store.orderStateService().get(cancelledOrder.getId()));
+            assertEquals(0, store.pancakeRepository().getPancakesCount(cancelledOrder.getId()));
+            assertEquals(1, store.size());
+        }
+    }
+
+    @Test
+    public void GivenFullMappedStore_WhenSavingAnotherOrder_ThenFailsUntilAnOrderIsDeleted_Test() throws IOException {
+        try (var store = MappedOrderStore.open(directory.resolve("orders.mapped"), CAPACITY, pancakeMenu)) {
+            OrderRepository orderRepository = store.orderRepository();
+            UUID firstOrderId = null;
+            for (int i = 0; i < CAPACITY * 3 / 4; i++) {
+                Order order = Order.restore(UUID.randomUUID(), 1, i + 1);
+                orderRepository.save(order);
+                if (firstOrderId == null) firstOrderId = order.getId();
+            }
+
+            Order extraOrder = Order.restore(UUID.randomUUID(), 1, 1);
+            assertThrows(IllegalStateException.class, () -> orderRepository.save(extraOrder));
+
+            orderRepository.deleteById(firstOrderId);
+            orderRepository.save(extraOrder);
+            assertTrue(orderRepository.findById(extraOrder.getId()).isPresent());
+        }
+    }
+
+    @Test
+    public void GivenCreateDeleteChurnPastCapacity_WhenLookingUpOrders_ThenLookupsStayFastAndOrdersFound_Test() throws IOException {
+        int capacity = 1 << 14;
+        try (var store = MappedOrderStore.open(directory.resolve("orders.mapped"), capacity, pancakeMenu)) {
+            OrderRepository orderRepository = store.orderRepository();
+            List<Order> liveOrders = new ArrayList<>();
+            for (int i = 0; i < capacity / 2; i++) {
+                Order order = Order.restore(UUID.randomUUID(), 1, 1);
+                orderRepository.save(order);
+                liveOrders.add(order);
+            }
+            for (int i = 0; i < capacity * 4; i++) {
+                Order order = Order.restore(UUID.randomUUID(), 2, 2);
+                orderRepository.save(order);
+                orderRepository.deleteById(order.getId());
+            }
+
+            // absent lookups must stay as short as the clusters of the live orders
+            assertTimeoutPreemptively(Duration.ofSeconds(10), () -> {
+                for (int i = 0; i < capacity * 8; i++) {
+                    assertTrue(orderRepository.findById(UUID.randomUUID()).isEmpty());
+                }
+            });
+            for (Order order : liveOrders) {
+                assertEquals(order, orderRepository.findById(order.getId()).orElseThrow());
+            }
+            assertEquals(liveOrders.size(), store.size());
+        }
+    }
+
+    @Test
+    public void GivenMappedStore_WhenCreatingOrdersInBulk_ThenOrdersAndStatesStored_Test() throws IOException {
+        try (var store = MappedOrderStore.open(directory.resolve("orders.mapped"), CAPACITY, pancakeMenu)) {
+            var result = createPancakeService(store).createOrders(List.of(new OrderRequest(1, 1), new OrderRequest(2, 2)));
+
+            assertEquals(2, result.orders().size());
+            for (Order order : result.orders()) {
+                assertEquals(order.getBuilding(), store.orderRepository().findById(order.getId()).orElseThrow().getBuilding());
+            }
+            assertEquals(Set.of(result.orders().get(0).getId(), result.orders().get(1).getId()),
+                    store.orderStateService().getOrderIdsByState(OrderState.CREATED));
+            assertEquals(2, store.size());
+        }
+    }
+
+    @Test
+    public void GivenRecipeWithRepeatedIngredient_WhenAddingToMappedStore_ThenThrowsIllegalArgumentException_Test() throws IOException {
+        PancakeRecipe doubleChocolate = pancakeFactory.createRecipe(List.of(Ingredient.DARK_CHOCOLATE, Ingredient.DARK_CHOCOLATE));
+        try (var store = MappedOrderStore.open(directory.resolve("orders.mapped"), CAPACITY, pancakeMenu)) {
+            UUID orderId = UUID.randomUUID();
+            assertThrows(IllegalArgumentException.class, () -> store.pancakeRepository().addPancake(orderId, doubleChocolate));
+            assertEquals(0, store.size());
+        }
+    }
+
+    private PancakeService createPancakeService(MappedOrderStore store) {
+        var orderFactory = new DefaultOrderFactory(new OrderValidator(new OrderValidatorConfig(1, 10, 1, 100)));
+        return new PancakeService(
+                store.orderRepository(),
+                orderFactory,
+                new NoLogOrderLogger(),
+                store.orderStateService(),
+                store.pancakeRepository(),
+                pancakeFactory
+        );
+    }
+}
@@ -0,0 +1,137 @@
+package org.pancakelab.repository;
+
+import org.junit.jupiter.api.Test;
+import org.pancakelab.repository.impl.UuidByteMap;
+import org.pancakelab.repository.impl.UuidHashMap;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class UuidHashMapTest {
+    @Test
+    public void GivenManyKeysAddedAndRemoved_WhenLookingUp_ThenMapMatchesHashMap_Test() {
+        var map = new UuidHashMap<Integer>(4);
+        Map<UUID, Integer> expected = new HashMap<>();
+        List<UUID> keys = new ArrayList<>();
+        for (int i = 0; i < 20_000; i++) {
+            UUID key = new UUID(i / 7, i);
+            keys.add(key);
+            assertNull(map.put(key, i));
+            expected.put(key, i);
+            if (i % 3 == 0) {
+                UUID removed = keys.get(i / 2);
+                assertEquals(expected.remove(removed), map.remove(removed));
+            }
+        }
+
+        assertEquals(expected.size(), map.size());
+        for (UUID key : keys) {
+            assertEquals(expected.get(key), map.get(key));
+        }
+        Map<UUID, Integer> iterated = new HashMap<>();
+        map.forEach(iterated::put);
+        assertEquals(expected, iterated);
+    }
+
+    @Test
+    public void GivenMappedKey_WhenRemovingWithOtherValueOrComputingIfAbsent_ThenMappingKept_Test() {
+        var map = new UuidHashMap<String>();
+        UUID key = UUID.randomUUID();
+        String value = map.computeIfAbsent(key, id -> "first");
+
+        assertSame(value, map.computeIfAbsent(key, id -> "second"));
+        assertFalse(map.remove(key, new String("first")));
+        assertTrue(map.remove(key, value));
+        assertNull(map.get(key));
+        assertTrue(map.isEmpty());
+    }
+
+    @Test
+    public void GivenBatchOfKeys_WhenPuttingAll_ThenEveryKeyMappedAcrossSegments_Test() {
+        var map = new UuidHashMap<Integer>(8);
+        var byteMap = new UuidByteMap(8);
+        List<UUID> keys = new ArrayList<>();
+        List<Integer> values = new ArrayList<>();
+        for (int i = 0; i < 1_000; i++) {
+            keys.add(UUID.randomUUID());
+            values.add(i);
+        }
+
+        map.putAll(keys, values);
+        byteMap.putAll(keys, 3);
+
+        assertEquals(keys.size(), map.size());
+        assertEquals(keys.size(), byteMap.size());
+        for (int i = 0; i < keys.size(); i++) {
+            assertEquals(i, map.get(keys.get(i)));
+            assertEquals(3, byteMap.get(keys.get(i)));
+        }
+    }
+
+    @Test
+    public void GivenByteMap_WhenUpdatingValues_ThenPreviousValuesReturnedAndOutOfRangeRejected_Test() {
+        var map = new UuidByteMap();
+        UUID key = UUID.randomUUID();
+
+        assertEquals(UuidByteMap.NO_VALUE, map.get(key));
+        assertEquals(UuidByteMap.NO_VALUE, map.put(key, 0));
+        assertEquals(0, map.put(key, UuidByteMap.MAX_VALUE));
+        assertEquals(UuidByteMap.MAX_VALUE, map.get(key));
+        assertEquals(UuidByteMap.MAX_VALUE, map.remove(key));
+        assertEquals(UuidByteMap.NO_VALUE, map.get(key));
+        assertThrows(IllegalArgumentException.class, () -> map.put(key, UuidByteMap.MAX_VALUE + 1));
+    }
+
+    @Test
+    public void GivenConcurrentWritersAndReaders_WhenKeysAreAdded_ThenReadersNeverSeeWrongValues_Test() throws Exception {
+        var map = new UuidHashMap<UUID>(2);
+        int writers = 4;
+        int keysPerWriter = 20_000;
+        ExecutorService executor = Executors.newFixedThreadPool(writers + 1);
+        CountDownLatch start = new CountDownLatch(1);
+        Map<UUID, Boolean> written = new ConcurrentHashMap<>();
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int w = 0; w < writers; w++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < keysPerWriter; i++) {
+                        UUID key = UUID.randomUUID();
+                        map.put(key, key);
+                        written.put(key, true);
+                    }
+                    return null;
+                }));
+            }
+            Future<Integer> reader = executor.submit(() -> {
+                start.await();
+                int wrong = 0;
+                while (written.size() < writers * keysPerWriter) {
+                    for (UUID key : written.keySet()) {
+                        if (!key.equals(map.get(key))) wrong++;
+                    }
+                }
+                return wrong;
+            });
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get();
+            }
+
+            assertEquals(0, reader.get());
+            assertEquals(writers * keysPerWriter, map.size());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package org.pancakelab.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.pancakelab.model.orders.DefaultOrderFactory;
+import org.pancakelab.model.orders.Order;
+import org.pancakelab.model.orders.OrderValidator;
+import org.pancakelab.model.orders.OrderValidatorConfig;
+import org.pancakelab.service.impl.AsyncOrderLogger;
+import org.pancakelab.service.impl.AsyncOrderLogger.BackpressurePolicy;
+
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AsyncOrderLoggerTest {
+    private Order order;
+
+    @BeforeEach
+    public void setUp() {
+        var orderFactory = new DefaultOrderFactory(new OrderValidator(new OrderValidatorConfig(1, 10, 1, 100)));
+        order = orderFactory.createOrder(1, 1);
+    }
+
+    @Test
+    public void GivenEventsLogged_WhenClosingLogger_ThenAllEventsWrittenInOrder_Test() {
+        var output = new ByteArrayOutputStream();
+        var orderLogger = new AsyncOrderLogger(new PrintStream(output, true), 4, BackpressurePolicy.BLOCK);
+
+        for (int i = 1; i <= 10; i++) {
+            orderLogger.logAddPancake(order, "Delicious pancake with dark chocolate!", i);
+        }
+        orderLogger.logCancelOrder(order, 10);
+        orderLogger.close();
+
+        List<String> lines = output.toString().lines().toList();
+        assertEquals(11, lines.size());
+        assertEquals("Added pancake with description 'Delicious pancake with dark chocolate!' " +
+                "to order %s containing 1 pancakes, for building 1, room 1.".formatted(order.getId()), lines.get(0));
+        assertEquals("Cancelled order %s with 10 pancakes for building 1, room 1.".formatted(order.getId()), lines.get(10));
+        assertEquals(0, orderLogger.getDroppedCount());
+    }
+
+    @Test
+    public void GivenBufferFull_WhenLoggingWithDropAndCountPolicy_ThenEventDroppedAndCounted_Test() throws InterruptedException {
+        var writing = new CountDownLatch(1);
+        var release = new CountDownLatch(1);
+        var output = new ByteArrayOutputStream();
+        OutputStream blockingOutput = new OutputStream() {
+            @Override
+            public void write(int b) {
+                write(new byte[]{(byte) b}, 0, 1);
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) {
+                writing.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                output.write(b, off, len);
+            }
+        };
+        var orderLogger = new AsyncOrderLogger(new PrintStream(blockingOutput, true), 2, BackpressurePolicy.DROP_AND_COUNT);
+
+        // the consumer takes the first event and blocks while writing it, the next two fill the buffer
+        orderLogger.logDeliverOrder(order, 1);
+        writing.await();
+        orderLogger.logDeliverOrder(order, 2);
+        orderLogger.logDeliverOrder(order, 3);
+        orderLogger.logDeliverOrder(order, 4);
+        release.countDown();
+        orderLogger.close();
+
+        List<String> lines = output.toString().lines().toList();
+        assertEquals(1, orderLogger.getDroppedCount());
+        assertEquals(4, lines.size());
+        assertEquals("Dropped 1 order log event(s).", lines.get(3));
+        assertTrue(lines.get(2).contains("with 3 pancakes"));
+    }
+
+    @Test
+    public void GivenLoggerClosed_WhenLoggingEvent_ThenEventDropped_Test() {
+        var output = new ByteArrayOutputStream();
+        var orderLogger = new AsyncOrderLogger(new PrintStream(output, true), 4, BackpressurePolicy.BLOCK);
+        orderLogger.close();
+
+        orderLogger.logCancelOrder(order, 1);
+
+        assertEquals(1, orderLogger.getDroppedCount());
+        assertEquals("", output.toString());
+    }
+
+    @Test
+    public void GivenConcurrentLogging_WhenClosingLogger_ThenEveryEventWrittenOrDropped_Test() throws InterruptedException {
+        for (int round = 0; round < 50; round++) {
+            var output = new ByteArrayOutputStream();
+            var orderLogger = new AsyncOrderLogger(new PrintStream(output, true), 1024, BackpressurePolicy.DROP);
+            var started = new CountDownLatch(4);
+            int eventsPerThread = 2_000;
+            List<Thread> threads = new ArrayList<>();
+            for (int t = 0; t < 4; t++) {
+                Thread thread = new Thread(() -> {
+                    started.countDown();
+                    for (int i = 0; i < eventsPerThread; i++) {
+                        orderLogger.logDeliverOrder(order, i);
+                    }
+                });
+                thread.start();
+                threads.add(thread);
+            }
+            started.await();
+            orderLogger.close();
+            for (Thread thread : threads) {
+                thread.join();
+            }
+
+            long written = output.toString().lines().count();
+            assertEquals(4L * eventsPerThread, written + orderLogger.getDroppedCount());
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package org.pancakelab.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.pancakelab.exception.OrderNotFoundException;
+import org.pancakelab.model.orders.DefaultOrderFactory;
+import org.pancakelab.model.orders.Order;
+import org.pancakelab.model.orders.OrderValidator;
+import org.pancakelab.model.orders.OrderValidatorConfig;
+import org.pancakelab.model.pancakes.DefaultPancakeFactory;
+import org.pancakelab.model.pancakes.Ingredient;
+import org.pancakelab.model.pancakes.PancakeFactory;
+import org.pancakelab.model.pancakes.PancakeRecipe;
+import org.pancakelab.repository.impl.InMemoryOrderRepository;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AsyncPancakeServiceTest {
+    private final PancakeFactory pancakeFactory = new DefaultPancakeFactory();
+    private final PancakeRecipe darkChocolate = pancakeFactory.createRecipe(List.of(Ingredient.DARK_CHOCOLATE));
+    private final InMemoryOrderRepository orderRepository = new InMemoryOrderRepository();
+    private AsyncPancakeService pancakeService;
+
+    @BeforeEach
+    public void setUp() {
+        pancakeService = new AsyncPancakeService(new PancakeService.Builder()
+                .withOrderRepository(orderRepository)
+                .withOrderFactory(new DefaultOrderFactory(new OrderValidator(new OrderValidatorConfig(1, 10, 1, 100))))
+                .withPancakeFactory(pancakeFactory)
+                .build());
+    }
+
+    @AfterEach
+    public void tearDown() {
+        pancakeService.close();
+    }
+
+    @Test
+    public void GivenOrder_WhenGoingThroughLifecycleAsynchronously_ThenFuturesCompleteWithResults_Test() throws Exception {
+        Order order = pancakeService.createOrder(1, 10)
+                .thenCompose(created -> pancakeService.addPancake(created.getId(), darkChocolate, 2)
+                        .thenCompose(added -> pancakeService.completeOrder(created.getId()))
+                        .thenCompose(completed -> pancakeService.prepareOrder(created.getId()))
+                        .thenApply(prepared -> created))
+                .get();
+
+        Object[] delivered = pancakeService.deliverOrder(order.getId()).get();
+
+        assertEquals(order, delivered[0]);
+        assertEquals(List.of(darkChocolate.description(), darkChocolate.description()), delivered[1]);
+        assertTrue(pancakeService.viewOrder(order.getId()).get().isEmpty());
+    }
+
+    @Test
+    public void GivenUnknownOrder_WhenCancellingAsynchronously_ThenFutureFailsWithOrderNotFoundException_Test() {
+        CompletableFuture<Void> cancelled = pancakeService.cancelOrder(UUID.randomUUID());
+
+        var failure = assertThrows(ExecutionException.class, cancelled::get);
+        assertInstanceOf(OrderNotFoundException.class, failure.getCause());
+    }
+}
@@ -0,0 +1,76 @@
+package org.pancakelab.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.pancakelab.model.orders.OrderState;
+import org.pancakelab.service.impl.InMemoryOrderStateService;
+import org.pancakelab.service.impl.IndexedOrderStateService;
+import org.pancakelab.service.impl.SingleThreadedOrderStateService;
+
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class IndexedOrderStateServiceTest {
+    private OrderStateService orderStateService;
+    private UUID orderId;
+
+    @BeforeEach
+    public void setUp() {
+        orderStateService = new IndexedOrderStateService();
+        orderId = UUID.randomUUID();
+    }
+
+    @Test
+    public void GivenOrderCreated_WhenUpdatingState_ThenOrderMovesBetweenStateIndexes_Test() {
+        orderStateService.update(orderId, OrderState.CREATED);
+        orderStateService.update(orderId, OrderState.COMPLETED);
+
+        assertEquals(OrderState.COMPLETED, orderStateService.get(orderId));
+        assertEquals(Set.of(), orderStateService.getOrderIdsByState(OrderState.CREATED));
+        assertEquals(Set.of(orderId), orderStateService.getOrderIdsByState(OrderState.COMPLETED));
+    }
+
+    @Test
+    public void GivenOrderPrepared_WhenRemovingOrder_ThenOrderRemovedFromStateIndex_Test() {
+        orderStateService.update(orderId, OrderState.PREPARED);
+        orderStateService.remove(orderId);
+
+        assertNull(orderStateService.get(orderId));
+        assertTrue(orderStateService.getOrderIdsByState(OrderState.PREPARED).isEmpty());
+    }
+
+    @Test
+    public void GivenStateView_WhenOrderStateChanges_ThenViewReflectsChangeAndSnapshotDoesNot_Test() {
+        Set<UUID> view = orderStateService.viewOrderIdsByState(OrderState.PREPARED);
+        Set<UUID> snapshot = orderStateService.getOrderIdsByState(OrderState.PREPARED);
+
+        orderStateService.update(orderId, OrderState.PREPARED);
+
+        assertTrue(view.contains(orderId));
+        assertFalse(snapshot.contains(orderId));
+        assertThrows(UnsupportedOperationException.class, () -> view.remove(orderId));
+    }
+
+    @Test
+    public void GivenStateServices_WhenOrdersChangeState_ThenCountsByStateFollow_Test() {
+        for (OrderStateService service : List.of(new IndexedOrderStateService(), new InMemoryOrderStateService(),
+                new SingleThreadedOrderStateService())) {
+            UUID otherOrderId = UUID.randomUUID();
+            service.updateAll(List.of(orderId, otherOrderId), OrderState.CREATED);
+            service.update(orderId, OrderState.COMPLETED);
+            service.update(orderId, OrderState.COMPLETED);
+            service.updateAll(List.of(orderId), OrderState.PREPARED);
+
+            assertEquals(1, service.countByState(OrderState.CREATED));
+            assertEquals(0, service.countByState(OrderState.COMPLETED));
+            assertEquals(1, service.countByState(OrderState.PREPARED));
+
+            service.remove(otherOrderId);
+            service.remove(otherOrderId);
+            assertEquals(0, service.countByState(OrderState.CREATED));
+        }
+    }
+}
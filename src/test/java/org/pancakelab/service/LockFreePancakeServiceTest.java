@@ -0,0 +1,98 @@
+package org.pancakelab.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.pancakelab.exception.OrderNotFoundException;
+import org.pancakelab.model.orders.DefaultOrderFactory;
+import org.pancakelab.model.orders.Order;
+import org.pancakelab.model.orders.OrderValidator;
+import org.pancakelab.model.orders.OrderValidatorConfig;
+import org.pancakelab.model.pancakes.DefaultPancakeFactory;
+import org.pancakelab.model.pancakes.Ingredient;
+import org.pancakelab.model.pancakes.PancakeFactory;
+import org.pancakelab.model.pancakes.PancakeRecipe;
+import org.pancakelab.service.impl.NoLogOrderLogger;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LockFreePancakeServiceTest {
+    private LockFreePancakeService pancakeService;
+    private PancakeRecipe darkChocolate;
+    private PancakeRecipe milkChocolate;
+    private Order order;
+
+    @BeforeEach
+    public void setUp() {
+        var orderFactory = new DefaultOrderFactory(new OrderValidator(new OrderValidatorConfig(1, 10, 1, 100)));
+        pancakeService = new LockFreePancakeService(orderFactory, new NoLogOrderLogger());
+        PancakeFactory pancakeFactory = new DefaultPancakeFactory();
+        darkChocolate = pancakeFactory.createRecipe(List.of(Ingredient.DARK_CHOCOLATE));
+        milkChocolate = pancakeFactory.createRecipe(List.of(Ingredient.MILK_CHOCOLATE));
+        order = pancakeService.createOrder(1, 1);
+    }
+
+    @Test
+    public void GivenOrderWithPancakes_WhenGoingThroughLifecycle_ThenOrderDeliveredAndRemoved_Test() {
+        pancakeService.addPancake(order.getId(), darkChocolate, 2);
+        pancakeService.addPancake(order.getId(), milkChocolate, 1);
+        pancakeService.removePancakes(darkChocolate.description(), order.getId(), 1);
+
+        assertNull(pancakeService.deliverOrder(order.getId()));
+        pancakeService.completeOrder(order.getId());
+        assertTrue(pancakeService.listCompletedOrders().contains(order.getId()));
+        pancakeService.prepareOrder(order.getId());
+        assertTrue(pancakeService.listPreparedOrders().contains(order.getId()));
+
+        Object[] deliveredOrder = pancakeService.deliverOrder(order.getId());
+
+        assertEquals(order, deliveredOrder[0]);
+        assertEquals(List.of(darkChocolate.description(), milkChocolate.description()), deliveredOrder[1]);
+        assertEquals(List.of(), pancakeService.viewOrder(order.getId()));
+        assertFalse(pancakeService.listPreparedOrders().contains(order.getId()));
+    }
+
+    @Test
+    public void GivenOrderCancelled_WhenModifyingOrder_ThenThrowsOrderNotFoundException_Test() {
+        pancakeService.cancelOrder(order.getId());
+
+        assertThrows(OrderNotFoundException.class, () -> pancakeService.addPancake(order.getId(), darkChocolate, 1));
+        assertThrows(OrderNotFoundException.class, () -> pancakeService.completeOrder(order.getId()));
+        assertThrows(OrderNotFoundException.class, () -> pancakeService.cancelOrder(order.getId()));
+        assertThrows(OrderNotFoundException.class, () -> pancakeService.removePancakes(darkChocolate.description(), UUID.randomUUID(), 1));
+    }
+
+    @Test
+    public void GivenConcurrentAddAndRemove_WhenOperatingOnSameOrder_ThenFinalPancakeCountIsConsistent_Test() throws InterruptedException {
+        int threads = 5;
+        int pancakesPerThread = 200;
+        pancakeService.addPancake(order.getId(), darkChocolate, threads * pancakesPerThread);
+        ExecutorService executor = Executors.newFixedThreadPool(threads * 2);
+        CountDownLatch latch = new CountDownLatch(threads * 2);
+
+        for (int i = 0; i < threads; i++) {
+            executor.submit(() -> {
+                for (int j = 0; j < pancakesPerThread; j++) {
+                    pancakeService.addPancake(order.getId(), darkChocolate, 1);
+                }
+                latch.countDown();
+            });
+            executor.submit(() -> {
+                for (int j = 0; j < pancakesPerThread; j++) {
+                    pancakeService.removePancakes(darkChocolate.description(), order.getId(), 1);
+                }
+                latch.countDown();
+            });
+        }
+
+        latch.await();
+        executor.shutdown();
+
+        assertEquals(threads * pancakesPerThread, pancakeService.viewOrder(order.getId()).size());
+    }
+}
@@ -0,0 +1,135 @@
+package org.pancakelab.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.pancakelab.model.orders.DefaultOrderFactory;
+import org.pancakelab.model.orders.Order;
+import org.pancakelab.model.orders.OrderEvent;
+import org.pancakelab.model.orders.OrderValidator;
+import org.pancakelab.model.orders.OrderValidatorConfig;
+import org.pancakelab.model.pancakes.DefaultPancakeFactory;
+import org.pancakelab.model.pancakes.Ingredient;
+import org.pancakelab.model.pancakes.PancakeFactory;
+import org.pancakelab.model.pancakes.PancakeRecipe;
+import org.pancakelab.service.impl.SubmissionOrderEventPublisher;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class OrderEventFeedTest {
+    private ExecutorService executor;
+    private SubmissionOrderEventPublisher orderEventPublisher;
+    private PancakeService pancakeService;
+    private final PancakeFactory pancakeFactory = new DefaultPancakeFactory();
+    private final PancakeRecipe darkChocolate = pancakeFactory.createRecipe(List.of(Ingredient.DARK_CHOCOLATE));
+
+    @BeforeEach
+    public void setUp() {
+        executor = Executors.newSingleThreadExecutor();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        orderEventPublisher.close();
+        executor.shutdownNow();
+    }
+
+    private void createPancakeService(int bufferCapacity) {
+        orderEventPublisher = new SubmissionOrderEventPublisher(executor, bufferCapacity);
+        pancakeService = new PancakeService.Builder()
+                .withOrderFactory(new DefaultOrderFactory(new OrderValidator(new OrderValidatorConfig(1, 10, 1, 100))))
+                .withPancakeFactory(pancakeFactory)
+                .withOrderEventPublisher(orderEventPublisher)
+                .build();
+    }
+
+    @Test
+    public void GivenSubscriber_WhenOrderGoesThroughLifecycle_ThenEventsReceivedInOrder_Test() throws InterruptedException {
+        createPancakeService(16);
+        var subscriber = new RecordingSubscriber(1);
+        pancakeService.orderEvents().subscribe(subscriber);
+        assertTrue(subscriber.subscribed.await(1, TimeUnit.SECONDS));
+
+        Order order = pancakeService.createOrder(1, 10);
+        pancakeService.addPancake(order.getId(), darkChocolate, 3);
+        pancakeService.removePancakes(darkChocolate.description(), order.getId(), 1);
+        pancakeService.removePancakes("Delicious pancake with ketchup!", order.getId(), 1);
+        pancakeService.completeOrder(order.getId());
+        pancakeService.prepareOrder(order.getId());
+        pancakeService.deliverOrder(order.getId());
+        orderEventPublisher.close();
+
+        assertTrue(subscriber.completed.await(1, TimeUnit.SECONDS));
+        assertEquals(List.of(
+                new OrderEvent(OrderEvent.Type.CREATED, order, null, 0, 0),
+                new OrderEvent(OrderEvent.Type.PANCAKES_ADDED, order, darkChocolate.description(), 3, 3),
+                new OrderEvent(OrderEvent.Type.PANCAKES_REMOVED, order, darkChocolate.description(), 1, 2),
+                new OrderEvent(OrderEvent.Type.COMPLETED, order, null, 0, 2),
+                new OrderEvent(OrderEvent.Type.PREPARED, order, null, 0, 2),
+                new OrderEvent(OrderEvent.Type.DELIVERED, order, null, 0, 2)
+        ), subscriber.events);
+        assertEquals(0, orderEventPublisher.getDroppedCount());
+    }
+
+    @Test
+    public void GivenSubscriberWithoutDemand_WhenOrdersChange_ThenMutationsNotBlockedAndEventsDropped_Test() throws InterruptedException {
+        createPancakeService(1);
+        var subscriber = new RecordingSubscriber(0);
+        pancakeService.orderEvents().subscribe(subscriber);
+        assertTrue(subscriber.subscribed.await(1, TimeUnit.SECONDS));
+
+        for (int i = 0; i < 100; i++) {
+            Order order = pancakeService.createOrder(1, 10);
+            pancakeService.cancelOrder(order.getId());
+        }
+
+        assertEquals(0, pancakeService.listCompletedOrders().size());
+        assertTrue(subscriber.events.isEmpty());
+        assertEquals(199, orderEventPublisher.getDroppedCount());
+    }
+
+    /**
+     * Requests events one at a time, or never if created with an initial demand of 0.
+     */
+    private static class RecordingSubscriber implements Flow.Subscriber<OrderEvent> {
+        private final long demand;
+        private final List<OrderEvent> events = new CopyOnWriteArrayList<>();
+        private final CountDownLatch subscribed = new CountDownLatch(1);
+        private final CountDownLatch completed = new CountDownLatch(1);
+        private Flow.Subscription subscription;
+
+        private RecordingSubscriber(long demand) {
+            this.demand = demand;
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            this.subscription = subscription;
+            if (demand > 0) subscription.request(demand);
+            subscribed.countDown();
+        }
+
+        @Override
+        public void onNext(OrderEvent event) {
+            events.add(event);
+            subscription.request(demand);
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+        }
+
+        @Override
+        public void onComplete() {
+            completed.countDown();
+        }
+    }
+}
@@ -0,0 +1,211 @@
+package org.pancakelab.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.pancakelab.exception.OrderNotFoundException;
+import org.pancakelab.model.orders.DefaultOrderFactory;
+import org.pancakelab.model.orders.Order;
+import org.pancakelab.model.orders.OrderValidator;
+import org.pancakelab.model.orders.OrderValidatorConfig;
+import org.pancakelab.model.pancakes.DefaultPancakeFactory;
+import org.pancakelab.model.pancakes.Ingredient;
+import org.pancakelab.model.pancakes.PancakeFactory;
+import org.pancakelab.model.pancakes.PancakeRecipe;
+import org.pancakelab.repository.impl.InMemoryOrderRepository;
+import org.pancakelab.repository.impl.InMemoryPancakeRepository;
+import org.pancakelab.service.impl.InMemoryOrderStateService;
+import org.pancakelab.service.impl.NoLogOrderLogger;
+import org.pancakelab.service.impl.TimingWheelOrderExpiryTracker;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class OrderExpiryTest {
+    private static final Duration TTL = Duration.ofMinutes(30);
+
+    private final PancakeFactory pancakeFactory = new DefaultPancakeFactory();
+    private final PancakeRecipe darkChocolate = pancakeFactory.createRecipe(List.of(Ingredient.DARK_CHOCOLATE));
+    private final List<Order> expiredOrders = new ArrayList<>();
+    private ManualClock clock;
+    private FailingOnceOrderRepository orderRepository;
+    private InMemoryOrderStateService orderStateService;
+    private InMemoryPancakeRepository pancakeRepository;
+    private PancakeService pancakeService;
+
+    @BeforeEach
+    public void setUp() {
+        clock = new ManualClock();
+        orderRepository = new FailingOnceOrderRepository();
+        orderStateService = new InMemoryOrderStateService();
+        pancakeRepository = new InMemoryPancakeRepository();
+        createPancakeService(TTL);
+    }
+
+    private void createPancakeService(Duration ttl) {
+        pancakeService = new PancakeService.Builder()
+                .withOrderRepository(orderRepository)
+                .withOrderFactory(new DefaultOrderFactory(new OrderValidator(new OrderValidatorConfig(1, 10, 1, 100))))
+                .withOrderLogger(new NoLogOrderLogger() {
+                    @Override
+                    public void logExpireOrder(Order order, int pancakesInOrder) {
+                        expiredOrders.add(order);
+                    }
+                })
+                .withOrderStateService(orderStateService)
+                .withPancakeRepository(pancakeRepository)
+                .withPancakeFactory(pancakeFactory)
+                .withOrderExpiryTracker(new TimingWheelOrderExpiryTracker(ttl, Duration.ofSeconds(1), clock))
+                .build();
+    }
+
+    @Test
+    public void GivenAbandonedOrder_WhenTimeToLiveElapsed_ThenOrderRemovedAndExpiryLogged_Test() {
+        Order order = pancakeService.createOrder(1, 10);
+        pancakeService.addPancake(order.getId(), darkChocolate, 2);
+
+        clock.advance(TTL.minusSeconds(1));
+        assertEquals(0, pancakeService.expireOrders());
+
+        clock.advance(Duration.ofSeconds(1));
+        assertEquals(1, pancakeService.expireOrders());
+
+        assertEquals(List.of(order), expiredOrders);
+        assertTrue(pancakeService.viewOrder(order.getId()).isEmpty());
+        assertThrows(OrderNotFoundException.class, () -> pancakeService.cancelOrder(order.getId()));
+    }
+
+    @Test
+    public void GivenTouchedAndCompletedOrders_WhenOriginalTimeToLiveElapsed_ThenOnlyIdleOrdersExpire_Test() {
+        Order touched = pancakeService.createOrder(1, 10);
+        Order completed = pancakeService.createOrder(1, 11);
+        pancakeService.completeOrder(completed.getId());
+
+        clock.advance(TTL.dividedBy(2));
+        pancakeService.addPancake(touched.getId(), darkChocolate, 1);
+        clock.advance(TTL.dividedBy(2));
+        assertEquals(0, pancakeService.expireOrders());
+        assertEquals(1, pancakeService.viewOrder(touched.getId()).size());
+
+        clock.advance(TTL.dividedBy(2));
+        assertEquals(1, pancakeService.expireOrders());
+        assertEquals(List.of(touched), expiredOrders);
+        assertEquals(1, pancakeService.listCompletedOrders().size());
+    }
+
+    @Test
+    public void GivenTimeToLiveBeyondLowestWheels_WhenTimeAdvancesInSteps_ThenOrderExpiresOnTime_Test() {
+        Duration ttl = Duration.ofDays(3);
+        createPancakeService(ttl);
+        Order order = pancakeService.createOrder(1, 10);
+
+        Duration elapsed = Duration.ZERO;
+        while (elapsed.compareTo(ttl) < 0) {
+            assertEquals(0, pancakeService.expireOrders());
+            clock.advance(Duration.ofMinutes(37));
+            elapsed = elapsed.plusMinutes(37);
+        }
+        assertEquals(1, pancakeService.expireOrders());
+        assertEquals(List.of(order), expiredOrders);
+    }
+
+    @Test
+    public void GivenCreatedOrdersInExistingStores_WhenServiceRestartedAndTimeToLiveElapsed_ThenOrdersExpire_Test() {
+        Order abandoned = pancakeService.createOrder(1, 10);
+        Order completed = pancakeService.createOrder(1, 11);
+        pancakeService.completeOrder(completed.getId());
+
+        clock.advance(TTL.dividedBy(2));
+        createPancakeService(TTL);
+        clock.advance(TTL.dividedBy(2));
+        assertEquals(0, pancakeService.expireOrders());
+
+        clock.advance(TTL.dividedBy(2));
+        assertEquals(1, pancakeService.expireOrders());
+        assertEquals(List.of(abandoned), expiredOrders);
+        assertEquals(1, pancakeService.listCompletedOrders().size());
+    }
+
+    @Test
+    public void GivenStoreFailingBeforeExpiryConfirmed_WhenExpireOrdersRetried_ThenOrderExpires_Test() {
+        Order order = pancakeService.createOrder(1, 10);
+
+        clock.advance(TTL);
+        orderRepository.failNextFind = true;
+        assertThrows(IllegalStateException.class, () -> pancakeService.expireOrders());
+        assertTrue(expiredOrders.isEmpty());
+
+        clock.advance(Duration.ofSeconds(1));
+        assertEquals(1, pancakeService.expireOrders());
+        assertEquals(List.of(order), expiredOrders);
+        assertThrows(OrderNotFoundException.class, () -> pancakeService.cancelOrder(order.getId()));
+    }
+
+    @Test
+    public void GivenStoreFailingAfterExpiryConfirmed_WhenExpireOrdersRetried_ThenOrderExpires_Test() {
+        Order order = pancakeService.createOrder(1, 10);
+
+        clock.advance(TTL);
+        orderRepository.failNextDelete = true;
+        assertThrows(IllegalStateException.class, () -> pancakeService.expireOrders());
+
+        clock.advance(Duration.ofSeconds(1));
+        assertEquals(1, pancakeService.expireOrders());
+        assertEquals(List.of(order, order), expiredOrders);
+        assertThrows(OrderNotFoundException.class, () -> pancakeService.cancelOrder(order.getId()));
+    }
+
+    private static class FailingOnceOrderRepository extends InMemoryOrderRepository {
+        private boolean failNextFind;
+        private boolean failNextDelete;
+
+        @Override
+        public Optional<Order> findById(UUID orderId) {
+            if (failNextFind) {
+                failNextFind = false;
+                throw new IllegalStateException("Store unavailable");
+            }
+            return super.findById(orderId);
+        }
+
+        @Override
+        public void deleteById(UUID orderId) {
+            if (failNextDelete) {
+                failNextDelete = false;
+                throw new IllegalStateException("Store unavailable");
+            }
+            super.deleteById(orderId);
+        }
+    }
+
+    private static class ManualClock extends Clock {
+        private Instant now = Instant.parse("2025-01-01T00:00:00Z");
+
+        private void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
@@ -21,8 +21,13 @@ import java.util.UUID;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 class PancakeServiceConcurrencyTest {
 
@@ -151,4 +156,53 @@ class PancakeServiceConcurrencyTest {
                     "Each order should have the correct number of pancakes after parallel execution.");
         }
     }
-}
\ No newline at end of file
+
+    @Test
+    void GivenWriterAddingAndRemovingInBatches_WhenViewingOrderConcurrently_ThenOnlyWholeBatchesObserved_Test() throws Exception {
+        int batchSize = 10;
+        int batches = 500;
+        PancakeRecipe recipe = pancakeFactory.createRecipe(List.of(Ingredient.HAZELNUTS));
+        AtomicBoolean writing = new AtomicBoolean(true);
+        AtomicInteger tornReads = new AtomicInteger();
+
+        ExecutorService executor = Executors.newFixedThreadPool(3);
+        CountDownLatch latch = new CountDownLatch(2);
+        List<Future<?>> readers = new ArrayList<>();
+        for (int i = 0; i < 2; i++) {
+            readers.add(executor.submit(() -> {
+                try {
+                    while (writing.get()) {
+                        int size = pancakeService.viewOrder(orderId).size();
+                        if (size % batchSize != 0) tornReads.incrementAndGet();
+                    }
+                } finally {
+                    latch.countDown();
+                }
+            }));
+        }
+        Future<?> writer = executor.submit(() -> {
+            try {
+                for (int j = 0; j < batches; j++) {
+                    pancakeService.addPancake(orderId, recipe, batchSize);
+                    pancakeService.removePancakes(recipe.description(), orderId, batchSize);
+                }
+            } finally {
+                writing.set(false);
+            }
+        });
+
+        try {
+            assertTrue(latch.await(30, TimeUnit.SECONDS), "Readers should stop once the writer is done.");
+            // rethrow any failure of the readers or the writer
+            for (Future<?> reader : readers) {
+                reader.get();
+            }
+            writer.get(30, TimeUnit.SECONDS);
+        } finally {
+            writing.set(false);
+            executor.shutdownNow();
+        }
+
+        assertEquals(0, tornReads.get(), "Readers should never observe a half-applied batch.");
+    }
+}
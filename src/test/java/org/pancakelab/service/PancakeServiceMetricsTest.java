@@ -0,0 +1,109 @@
+package org.pancakelab.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.pancakelab.exception.OrderNotFoundException;
+import org.pancakelab.model.orders.DefaultOrderFactory;
+import org.pancakelab.model.orders.Order;
+import org.pancakelab.model.orders.OrderValidator;
+import org.pancakelab.model.orders.OrderValidatorConfig;
+import org.pancakelab.model.pancakes.DefaultPancakeFactory;
+import org.pancakelab.model.pancakes.Ingredient;
+import org.pancakelab.model.pancakes.PancakeFactory;
+import org.pancakelab.model.pancakes.PancakeRecipe;
+import org.pancakelab.service.impl.IndexedOrderStateService;
+import org.pancakelab.service.metrics.LatencyHistogram;
+import org.pancakelab.service.metrics.PancakeServiceMetrics;
+import org.pancakelab.service.metrics.PancakeServiceMetrics.Operation;
+
+import javax.management.Attribute;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PancakeServiceMetricsTest {
+    private final PancakeFactory pancakeFactory = new DefaultPancakeFactory();
+    private final PancakeRecipe darkChocolate = pancakeFactory.createRecipe(List.of(Ingredient.DARK_CHOCOLATE));
+    private PancakeServiceMetrics metrics;
+    private PancakeService pancakeService;
+
+    @BeforeEach
+    public void setUp() {
+        metrics = new PancakeServiceMetrics(true);
+        pancakeService = new PancakeService.Builder()
+                .withOrderFactory(new DefaultOrderFactory(new OrderValidator(new OrderValidatorConfig(1, 10, 1, 100))))
+                .withOrderStateService(new IndexedOrderStateService())
+                .withPancakeFactory(pancakeFactory)
+                .withMetrics(metrics)
+                .build();
+    }
+
+    @Test
+    public void GivenValuesSpanningMagnitudes_WhenRecorded_ThenPercentilesWithinRelativeError_Test() {
+        var histogram = new LatencyHistogram();
+        for (int value = 1; value <= 10_000; value++) {
+            histogram.record(value);
+        }
+
+        assertEquals(10_000, histogram.getCount());
+        assertEquals(5_000.5, histogram.getMean(), 0.001);
+        assertEquals(5_000, histogram.getValueAtPercentile(50), 5_000 / 16.0);
+        assertEquals(9_900, histogram.getValueAtPercentile(99), 9_900 / 16.0);
+        assertTrue(histogram.getMax() >= 10_000 && histogram.getMax() < 10_000 * 17 / 16);
+    }
+
+    @Test
+    public void GivenEnabledMetrics_WhenOrderGoesThroughLifecycle_ThenCallsLocksAndSizesRecorded_Test() {
+        Order order = pancakeService.createOrder(1, 10);
+        pancakeService.addPancake(order.getId(), darkChocolate, 3);
+        pancakeService.completeOrder(order.getId());
+        pancakeService.prepareOrder(order.getId());
+        assertEquals(1L, metrics.getGauges().get("OrdersPrepared"));
+        pancakeService.deliverOrder(order.getId());
+
+        assertEquals(1, metrics.getCalls(Operation.CREATE_ORDER));
+        assertEquals(1, metrics.getCalls(Operation.ADD_PANCAKE));
+        assertEquals(1, metrics.getCalls(Operation.DELIVER_ORDER));
+        assertEquals(0, metrics.getFailures(Operation.ADD_PANCAKE));
+        assertEquals(4, metrics.getLockWait().getCount());
+        assertEquals(4, metrics.getLockHold().getCount());
+        assertEquals(1, metrics.getPancakesPerOrder().getCount());
+        assertEquals(3, metrics.getPancakesPerOrder().getMax());
+        assertEquals(0L, metrics.getGauges().get("OrdersPrepared"));
+        assertEquals(0L, metrics.getGauges().get("LoggerQueueDepth"));
+    }
+
+    @Test
+    public void GivenUnknownOrder_WhenCancelled_ThenFailureAndOrderNotFoundCounted_Test() {
+        assertThrows(OrderNotFoundException.class, () -> pancakeService.cancelOrder(UUID.randomUUID()));
+
+        assertEquals(1, metrics.getCalls(Operation.CANCEL_ORDER));
+        assertEquals(1, metrics.getFailures(Operation.CANCEL_ORDER));
+        assertEquals(1, metrics.getOrdersNotFound());
+    }
+
+    @Test
+    public void GivenMetricsDisabledThroughJmx_WhenOrdersCreated_ThenNothingRecorded_Test() throws Exception {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        ObjectName name = metrics.registerMBean("org.pancakelab:type=PancakeService,name=metricsTest");
+        try {
+            pancakeService.createOrder(1, 10);
+            assertEquals(1L, server.getAttribute(name, "CreateOrderCalls"));
+            assertEquals(1L, server.getAttribute(name, "OrdersCreated"));
+
+            server.setAttribute(name, new Attribute("Enabled", false));
+            pancakeService.createOrder(1, 10);
+
+            assertFalse(metrics.isEnabled());
+            assertEquals(1L, server.getAttribute(name, "CreateOrderCalls"));
+            server.invoke(name, "reset", null, null);
+            assertEquals(0L, server.getAttribute(name, "CreateOrderCalls"));
+        } finally {
+            server.unregisterMBean(name);
+        }
+    }
+}
@@ -6,12 +6,18 @@ import org.junit.jupiter.api.TestInstance;
 import org.junit.jupiter.api.TestMethodOrder;
 import org.pancakelab.exception.OrderNotFoundException;
 import org.pancakelab.exception.ValidationException;
+import org.pancakelab.model.orders.BulkOrderResult;
 import org.pancakelab.model.orders.DefaultOrderFactory;
+import org.pancakelab.model.orders.DeliveredOrder;
 import org.pancakelab.model.orders.Order;
+import org.pancakelab.model.orders.OrderRequest;
+import org.pancakelab.model.orders.OrderState;
 import org.pancakelab.model.orders.OrderValidator;
 import org.pancakelab.model.orders.OrderValidatorConfig;
 import org.pancakelab.model.pancakes.DefaultPancakeFactory;
+import org.pancakelab.model.pancakes.Ingredient;
 import org.pancakelab.model.pancakes.PancakeFactory;
+import org.pancakelab.model.pancakes.PancakeRecipe;
 import org.pancakelab.repository.OrderRepository;
 import org.pancakelab.repository.PancakeRepository;
 import org.pancakelab.repository.impl.InMemoryOrderRepository;
@@ -19,7 +25,9 @@ import org.pancakelab.repository.impl.InMemoryPancakeRepository;
 import org.pancakelab.service.impl.ConsoleLogger;
 import org.pancakelab.service.impl.InMemoryOrderStateService;
 
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
 
@@ -211,6 +219,197 @@ public class PancakeServiceTest {
         // tear down
     }
 
+    @Test
+    @org.junit.jupiter.api.Order(80)
+    public void GivenOrderExists_WhenAddingPancakesInBatch_ThenAllPancakesAdded_Test() {
+        // setup
+        order = pancakeService.createOrder(MIN_BUILDING, MIN_ROOM);
+        Map<PancakeRecipe, Integer> cart = new LinkedHashMap<>();
+        cart.put(pancakeFactory.createRecipe(List.of(Ingredient.DARK_CHOCOLATE)), 2);
+        cart.put(pancakeFactory.createRecipe(List.of(Ingredient.MILK_CHOCOLATE, Ingredient.HAZELNUTS)), 1);
+        cart.put(pancakeFactory.createRecipe(List.of(Ingredient.MILK_CHOCOLATE)), 0);
+
+        // exercise
+        pancakeService.addPancakes(order.getId(), cart);
+
+        // verify
+        List<String> ordersPancakes = pancakeService.viewOrder(order.getId());
+
+        assertEquals(List.of(DARK_CHOCOLATE_PANCAKE_DESCRIPTION,
+                DARK_CHOCOLATE_PANCAKE_DESCRIPTION,
+                MILK_CHOCOLATE_HAZELNUTS_PANCAKE_DESCRIPTION), ordersPancakes);
+        assertThrows(OrderNotFoundException.class, () -> pancakeService.addPancakes(UUID.randomUUID(), cart));
+
+        // tear down
+        pancakeService.cancelOrder(order.getId());
+        order = null;
+    }
+
+    @Test
+    @org.junit.jupiter.api.Order(90)
+    public void GivenPreparedOrders_WhenDrainingForDelivery_ThenOldestOrdersDeliveredInBatch_Test() {
+        // setup
+        Order first = pancakeService.createOrder(MIN_BUILDING, MIN_ROOM);
+        Order second = pancakeService.createOrder(MIN_BUILDING, MIN_ROOM + 1);
+        Order cancelled = pancakeService.createOrder(MIN_BUILDING, MIN_ROOM + 2);
+        Order third = pancakeService.createOrder(MIN_BUILDING, MIN_ROOM + 3);
+        pancakeService.addPancake(first.getId(), pancakeFactory.createRecipe(List.of(Ingredient.DARK_CHOCOLATE)), 2);
+        for (Order preparedOrder : List.of(first, cancelled, second, third)) {
+            pancakeService.completeOrder(preparedOrder.getId());
+            pancakeService.prepareOrder(preparedOrder.getId());
+        }
+        pancakeService.prepareOrder(first.getId());
+        pancakeService.cancelOrder(cancelled.getId());
+
+        // exercise
+        List<DeliveredOrder> firstBatch = pancakeService.drainForDelivery(2);
+        List<DeliveredOrder> secondBatch = pancakeService.drainForDelivery(2);
+
+        // verify
+        assertEquals(List.of(
+                new DeliveredOrder(first, List.of(DARK_CHOCOLATE_PANCAKE_DESCRIPTION, DARK_CHOCOLATE_PANCAKE_DESCRIPTION)),
+                new DeliveredOrder(second, List.of())
+        ), firstBatch);
+        assertEquals(List.of(new DeliveredOrder(third, List.of())), secondBatch);
+        assertTrue(pancakeService.drainForDelivery(2).isEmpty());
+        assertFalse(pancakeService.listPreparedOrders().contains(first.getId()));
+        assertThrows(ValidationException.class, () -> pancakeService.drainForDelivery(0));
+
+        // tear down
+    }
+
+    @Test
+    @org.junit.jupiter.api.Order(100)
+    public void GivenPreparedOrdersInSeveralBuildings_WhenPlanningDelivery_ThenGroupedByBuildingAndSortedByRoom_Test() {
+        // setup
+        Order building2Room5 = pancakeService.createOrder(MIN_BUILDING + 1, 5);
+        Order building1Room9 = pancakeService.createOrder(MIN_BUILDING, 9);
+        Order building1Room3 = pancakeService.createOrder(MIN_BUILDING, 3);
+        Order building1Room7 = pancakeService.createOrder(MIN_BUILDING, 7);
+        Order completedOnly = pancakeService.createOrder(MIN_BUILDING, 1);
+        for (Order preparedOrder : List.of(building2Room5, building1Room9, building1Room3, building1Room7, completedOnly)) {
+            pancakeService.completeOrder(preparedOrder.getId());
+            pancakeService.prepareOrder(preparedOrder.getId());
+        }
+        pancakeService.completeOrder(completedOnly.getId());
+
+        // exercise
+        Map<Integer, List<Order>> plan = pancakeService.deliveryPlanner().getPreparedOrdersByBuilding();
+        List<DeliveredOrder> delivered = pancakeService.drainBuildingForDelivery(MIN_BUILDING, 2);
+
+        // verify
+        assertEquals(Map.of(
+                MIN_BUILDING, List.of(building1Room3, building1Room7, building1Room9),
+                MIN_BUILDING + 1, List.of(building2Room5)
+        ), plan);
+        assertEquals(List.of(building1Room3, building1Room7), delivered.stream().map(DeliveredOrder::order).toList());
+        assertEquals(List.of(building1Room9), pancakeService.deliveryPlanner().getPreparedOrders(MIN_BUILDING));
+        assertEquals(List.of(building2Room5), pancakeService.deliveryPlanner().getPreparedOrders(MIN_BUILDING + 1));
+
+        // tear down
+        for (Order remaining : List.of(building2Room5, building1Room9, completedOnly)) {
+            pancakeService.cancelOrder(remaining.getId());
+        }
+        assertTrue(pancakeService.deliveryPlanner().getPreparedOrdersByBuilding().isEmpty());
+    }
+
+    @Test
+    @org.junit.jupiter.api.Order(110)
+    public void GivenImportWithInvalidRows_WhenCreatingOrdersInBulk_ThenValidOrdersStoredAndInvalidRowsReported_Test() {
+        // setup
+        List<OrderRequest> requests = List.of(
+                new OrderRequest(MIN_BUILDING, MIN_ROOM),
+                new OrderRequest(MAX_BUILDING + 1, MIN_ROOM),
+                new OrderRequest(MAX_BUILDING, MAX_ROOM),
+                new OrderRequest(MIN_BUILDING, MAX_ROOM + 1)
+        );
+
+        // exercise
+        BulkOrderResult result = pancakeService.createOrders(requests.stream());
+
+        // verify
+        assertEquals(2, result.orders().size());
+        assertEquals(MIN_ROOM, result.orders().get(0).getRoom());
+        assertEquals(MAX_BUILDING, result.orders().get(1).getBuilding());
+        assertEquals(List.of(
+                new BulkOrderResult.RowError(1, MAX_BUILDING + 1, MIN_ROOM, "Building number must be between 1 and 10."),
+                new BulkOrderResult.RowError(3, MIN_BUILDING, MAX_ROOM + 1, "Room number must be between 1 and 100.")
+        ), result.errors());
+        for (Order created : result.orders()) {
+            assertEquals(created, orderRepository.findById(created.getId()).orElseThrow());
+            assertEquals(OrderState.CREATED, orderStateService.get(created.getId()));
+        }
+
+        // tear down
+        for (Order created : result.orders()) {
+            pancakeService.cancelOrder(created.getId());
+        }
+    }
+
+    @Test
+    @org.junit.jupiter.api.Order(120)
+    public void GivenOrderExists_WhenAddingAndRemovingPancakesByMenuRecipeId_ThenOrderUpdated_Test() {
+        // setup
+        order = pancakeService.createOrder(MIN_BUILDING, MIN_ROOM);
+        int darkChocolateId = pancakeService.menu().idOf(DARK_CHOCOLATE_PANCAKE_DESCRIPTION);
+        int milkChocolateId = pancakeService.menu().idOf(MILK_CHOCOLATE_PANCAKE_DESCRIPTION);
+
+        // exercise
+        pancakeService.addPancake(order.getId(), darkChocolateId, 2);
+        pancakeService.addPancake(order.getId(), milkChocolateId, 1);
+        pancakeService.removePancakes(darkChocolateId, order.getId(), 1);
+
+        // verify
+        assertEquals(List.of(DARK_CHOCOLATE_PANCAKE_DESCRIPTION, MILK_CHOCOLATE_PANCAKE_DESCRIPTION),
+                pancakeService.viewOrder(order.getId()));
+        assertThrows(ValidationException.class, () -> pancakeService.addPancake(order.getId(), 0, 1));
+
+        // tear down
+        pancakeService.cancelOrder(order.getId());
+    }
+
+    @Test
+    @org.junit.jupiter.api.Order(130)
+    public void GivenPreparedIdWithoutOrderQueuedBeforeOrder_WhenDrainingForDelivery_ThenIdSkippedAndOrderDelivered_Test() {
+        // setup
+        UUID unknownOrderId = UUID.randomUUID();
+        pancakeService.prepareOrder(unknownOrderId);
+        order = pancakeService.createOrder(MIN_BUILDING, MIN_ROOM);
+        pancakeService.addDarkChocolatePancake(order.getId(), 1);
+        pancakeService.prepareOrder(order.getId());
+
+        // exercise
+        List<DeliveredOrder> delivered = pancakeService.drainForDelivery(10);
+
+        // verify
+        assertEquals(1, delivered.size());
+        assertEquals(order, delivered.get(0).order());
+        assertEquals(List.of(DARK_CHOCOLATE_PANCAKE_DESCRIPTION), delivered.get(0).pancakes());
+        assertThrows(OrderNotFoundException.class, () -> pancakeService.deliverOrder(unknownOrderId));
+
+        // tear down
+        orderStateService.remove(unknownOrderId);
+    }
+
+    @Test
+    @org.junit.jupiter.api.Order(131)
+    public void GivenOrderCompletedAndPreparedAgain_WhenDrainingForDelivery_ThenOrdersDeliveredInOrderOfLastPreparation_Test() {
+        // setup
+        Order first = pancakeService.createOrder(MIN_BUILDING, MIN_ROOM);
+        Order second = pancakeService.createOrder(MIN_BUILDING, MIN_ROOM);
+        pancakeService.prepareOrder(first.getId());
+        pancakeService.prepareOrder(second.getId());
+        pancakeService.completeOrder(first.getId());
+        pancakeService.prepareOrder(first.getId());
+
+        // exercise
+        List<DeliveredOrder> delivered = pancakeService.drainForDelivery(10);
+
+        // verify
+        assertEquals(List.of(second, first), delivered.stream().map(DeliveredOrder::order).toList());
+        assertTrue(pancakeService.drainForDelivery(10).isEmpty());
+    }
+
     private void addPancakes() {
         pancakeService.addDarkChocolatePancake(order.getId(), 3);
         pancakeService.addMilkChocolatePancake(order.getId(), 3);
@@ -0,0 +1,121 @@
+package org.pancakelab.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.pancakelab.exception.OrderNotFoundException;
+import org.pancakelab.model.orders.BulkOrderResult;
+import org.pancakelab.model.orders.DefaultOrderFactory;
+import org.pancakelab.model.orders.DeliveredOrder;
+import org.pancakelab.model.orders.Order;
+import org.pancakelab.model.orders.OrderRequest;
+import org.pancakelab.model.orders.OrderValidator;
+import org.pancakelab.model.orders.OrderValidatorConfig;
+import org.pancakelab.model.pancakes.DefaultPancakeFactory;
+import org.pancakelab.model.pancakes.Ingredient;
+import org.pancakelab.model.pancakes.PancakeFactory;
+import org.pancakelab.model.pancakes.PancakeRecipe;
+import org.pancakelab.repository.impl.InMemoryCountedPancakeRepository;
+import org.pancakelab.service.impl.IndexedOrderStateService;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ShardedPancakeServiceTest {
+    private static final int SHARD_COUNT = 4;
+
+    private final PancakeFactory pancakeFactory = new DefaultPancakeFactory();
+    private final PancakeRecipe darkChocolate = pancakeFactory.createRecipe(List.of(Ingredient.DARK_CHOCOLATE));
+    private List<PancakeService> shards;
+    private ShardedPancakeService pancakeService;
+
+    @BeforeEach
+    public void setUp() {
+        var orderFactory = new DefaultOrderFactory(new OrderValidator(new OrderValidatorConfig(1, 10, 1, 100)));
+        shards = new ArrayList<>();
+        pancakeService = new ShardedPancakeService(orderFactory, SHARD_COUNT, shard -> {
+            var shardService = new PancakeService.Builder()
+                    .withOrderFactory(orderFactory)
+                    .withOrderStateService(new IndexedOrderStateService())
+                    .withPancakeRepository(new InMemoryCountedPancakeRepository())
+                    .withPancakeFactory(pancakeFactory)
+                    .build();
+            shards.add(shardService);
+            return shardService;
+        });
+    }
+
+    @Test
+    public void GivenManyOrders_WhenCreatingOrders_ThenOrdersSpreadOverShardsAndRoutedById_Test() {
+        List<Order> orders = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            Order order = pancakeService.createOrder(1, 1 + i % 100);
+            pancakeService.addPancake(order.getId(), darkChocolate, 1);
+            orders.add(order);
+        }
+
+        for (PancakeService shard : shards) {
+            long ordersInShard = orders.stream().filter(order -> !shard.viewOrder(order.getId()).isEmpty()).count();
+            assertTrue(ordersInShard > 0 && ordersInShard < orders.size());
+        }
+        for (Order order : orders) {
+            assertEquals(List.of(darkChocolate.description()), pancakeService.viewOrder(order.getId()));
+        }
+        assertThrows(OrderNotFoundException.class, () -> pancakeService.addPancake(UUID.randomUUID(), darkChocolate, 1));
+    }
+
+    @Test
+    public void GivenPreparedOrdersInAllShards_WhenListingAndDraining_ThenResultsMergedAcrossShards_Test() {
+        Set<UUID> preparedOrderIds = new HashSet<>();
+        for (int i = 0; i < 40; i++) {
+            UUID orderId = pancakeService.createOrder(1, 1 + i).getId();
+            pancakeService.completeOrder(orderId);
+            if (i % 2 == 0) {
+                pancakeService.prepareOrder(orderId);
+                preparedOrderIds.add(orderId);
+            }
+        }
+
+        assertEquals(preparedOrderIds, pancakeService.listPreparedOrders());
+        assertEquals(20, pancakeService.listCompletedOrders().size());
+
+        List<DeliveredOrder> firstBatch = pancakeService.drainForDelivery(15);
+        List<DeliveredOrder> secondBatch = pancakeService.drainForDelivery(15);
+
+        assertEquals(15, firstBatch.size());
+        assertEquals(5, secondBatch.size());
+        Set<UUID> deliveredOrderIds = new HashSet<>();
+        firstBatch.forEach(delivered -> deliveredOrderIds.add(delivered.order().getId()));
+        secondBatch.forEach(delivered -> deliveredOrderIds.add(delivered.order().getId()));
+        assertEquals(preparedOrderIds, deliveredOrderIds);
+        assertTrue(pancakeService.listPreparedOrders().isEmpty());
+    }
+
+    @Test
+    public void GivenBulkRequestsWithInvalidRow_WhenCreatingOrders_ThenValidOrdersStoredInTheirShards_Test() {
+        List<OrderRequest> requests = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            requests.add(new OrderRequest(1, 1 + i));
+        }
+        requests.add(new OrderRequest(0, 1));
+
+        BulkOrderResult result = pancakeService.createOrders(requests.stream());
+
+        assertEquals(40, result.orders().size());
+        assertEquals(1, result.errors().size());
+        assertEquals(40, result.errors().get(0).row());
+        for (Order order : result.orders()) {
+            pancakeService.addPancake(order.getId(), darkChocolate, 1);
+            pancakeService.completeOrder(order.getId());
+        }
+        assertEquals(40, pancakeService.listCompletedOrders().size());
+        for (PancakeService shard : shards) {
+            assertTrue(shard.listCompletedOrders().size() < 40);
+        }
+        assertEquals(0, pancakeService.expireOrders());
+    }
+}
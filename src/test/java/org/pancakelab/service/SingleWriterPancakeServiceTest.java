@@ -0,0 +1,88 @@
+package org.pancakelab.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.pancakelab.exception.OrderNotFoundException;
+import org.pancakelab.model.orders.DefaultOrderFactory;
+import org.pancakelab.model.orders.DeliveredOrder;
+import org.pancakelab.model.orders.Order;
+import org.pancakelab.model.orders.OrderValidator;
+import org.pancakelab.model.orders.OrderValidatorConfig;
+import org.pancakelab.model.pancakes.DefaultPancakeFactory;
+import org.pancakelab.model.pancakes.Ingredient;
+import org.pancakelab.model.pancakes.PancakeFactory;
+import org.pancakelab.model.pancakes.PancakeRecipe;
+import org.pancakelab.service.impl.NoLogOrderLogger;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SingleWriterPancakeServiceTest {
+    private final PancakeFactory pancakeFactory = new DefaultPancakeFactory();
+    private final PancakeRecipe darkChocolate = pancakeFactory.createRecipe(List.of(Ingredient.DARK_CHOCOLATE));
+    private SingleWriterPancakeService pancakeService;
+
+    @BeforeEach
+    public void setUp() {
+        var orderFactory = new DefaultOrderFactory(new OrderValidator(new OrderValidatorConfig(1, 10, 1, 100)));
+        pancakeService = new SingleWriterPancakeService(orderFactory, new NoLogOrderLogger(), pancakeFactory, 16);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        pancakeService.close();
+    }
+
+    @Test
+    public void GivenManyThreadsSubmitting_WhenAddingPancakesToSameOrder_ThenNoPancakeIsLost_Test() throws Exception {
+        Order order = pancakeService.createOrder(1, 10).get();
+        int threads = 8;
+        int pancakesPerThread = 200;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        List<CompletableFuture<Void>> results = new ArrayList<>();
+        for (int i = 0; i < threads; i++) {
+            results.add(CompletableFuture.runAsync(() -> {
+                for (int j = 0; j < pancakesPerThread; j++) {
+                    pancakeService.addPancake(order.getId(), darkChocolate, 1);
+                }
+            }, executor));
+        }
+        CompletableFuture.allOf(results.toArray(CompletableFuture[]::new)).get();
+        executor.shutdown();
+
+        assertEquals(threads * pancakesPerThread, pancakeService.viewOrder(order.getId()).get().size());
+    }
+
+    @Test
+    public void GivenOrderLifecycle_WhenSubmittingCommands_ThenResultsAndFailuresReturnedThroughFutures_Test() throws Exception {
+        Order order = pancakeService.createOrder(2, 20).get();
+        pancakeService.addPancake(order.getId(), darkChocolate, 2);
+        pancakeService.completeOrder(order.getId());
+        pancakeService.prepareOrder(order.getId());
+
+        assertEquals(List.of(new DeliveredOrder(order, List.of(darkChocolate.description(), darkChocolate.description()))),
+                pancakeService.drainForDelivery(10).get());
+        var failure = assertThrows(ExecutionException.class,
+                () -> pancakeService.addPancake(UUID.randomUUID(), darkChocolate, 1).get());
+        assertInstanceOf(OrderNotFoundException.class, failure.getCause());
+    }
+
+    @Test
+    public void GivenQueuedCommands_WhenClosing_ThenQueuedCommandsExecutedAndLaterOnesRejected_Test() throws Exception {
+        CompletableFuture<Order> created = pancakeService.createOrder(3, 30);
+        pancakeService.close();
+
+        assertTrue(created.isDone());
+        assertNotNull(created.get());
+        var failure = assertThrows(ExecutionException.class, () -> pancakeService.createOrder(3, 30).get());
+        assertInstanceOf(IllegalStateException.class, failure.getCause());
+    }
+}
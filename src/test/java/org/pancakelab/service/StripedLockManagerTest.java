@@ -0,0 +1,75 @@
+package org.pancakelab.service;
+
+import org.junit.jupiter.api.Test;
+import org.pancakelab.service.impl.StripedLockManager;
+import org.pancakelab.service.impl.StripedReadWriteLockManager;
+import org.pancakelab.service.impl.StripedStampedLockManager;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.locks.Lock;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class StripedLockManagerTest {
+
+    @Test
+    public void GivenManyOrderIds_WhenGettingLocks_ThenLocksBoundedByStripeCountAndStablePerOrder_Test() {
+        OrderLockManager orderLockManager = new StripedLockManager(8);
+        Set<Lock> locks = new HashSet<>();
+        for (int i = 0; i < 10_000; i++) {
+            UUID orderId = UUID.randomUUID();
+            Lock lock = orderLockManager.writeLock(orderId);
+            assertSame(lock, orderLockManager.writeLock(orderId));
+            locks.add(lock);
+        }
+
+        assertEquals(8, locks.size());
+        assertEquals(0, orderLockManager.tryOptimisticRead(UUID.randomUUID()));
+    }
+
+    @Test
+    public void GivenStripeCountNotPowerOfTwo_WhenCreatingLockManager_ThenThrowsIllegalArgumentException_Test() {
+        assertThrows(IllegalArgumentException.class, () -> new StripedLockManager(12));
+        assertThrows(IllegalArgumentException.class, () -> new StripedReadWriteLockManager(0));
+    }
+
+    @Test
+    public void GivenReadWriteStripes_WhenReadLockHeld_ThenOtherReadersNotBlocked_Test() throws InterruptedException {
+        OrderLockManager orderLockManager = new StripedReadWriteLockManager(1);
+        UUID orderId = UUID.randomUUID();
+        orderLockManager.readLock(orderId).lock();
+        try {
+            boolean[] acquired = new boolean[2];
+            Thread thread = new Thread(() -> {
+                acquired[0] = orderLockManager.readLock(orderId).tryLock();
+                acquired[1] = orderLockManager.writeLock(orderId).tryLock();
+                if (acquired[0]) orderLockManager.readLock(orderId).unlock();
+            });
+            thread.start();
+            thread.join();
+
+            assertTrue(acquired[0]);
+            assertFalse(acquired[1]);
+        } finally {
+            orderLockManager.readLock(orderId).unlock();
+        }
+    }
+
+    @Test
+    public void GivenStampedStripes_WhenOrderMutatedDuringOptimisticRead_ThenValidationFails_Test() {
+        OrderLockManager orderLockManager = new StripedStampedLockManager(4);
+        UUID orderId = UUID.randomUUID();
+
+        long stamp = orderLockManager.tryOptimisticRead(orderId);
+        assertNotEquals(0, stamp);
+        assertTrue(orderLockManager.validate(orderId, stamp));
+
+        Lock lock = orderLockManager.writeLock(orderId);
+        lock.lock();
+        lock.unlock();
+
+        assertFalse(orderLockManager.validate(orderId, stamp));
+    }
+}